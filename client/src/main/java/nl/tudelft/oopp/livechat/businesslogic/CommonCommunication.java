@@ -4,9 +4,15 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import nl.tudelft.oopp.livechat.controllers.gui.AlertController;
 
+import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 public abstract class CommonCommunication {
 
@@ -20,6 +26,18 @@ public abstract class CommonCommunication {
      */
     public static final String ADDRESS = "http://localhost:8080";
 
+    /**
+     * The time (in seconds) to wait when the server is too busy and does not say how long.
+     */
+    private static final long DEFAULT_RETRY_AFTER = 5;
+
+    /**
+     * The last response with an ETag received for every GET request.
+     *     It is sent back as If-None-Match and reused when the server answers 304 Not Modified.
+     */
+    private static final Map<URI, HttpResponse<String>> taggedResponses =
+            new ConcurrentHashMap<>();
+
 
     private CommonCommunication() {
 
@@ -27,19 +45,88 @@ public abstract class CommonCommunication {
 
     /**
      * A method to send an HTTP request to the server and receive the response.
+     *     If the server has tagged the previous response to the same GET request,
+     *     the tag is sent back and the previous response is reused if nothing has changed.
      * @param request HTTP request to the server
      * @return HTTP response if successful, null if not
      */
     public static HttpResponse<String> sendAndReceive(HttpRequest request) {
+        boolean get = request.method().equals("GET");
+        HttpResponse<String> tagged = get ? taggedResponses.get(request.uri()) : null;
         HttpResponse<String> response;
         try {
-            response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            response = client.send(tagged == null ? request : withETag(request, tagged),
+                    HttpResponse.BodyHandlers.ofString());
+        } catch (Exception e) {
+            return null;
+        }
+        if (tagged != null && response.statusCode() == 304) {
+            return tagged;
+        }
+        if (get) {
+            if (response.statusCode() == 200 && getETag(response).isPresent()) {
+                taggedResponses.put(request.uri(), response);
+            } else {
+                taggedResponses.remove(request.uri());
+            }
+        }
+        return response;
+    }
+
+    /**
+     * A helper method to copy a GET request, adding the tag of the previous response.
+     * @param request the GET request
+     * @param tagged the previous response to the request
+     * @return the request with the If-None-Match header
+     */
+    private static HttpRequest withETag(HttpRequest request, HttpResponse<String> tagged) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request.uri()).GET();
+        request.timeout().ifPresent(builder::timeout);
+        request.headers().map().forEach((name, values) ->
+                values.forEach(value -> builder.header(name, value)));
+        getETag(tagged).ifPresent(etag -> builder.header("If-None-Match", etag));
+        return builder.build();
+    }
+
+    /**
+     * A helper method to get the tag of a response.
+     * @param response the response
+     * @return the value of the ETag header if present
+     */
+    private static Optional<String> getETag(HttpResponse<String> response) {
+        return response.headers().firstValue("ETag");
+    }
+
+    /**
+     * A method to send an HTTP request to the server and receive the response line by line,
+     *     as soon as each line arrives (e.g. for a stream of events).
+     * @param request HTTP request to the server
+     * @return HTTP response with the stream of lines if successful, null if not
+     */
+    public static HttpResponse<Stream<String>> sendAndReceiveLines(HttpRequest request) {
+        HttpResponse<Stream<String>> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofLines());
         } catch (Exception e) {
             return null;
         }
         return response;
     }
 
+    /**
+     * A method to open a WebSocket connection to the server.
+     * @param uri the address of the WebSocket endpoint
+     * @param listener the listener receiving the messages from the server
+     * @return the WebSocket if successful, null if not
+     */
+    public static WebSocket openWebSocket(URI uri, WebSocket.Listener listener) {
+        try {
+            return client.newWebSocketBuilder().buildAsync(uri, listener).join();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
     /**
      * Handles HTTP response received from the server and shows alerts.
      * @param response the HTTP response received from the server
@@ -79,4 +166,27 @@ public abstract class CommonCommunication {
         return 0;
     }
 
+    /**
+     * Waits before the next request if the server is too busy
+     *     to keep the client waiting, for as long as the server asks (Retry-After).
+     * @param response the HTTP response received from the server
+     */
+    public static void backOffIfBusy(HttpResponse<?> response) {
+        if (response == null || response.statusCode() != 503) {
+            return;
+        }
+        long seconds = DEFAULT_RETRY_AFTER;
+        try {
+            seconds = response.headers().firstValue("Retry-After")
+                    .map(Long::parseLong).orElse(DEFAULT_RETRY_AFTER);
+        } catch (NumberFormatException e) {
+            //the time is given as a date, use the default
+        }
+        try {
+            Thread.sleep(seconds * 1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
 }
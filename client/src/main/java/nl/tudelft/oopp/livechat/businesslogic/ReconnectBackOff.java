@@ -0,0 +1,61 @@
+package nl.tudelft.oopp.livechat.businesslogic;
+
+public class ReconnectBackOff {
+
+    /**
+     * The time (in milliseconds) to wait before reconnecting after a stream that lasted.
+     */
+    public static final long MIN_DELAY = 500;
+
+    /**
+     * The longest time (in milliseconds) to wait before reconnecting.
+     */
+    public static final long MAX_DELAY = 30000;
+
+    /**
+     * The time (in milliseconds) a stream has to stay open not to count as short-lived.
+     */
+    public static final long SHORT_STREAM = 10000;
+
+    /**
+     * The number of short-lived streams after which the delay stops growing.
+     */
+    private static final int MAX_DOUBLINGS = 6;
+
+    /**
+     * The number of consecutive short-lived streams.
+     */
+    private int shortStreams;
+
+    /**
+     * Computes the time to wait before reconnecting after a stream has been closed.
+     *     The time doubles with every consecutive short-lived stream (e.g. when the server
+     *     keeps closing the streams right away) and goes back to the minimum
+     *     after a stream that lasted.
+     * @param streamDuration the time (in milliseconds) the stream has been open
+     * @return the time (in milliseconds) to wait
+     */
+    public long nextDelay(long streamDuration) {
+        if (streamDuration < SHORT_STREAM) {
+            shortStreams = Math.min(shortStreams + 1, MAX_DOUBLINGS);
+        } else {
+            shortStreams = 0;
+        }
+        return Math.min(MIN_DELAY << shortStreams, MAX_DELAY);
+    }
+
+    /**
+     * Waits before reconnecting after a stream has been closed.
+     * @param streamDuration the time (in milliseconds) the stream has been open
+     * @return true if the time has passed, false if the thread has been interrupted
+     */
+    public boolean await(long streamDuration) {
+        try {
+            Thread.sleep(nextDelay(streamDuration));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -26,12 +26,15 @@ import nl.tudelft.oopp.livechat.controllers.gui.AlertController;
 import nl.tudelft.oopp.livechat.controllers.gui.NavigationController;
 import nl.tudelft.oopp.livechat.businesslogic.QuestionManager;
 import nl.tudelft.oopp.livechat.businesslogic.CreateFile;
+import nl.tudelft.oopp.livechat.businesslogic.ReconnectBackOff;
 import nl.tudelft.oopp.livechat.controllers.popupcontrollers.PollingManagementPopupController;
 import nl.tudelft.oopp.livechat.data.*;
 import nl.tudelft.oopp.livechat.servercommunication.LectureSpeedCommunication;
 import nl.tudelft.oopp.livechat.servercommunication.PollCommunication;
+import nl.tudelft.oopp.livechat.servercommunication.PollTallyCommunication;
 import nl.tudelft.oopp.livechat.uielements.QuestionCellLecturer;
 import nl.tudelft.oopp.livechat.servercommunication.LectureCommunication;
+import nl.tudelft.oopp.livechat.servercommunication.LectureWebSocketCommunication;
 import nl.tudelft.oopp.livechat.servercommunication.QuestionCommunication;
 
 import java.awt.Toolkit;
@@ -137,6 +140,8 @@ public class LecturerChatSceneController implements Initializable {
 
     private Thread fetchingThread;
 
+    private Thread tallyThread;
+
     private static List<Integer> lectureSpeeds;
 
     private List<Question> questions;
@@ -152,6 +157,7 @@ public class LecturerChatSceneController implements Initializable {
         lectureNameText.setText(Lecture.getCurrent().getName());
         userNameText.setText(User.getUserName());
         slowerVotesPercentLine.setEndX(fasterVotesPercentLine.getEndX());
+        LectureWebSocketCommunication.open();
 
         getQuestions(true);
         timelineFetch = new Timeline(new KeyFrame(Duration.millis(1000), ae -> {
@@ -174,6 +180,47 @@ public class LecturerChatSceneController implements Initializable {
         fetchingThread.setDaemon(true);
         fetchingThread.start();
 
+        Lecture lecture = Lecture.getCurrent();
+        tallyThread = new Thread(() -> receivePollTallies(lecture));
+        tallyThread.setDaemon(true);
+        tallyThread.start();
+    }
+
+    /**
+     * Receives the votes on the latest poll of the lecture until the lecturer leaves it
+     *     or the thread is interrupted. If the stream can not be opened,
+     *     the poll is fetched every second instead. After a stream is closed, it waits
+     *     a little before reconnecting, and longer if the streams keep closing soon
+     *     after being opened.
+     * @param lecture the lecture the votes are received for
+     */
+    private static void receivePollTallies(Lecture lecture) {
+        ReconnectBackOff backOff = new ReconnectBackOff();
+        while (isCurrentLecture(lecture) && !Thread.currentThread().isInterrupted()) {
+            long opened = System.currentTimeMillis();
+            if (PollTallyCommunication.connect(lecture.getUuid(), lecture.getModkey())) {
+                if (!backOff.await(System.currentTimeMillis() - opened)) {
+                    return;
+                }
+                continue;
+            }
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * A helper method to check if the lecture is still the current lecture
+     *     (the lecturer may have left it or entered another one).
+     * @param lecture the lecture
+     * @return true if the lecture is the current lecture, false otherwise
+     */
+    private static boolean isCurrentLecture(Lecture lecture) {
+        Lecture current = Lecture.getCurrent();
+        return lecture != null && current != null && lecture.getUuid().equals(current.getUuid());
     }
 
     /**
@@ -291,6 +338,10 @@ public class LecturerChatSceneController implements Initializable {
             timelineFetch.stop();
             fetchingThread.stop();
             fetchingThread = null;
+            tallyThread.interrupt();
+            tallyThread = null;
+            LectureWebSocketCommunication.close();
+            PollTallyCommunication.close();
             Question.setCurrentList(new ArrayList<>());
             NavigationController.getCurrent().goBack();
             NavigationController.getCurrent().goBack();
@@ -348,6 +399,10 @@ public class LecturerChatSceneController implements Initializable {
             timelineFetch.stop();
             fetchingThread.stop();
             fetchingThread = null;
+            tallyThread.interrupt();
+            tallyThread = null;
+            LectureWebSocketCommunication.close();
+            PollTallyCommunication.close();
             Question.setCurrentList(new ArrayList<>());
             LectureCommunication.closeLecture(Lecture.getCurrent().getUuid().toString(),
                     Lecture.getCurrent().getModkey().toString());
@@ -486,8 +541,15 @@ public class LecturerChatSceneController implements Initializable {
 
     /**
      * Fetches an open poll for the current lecture if this poll exists.
+     *     While the votes are streamed, the poll is only fetched again
+     *     if it has changed (another poll, other options or opened/closed).
      */
     private void fetchPoll() {
+        PollTally tally = PollTallyCommunication.getTally();
+        if (PollTallyCommunication.isConnected() && tally != null
+                && tally.applyTo(PollAndOptions.getCurrent())) {
+            return;
+        }
         PollAndOptions fetched = (
                 PollCommunication.fetchPollAndOptionsModerator(
                         Lecture.getCurrent().getUuid(),
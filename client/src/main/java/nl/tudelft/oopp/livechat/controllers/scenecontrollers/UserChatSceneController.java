@@ -14,12 +14,15 @@ import nl.tudelft.oopp.livechat.businesslogic.InputValidator;
 import nl.tudelft.oopp.livechat.controllers.gui.AlertController;
 import nl.tudelft.oopp.livechat.controllers.gui.NavigationController;
 import nl.tudelft.oopp.livechat.businesslogic.QuestionManager;
+import nl.tudelft.oopp.livechat.businesslogic.ReconnectBackOff;
 import nl.tudelft.oopp.livechat.data.Lecture;
 
 import nl.tudelft.oopp.livechat.data.PollAndOptions;
 import nl.tudelft.oopp.livechat.data.Question;
 
 import nl.tudelft.oopp.livechat.servercommunication.LectureSpeedCommunication;
+import nl.tudelft.oopp.livechat.servercommunication.LectureStreamCommunication;
+import nl.tudelft.oopp.livechat.servercommunication.LectureWebSocketCommunication;
 import nl.tudelft.oopp.livechat.servercommunication.PollCommunication;
 import nl.tudelft.oopp.livechat.uielements.QuestionCellUser;
 import nl.tudelft.oopp.livechat.data.User;
@@ -75,16 +78,7 @@ public class UserChatSceneController implements Initializable {
 
     private Timeline timelineFetch;
 
-    private Thread fetchingThread = new Thread(
-        () -> {
-            while (Lecture.getCurrent() != null) {
-                List<Question> list = QuestionCommunication.fetchQuestions(false);
-                if (list != null) {
-                    Question.setCurrentList(list);
-                }
-            }
-        }
-    );
+    private Thread fetchingThread = new Thread(UserChatSceneController::receiveLectureUpdates);
 
 
     /**
@@ -96,6 +90,7 @@ public class UserChatSceneController implements Initializable {
         lectureNameText.setText(Lecture.getCurrent().getName());
         userNameText.setText(User.getUserName());
         fetchVotes();
+        LectureWebSocketCommunication.open();
 
         getQuestions(true);
         timelineFetch = new Timeline(new KeyFrame(Duration.millis(1000), ae -> {
@@ -106,16 +101,7 @@ public class UserChatSceneController implements Initializable {
         timelineFetch.setCycleCount(Animation.INDEFINITE);
         timelineFetch.play();
 
-        fetchingThread = new Thread(
-            () -> {
-                while (Lecture.getCurrent() != null) {
-                    List<Question> list = QuestionCommunication.fetchQuestions(false);
-                    if (list != null) {
-                        Question.setCurrentList(list);
-                    }
-                }
-            }
-        );
+        fetchingThread = new Thread(UserChatSceneController::receiveLectureUpdates);
         fetchingThread.setDaemon(true);
         fetchingThread.start();
 
@@ -124,6 +110,34 @@ public class UserChatSceneController implements Initializable {
         leaveLecture.setTooltip(new Tooltip("Leave this lecture"));
     }
 
+    /**
+     * Receives the updates of the current lecture until the user leaves it.
+     *     The updates are received over one stream of events. If the stream
+     *     can not be opened, the questions are long polled instead.
+     *     After a stream is closed, it waits a little before reconnecting,
+     *     and longer if the streams keep closing soon after being opened.
+     */
+    private static void receiveLectureUpdates() {
+        ReconnectBackOff backOff = new ReconnectBackOff();
+        while (Lecture.getCurrent() != null) {
+            Lecture lecture = Lecture.getCurrent();
+            if (lecture == null) {
+                continue;
+            }
+            long opened = System.currentTimeMillis();
+            if (LectureStreamCommunication.connect(lecture.getUuid())) {
+                if (!backOff.await(System.currentTimeMillis() - opened)) {
+                    return;
+                }
+                continue;
+            }
+            List<Question> list = QuestionCommunication.fetchQuestions(false);
+            if (list != null) {
+                Question.setCurrentList(list);
+            }
+        }
+    }
+
     /**
      * Fetches the questions asked in the current lecture.
      */
@@ -171,6 +185,8 @@ public class UserChatSceneController implements Initializable {
             timelineFetch.stop();
             fetchingThread.stop();
             fetchingThread = null;
+            LectureStreamCommunication.close();
+            LectureWebSocketCommunication.close();
             Question.setCurrentList(new ArrayList<>());
             NavigationController.getCurrent().goToMainScene();
             Lecture.setCurrent(null);
@@ -237,7 +253,9 @@ public class UserChatSceneController implements Initializable {
      */
     public void getVotesOnLectureSpeed() {
         UUID uuid = Lecture.getCurrent().getUuid();
-        List<Integer> speeds = LectureSpeedCommunication.getVotesOnLectureSpeed(uuid);
+        List<Integer> speeds = LectureStreamCommunication.isConnected()
+                ? LectureStreamCommunication.getLectureSpeed()
+                : LectureSpeedCommunication.getVotesOnLectureSpeed(uuid);
         if (speeds != null && speeds.get(0).equals(0) && speeds.get(1).equals(0)) {
             voteOnLectureSpeedFast.setSelected(false);
             voteOnLectureSpeedSlow.setSelected(false);
@@ -248,8 +266,9 @@ public class UserChatSceneController implements Initializable {
      * Fetches the poll and opens/reopens it.
      */
     private void fetchVotes() {
-        PollAndOptions fetched = PollCommunication
-                .fetchPollAndOptionsStudent(Lecture.getCurrent().getUuid());
+        PollAndOptions fetched = LectureStreamCommunication.isConnected()
+                ? LectureStreamCommunication.getPoll()
+                : PollCommunication.fetchPollAndOptionsStudent(Lecture.getCurrent().getUuid());
         if (fetched == null || fetched.getOptions() == null || fetched.getOptions().size() == 0) {
             return;
         }
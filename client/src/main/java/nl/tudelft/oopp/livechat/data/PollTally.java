@@ -0,0 +1,132 @@
+package nl.tudelft.oopp.livechat.data;
+
+import java.util.Map;
+import java.util.Objects;
+
+
+public class PollTally {
+    /**
+     * The id of the poll.
+     */
+    private long pollId;
+
+    /**
+     * True if the poll is open for voting.
+     */
+    private boolean open;
+
+    /**
+     * The number of votes on the poll.
+     */
+    private long votes;
+
+    /**
+     * The number of votes on every option of the poll, by the id of the option.
+     */
+    private Map<Long, Long> optionVotes;
+
+    /**
+     * Creates a PollTally object.
+     */
+    public PollTally() {
+    }
+
+    /**
+     * Creates a PollTally object with the specified parameters.
+     * @param pollId the id of the poll
+     * @param open true if the poll is open for voting
+     * @param votes the number of votes on the poll
+     * @param optionVotes the number of votes on every option of the poll
+     */
+    public PollTally(long pollId, boolean open, long votes, Map<Long, Long> optionVotes) {
+        this.pollId = pollId;
+        this.open = open;
+        this.votes = votes;
+        this.optionVotes = optionVotes;
+    }
+
+    /**
+     * Gets the id of the poll.
+     * @return the id of the poll
+     */
+    public long getPollId() {
+        return pollId;
+    }
+
+    /**
+     * Checks if the poll is open for voting.
+     * @return true if the poll is open, false otherwise
+     */
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Gets the number of votes on the poll.
+     * @return the number of votes on the poll
+     */
+    public long getVotes() {
+        return votes;
+    }
+
+    /**
+     * Gets the number of votes on every option of the poll.
+     * @return the number of votes by the id of the option
+     */
+    public Map<Long, Long> getOptionVotes() {
+        return optionVotes;
+    }
+
+    /**
+     * Sets the votes on the poll and its options, if the tally is about the same poll
+     *     with the same options and state.
+     * @param pollAndOptions the poll and its options
+     * @return true if the votes have been set, false if the poll has to be fetched again
+     */
+    public boolean applyTo(PollAndOptions pollAndOptions) {
+        if (pollAndOptions == null || pollAndOptions.getPoll().getId() != pollId
+                || pollAndOptions.getPoll().isOpen() != open
+                || pollAndOptions.getOptions().size() != optionVotes.size()) {
+            return false;
+        }
+        for (PollOption option : pollAndOptions.getOptions()) {
+            if (!optionVotes.containsKey(option.getId())) {
+                return false;
+            }
+        }
+        pollAndOptions.getPoll().setVotes(votes);
+        for (PollOption option : pollAndOptions.getOptions()) {
+            option.setVotes(optionVotes.get(option.getId()));
+        }
+        return true;
+    }
+
+    /**
+     * Compares the PollTally object to another object.
+     * @param o the other object to compare to
+     * @return true iff the other object is also a PollTally object and has the same
+     *         poll id, state and votes. False otherwise
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof PollTally) {
+            PollTally that = (PollTally) o;
+            return this.pollId == that.pollId && this.open == that.open
+                    && this.votes == that.votes
+                    && Objects.equals(this.optionVotes, that.optionVotes);
+        }
+        return false;
+    }
+
+    /**
+     * Generates the hash code for the PollTally object.
+     * @return the generated hash code
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(pollId, open, votes, optionVotes);
+    }
+}
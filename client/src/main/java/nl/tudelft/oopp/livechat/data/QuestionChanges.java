@@ -0,0 +1,100 @@
+package nl.tudelft.oopp.livechat.data;
+
+import com.google.gson.annotations.Expose;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+public class QuestionChanges {
+
+    @Expose(serialize = false, deserialize = true)
+    private long version;
+
+    @Expose(serialize = false, deserialize = true)
+    private boolean full;
+
+    @Expose(serialize = false, deserialize = true)
+    private List<Question> questions = new ArrayList<>();
+
+    @Expose(serialize = false, deserialize = true)
+    private List<Long> removed = new ArrayList<>();
+
+    /**
+     * Empty constructor to create question changes.
+     */
+    public QuestionChanges() {
+    }
+
+    /**
+     * Creates new question changes.
+     * @param version the version of the lecture the changes lead to
+     * @param full true if the questions are all the questions of the lecture
+     * @param questions the questions created or modified
+     * @param removed the ids of the questions removed
+     */
+    public QuestionChanges(long version, boolean full, List<Question> questions,
+                           List<Long> removed) {
+        this.version = version;
+        this.full = full;
+        this.questions = questions;
+        this.removed = removed;
+    }
+
+    /**
+     * Gets the version of the lecture the changes lead to.
+     * @return the version of the lecture
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Checks if the questions are all the questions of the lecture.
+     * @return true if the questions are all the questions of the lecture, false otherwise
+     */
+    public boolean isFull() {
+        return full;
+    }
+
+    /**
+     * Gets the questions created or modified.
+     * @return the questions created or modified
+     */
+    public List<Question> getQuestions() {
+        return questions;
+    }
+
+    /**
+     * Gets the ids of the questions removed.
+     * @return the ids of the questions removed
+     */
+    public List<Long> getRemoved() {
+        return removed;
+    }
+
+    /**
+     * Applies the changes to the given list of questions.
+     * @param current the questions before the changes
+     * @return a new list with the changed questions replaced or added
+     *         and the removed questions left out
+     */
+    public List<Question> applyTo(List<Question> current) {
+        if (full) {
+            return new ArrayList<>(questions);
+        }
+        Map<Long, Question> merged = new LinkedHashMap<>();
+        for (Question q : current) {
+            merged.put(q.getId(), q);
+        }
+        for (Question q : questions) {
+            merged.put(q.getId(), q);
+        }
+        for (Long id : removed) {
+            merged.remove(id);
+        }
+        return new ArrayList<>(merged.values());
+    }
+}
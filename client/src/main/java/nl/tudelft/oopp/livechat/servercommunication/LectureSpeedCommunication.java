@@ -96,6 +96,9 @@ public abstract class LectureSpeedCommunication {
         if (Lecture.getCurrent() == null) {
             return false;
         }
+        if (LectureWebSocketCommunication.isOpen()) {
+            return LectureWebSocketCommunication.voteOnLectureSpeed(uid, lectureId, speed);
+        }
 
         HttpRequest.BodyPublisher body =  HttpRequest.BodyPublishers.ofString(speed);
         HttpRequest request = HttpRequest.newBuilder().PUT(body).uri(URI.create(ADDRESS
@@ -0,0 +1,184 @@
+package nl.tudelft.oopp.livechat.servercommunication;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import nl.tudelft.oopp.livechat.businesslogic.CommonCommunication;
+import nl.tudelft.oopp.livechat.data.PollAndOptions;
+import nl.tudelft.oopp.livechat.data.Question;
+import nl.tudelft.oopp.livechat.data.QuestionChanges;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+import static nl.tudelft.oopp.livechat.businesslogic.CommonCommunication.*;
+
+
+public abstract class LectureStreamCommunication {
+
+    /**
+     * Gson object for parsing the questions according to annotations
+     *     and with specified date format.
+     */
+    private static final Gson questionGson = new GsonBuilder()
+            .excludeFieldsWithoutExposeAnnotation()
+            .setDateFormat("yyyy-MM-dd HH:mm:ss Z").create();
+
+    /**
+     * Gson object for parsing the polls with specified date format.
+     */
+    private static final Gson pollGson = new GsonBuilder()
+            .setDateFormat("yyyy-MM-dd HH:mm:ss Z").create();
+
+    /**
+     * The address of the server.
+     */
+    private static final String ADDRESS = CommonCommunication.ADDRESS;
+
+    /**
+     * The stream of the lecture that is currently open.
+     */
+    private static volatile Stream<String> openStream;
+
+    /**
+     * The last votes for the lecture speed received from the stream.
+     */
+    private static volatile List<Integer> lectureSpeed;
+
+    /**
+     * The last poll received from the stream.
+     */
+    private static volatile PollAndOptions poll;
+
+    private LectureStreamCommunication() {
+
+    }
+
+    /**
+     * Opens the stream of events of the lecture and handles the events until the stream
+     *     is closed by the server, by the network or by calling close().
+     *     If the server is too busy, it waits as long as the server asks before returning.
+     * @param lectureId the id of the lecture
+     * @return true if the stream has been opened, false if not
+     */
+    public static boolean connect(UUID lectureId) {
+        HttpRequest request = HttpRequest.newBuilder().GET().uri(URI.create(ADDRESS
+                + "/api/stream/" + URLEncoder.encode(lectureId.toString(),
+                StandardCharsets.UTF_8))).header("Accept", "text/event-stream").build();
+        HttpResponse<Stream<String>> response = sendAndReceiveLines(request);
+        if (response == null) {
+            return false;
+        }
+        if (response.statusCode() != 200) {
+            response.body().close();
+            backOffIfBusy(response);
+            return false;
+        }
+        openStream = response.body();
+        try {
+            readEvents(response.body().iterator(), LectureStreamCommunication::handleEvent);
+        } catch (Exception e) {
+            //the stream has been closed
+        } finally {
+            openStream = null;
+        }
+        return true;
+    }
+
+    /**
+     * Closes the stream that is currently open (e.g. when leaving the lecture).
+     */
+    public static void close() {
+        Stream<String> stream = openStream;
+        if (stream != null) {
+            stream.close();
+        }
+        openStream = null;
+        lectureSpeed = null;
+        poll = null;
+    }
+
+    /**
+     * Checks if a stream is currently open.
+     * @return true if a stream is open, false otherwise
+     */
+    public static boolean isConnected() {
+        return openStream != null;
+    }
+
+    /**
+     * Gets the last votes for the lecture speed received from the stream.
+     * @return the votes for the lecture speed (first entry is the faster count,
+     *          second is the slower count), null if nothing has been received
+     */
+    public static List<Integer> getLectureSpeed() {
+        return lectureSpeed;
+    }
+
+    /**
+     * Gets the last poll received from the stream.
+     * @return the poll and its options as seen by the students, null if nothing has been received
+     */
+    public static PollAndOptions getPoll() {
+        return poll;
+    }
+
+    /**
+     * A helper method to read the events (name and data lines followed by an empty line)
+     *     from the lines of the stream.
+     * @param lines the lines of the stream
+     * @param handler the handler of every event (with its name and data)
+     */
+    static void readEvents(Iterator<String> lines, BiConsumer<String, String> handler) {
+        String name = "message";
+        StringBuilder data = new StringBuilder();
+        while (lines.hasNext()) {
+            String line = lines.next();
+            if (line.isEmpty()) {
+                if (data.length() > 0) {
+                    handler.accept(name, data.toString());
+                }
+                name = "message";
+                data.setLength(0);
+            } else if (line.startsWith("event:")) {
+                name = line.substring("event:".length()).trim();
+            } else if (line.startsWith("data:")) {
+                if (data.length() > 0) {
+                    data.append('\n');
+                }
+                data.append(line.substring("data:".length()).trim());
+            }
+        }
+    }
+
+    /**
+     * Handles an event received from the stream.
+     * @param name the name of the event
+     * @param data the data of the event (JSON)
+     */
+    public static void handleEvent(String name, String data) {
+        switch (name) {
+            case "questions":
+                QuestionChanges changes = questionGson.fromJson(data, QuestionChanges.class);
+                Question.setCurrentList(changes.applyTo(Question.getCurrentList()));
+                break;
+            case "speed":
+                lectureSpeed = questionGson.fromJson(data,
+                        new TypeToken<List<Integer>>(){}.getType());
+                break;
+            case "poll":
+                poll = pollGson.fromJson(data, PollAndOptions.class);
+                break;
+            default:
+                break;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package nl.tudelft.oopp.livechat.servercommunication;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import nl.tudelft.oopp.livechat.businesslogic.CommonCommunication;
+import nl.tudelft.oopp.livechat.controllers.gui.AlertController;
+
+import java.net.URI;
+import java.net.http.WebSocket;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static nl.tudelft.oopp.livechat.businesslogic.CommonCommunication.*;
+
+
+public abstract class LectureWebSocketCommunication {
+
+    /**
+     * The address of the WebSocket endpoint of the server.
+     */
+    private static final String ADDRESS = CommonCommunication.ADDRESS
+            .replaceFirst("^http", "ws") + "/api/ws";
+
+    /**
+     * The time to wait for the acknowledgement of an action (in seconds).
+     */
+    private static final long ACK_TIMEOUT = 5;
+
+    /**
+     * The WebSocket that is currently open.
+     */
+    private static volatile WebSocket webSocket;
+
+    /**
+     * The id of the next action sent to the server.
+     */
+    private static final AtomicLong nextId = new AtomicLong(1);
+
+    /**
+     * The actions waiting for their acknowledgement, by id.
+     */
+    private static final Map<Long, CompletableFuture<JsonObject>> pendingAcks =
+            new ConcurrentHashMap<>();
+
+    private LectureWebSocketCommunication() {
+
+    }
+
+    /**
+     * Opens the WebSocket to the server if it is not open yet.
+     * @return true if the WebSocket is open, false if not
+     */
+    public static synchronized boolean open() {
+        if (isOpen()) {
+            return true;
+        }
+        webSocket = openWebSocket(URI.create(ADDRESS), new AckListener());
+        return webSocket != null;
+    }
+
+    /**
+     * Closes the WebSocket (e.g. when leaving the lecture).
+     */
+    public static synchronized void close() {
+        WebSocket current = webSocket;
+        webSocket = null;
+        if (current != null) {
+            current.abort();
+        }
+        pendingAcks.values().forEach(ack -> ack.complete(null));
+        pendingAcks.clear();
+    }
+
+    /**
+     * Checks if the WebSocket is open.
+     * @return true if the WebSocket is open, false otherwise
+     */
+    public static boolean isOpen() {
+        WebSocket current = webSocket;
+        return current != null && !current.isOutputClosed() && !current.isInputClosed();
+    }
+
+    /**
+     * Upvotes a question over the WebSocket.
+     * @param qid the id of the question
+     * @param uid the id of the user
+     * @return true if the question has been upvoted successfully, false if not
+     */
+    public static boolean upvoteQuestion(long qid, long uid) {
+        JsonObject action = createAction("upvote");
+        action.addProperty("qid", qid);
+        action.addProperty("uid", uid);
+        return send(action, true);
+    }
+
+    /**
+     * Votes on the lecture speed over the WebSocket.
+     * @param uid the id of the user
+     * @param lectureId the id of the lecture
+     * @param speed the speed preference
+     * @return true if the vote has been recorded successfully, false if not
+     */
+    public static boolean voteOnLectureSpeed(long uid, UUID lectureId, String speed) {
+        JsonObject action = createAction("speed");
+        action.addProperty("uid", uid);
+        action.addProperty("uuid", lectureId.toString());
+        action.addProperty("speed", speed);
+        return send(action, true);
+    }
+
+    /**
+     * Votes for a poll option over the WebSocket.
+     * @param userId the id of the user
+     * @param pollOptionId the id of the poll option
+     * @return true if successful, false if not
+     */
+    public static boolean voteOnPoll(long userId, long pollOptionId) {
+        JsonObject action = createAction("pollVote");
+        action.addProperty("uid", userId);
+        action.addProperty("optionId", pollOptionId);
+        return send(action, true);
+    }
+
+    /**
+     * Sets the status of a question over the WebSocket.
+     * @param qid the id of the question
+     * @param modkey the moderator key
+     * @param status the status of the question
+     * @param uid the id of the user
+     * @return true if the status of the question has been set successfully, false if not
+     */
+    public static boolean setStatus(long qid, UUID modkey, String status, long uid) {
+        JsonObject action = createAction("status");
+        action.addProperty("status", status);
+        action.addProperty("qid", qid);
+        action.addProperty("uid", uid);
+        action.addProperty("modkey", modkey.toString());
+        return send(action, false);
+    }
+
+    /**
+     * A helper method to create an action with a new id.
+     * @param name the name of the action
+     * @return the action without parameters
+     */
+    private static JsonObject createAction(String name) {
+        JsonObject action = new JsonObject();
+        action.addProperty("id", nextId.getAndIncrement());
+        action.addProperty("action", name);
+        return action;
+    }
+
+    /**
+     * A helper method to send an action and wait for its acknowledgement.
+     * @param action the action with its id and parameters
+     * @param alerts true if an alert has to be shown when the action fails
+     * @return true if the action has been acknowledged successfully, false if not
+     */
+    private static boolean send(JsonObject action, boolean alerts) {
+        WebSocket current = webSocket;
+        if (current == null) {
+            return false;
+        }
+        long id = action.get("id").getAsLong();
+        CompletableFuture<JsonObject> pending = new CompletableFuture<>();
+        pendingAcks.put(id, pending);
+        JsonObject ack;
+        try {
+            current.sendText(action.toString(), true).join();
+            ack = pending.get(ACK_TIMEOUT, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            ack = null;
+        } finally {
+            pendingAcks.remove(id);
+        }
+        if (ack == null) {
+            if (alerts) {
+                AlertController.alertError("Error", "Connection error");
+            }
+            return false;
+        }
+        if (ack.has("error")) {
+            if (alerts) {
+                AlertController.alertError("Error", ack.get("error").getAsString());
+            }
+            return false;
+        }
+        return ack.get("result").getAsInt() == 0;
+    }
+
+    /**
+     * Handles an acknowledgement received from the server.
+     * @param text the acknowledgement (JSON)
+     */
+    public static void handleAck(String text) {
+        JsonObject ack = JsonParser.parseString(text).getAsJsonObject();
+        if (!ack.has("id") || ack.get("id").isJsonNull()) {
+            return;
+        }
+        CompletableFuture<JsonObject> pending = pendingAcks.get(ack.get("id").getAsLong());
+        if (pending != null) {
+            pending.complete(ack);
+        }
+    }
+
+    /**
+     * Listener of the WebSocket that completes the actions waiting for acknowledgements.
+     */
+    private static class AckListener implements WebSocket.Listener {
+
+        private final StringBuilder text = new StringBuilder();
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            text.append(data);
+            if (last) {
+                try {
+                    handleAck(text.toString());
+                } catch (Exception e) {
+                    //ignore invalid messages
+                }
+                text.setLength(0);
+            }
+            webSocket.request(1);
+            return null;
+        }
+    }
+}
@@ -152,6 +152,9 @@ public abstract class PollCommunication {
      * @return true if successful, false if not
      */
     public static boolean vote(long userId, long pollOptionId) {
+        if (LectureWebSocketCommunication.isOpen()) {
+            return LectureWebSocketCommunication.voteOnPoll(userId, pollOptionId);
+        }
         HttpRequest.BodyPublisher body =  HttpRequest.BodyPublishers.ofString("");
         HttpRequest request = HttpRequest.newBuilder().PUT(body).uri(URI.create(ADDRESS
                 + "/api/poll/vote/" + userId + "/" + pollOptionId)).build();
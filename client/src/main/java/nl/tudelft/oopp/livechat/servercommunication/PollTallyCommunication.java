@@ -0,0 +1,115 @@
+package nl.tudelft.oopp.livechat.servercommunication;
+
+import com.google.gson.Gson;
+import nl.tudelft.oopp.livechat.businesslogic.CommonCommunication;
+import nl.tudelft.oopp.livechat.data.PollTally;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static nl.tudelft.oopp.livechat.businesslogic.CommonCommunication.*;
+
+
+public abstract class PollTallyCommunication {
+
+    /**
+     * Gson object for parsing the votes.
+     */
+    private static final Gson gson = new Gson();
+
+    /**
+     * The address of the server.
+     */
+    private static final String ADDRESS = CommonCommunication.ADDRESS;
+
+    /**
+     * The stream of the votes that is currently open.
+     */
+    private static volatile Stream<String> openStream;
+
+    /**
+     * The last votes on the latest poll received from the stream.
+     */
+    private static volatile PollTally tally;
+
+    private PollTallyCommunication() {
+
+    }
+
+    /**
+     * Opens the stream of the votes on the polls of the lecture (for the moderator)
+     *     and handles the events until the stream is closed by the server,
+     *     by the network or by calling close().
+     * @param lectureId the id of the lecture
+     * @param modkey the moderator key
+     * @return true if the stream has been opened, false if not
+     */
+    public static boolean connect(UUID lectureId, UUID modkey) {
+        HttpRequest request = HttpRequest.newBuilder().GET().uri(URI.create(ADDRESS
+                + "/api/stream/poll/" + URLEncoder.encode(lectureId.toString(),
+                StandardCharsets.UTF_8) + "/" + URLEncoder.encode(modkey.toString(),
+                StandardCharsets.UTF_8))).header("Accept", "text/event-stream").build();
+        HttpResponse<Stream<String>> response = sendAndReceiveLines(request);
+        if (response == null) {
+            return false;
+        }
+        if (response.statusCode() != 200) {
+            response.body().close();
+            return false;
+        }
+        openStream = response.body();
+        try {
+            LectureStreamCommunication.readEvents(response.body().iterator(),
+                    PollTallyCommunication::handleEvent);
+        } catch (Exception e) {
+            //the stream has been closed
+        } finally {
+            openStream = null;
+        }
+        return true;
+    }
+
+    /**
+     * Closes the stream that is currently open (e.g. when leaving the lecture).
+     */
+    public static void close() {
+        Stream<String> stream = openStream;
+        if (stream != null) {
+            stream.close();
+        }
+        openStream = null;
+        tally = null;
+    }
+
+    /**
+     * Checks if a stream is currently open.
+     * @return true if a stream is open, false otherwise
+     */
+    public static boolean isConnected() {
+        return openStream != null;
+    }
+
+    /**
+     * Gets the last votes received from the stream.
+     * @return the votes on the latest poll and its options, null if nothing has been received
+     */
+    public static PollTally getTally() {
+        return tally;
+    }
+
+    /**
+     * Handles an event received from the stream.
+     * @param name the name of the event
+     * @param data the data of the event (JSON)
+     */
+    public static void handleEvent(String name, String data) {
+        if ("tally".equals(name)) {
+            tally = gson.fromJson(data, PollTally.class);
+        }
+    }
+}
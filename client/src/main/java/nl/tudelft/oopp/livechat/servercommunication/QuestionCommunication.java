@@ -7,6 +7,7 @@ import com.google.gson.reflect.TypeToken;
 import nl.tudelft.oopp.livechat.businesslogic.CommonCommunication;
 import nl.tudelft.oopp.livechat.data.Lecture;
 import nl.tudelft.oopp.livechat.data.Question;
+import nl.tudelft.oopp.livechat.data.QuestionChanges;
 import nl.tudelft.oopp.livechat.data.User;
 
 import java.net.URI;
@@ -40,6 +41,21 @@ public abstract class QuestionCommunication {
      */
     private static final String ADDRESS = CommonCommunication.ADDRESS;
 
+    /**
+     * The name of the response header with the version of the lecture.
+     */
+    private static final String VERSION_HEADER = "X-Lecture-Version";
+
+    /**
+     * The last version of the current lecture received from the server.
+     */
+    private static long lastVersion = -1;
+
+    /**
+     * The lecture the last version belongs to.
+     */
+    private static UUID lastLecture;
+
     /**
      * Sends an HTTP request to ask a question.
      * @param uid the id of the user
@@ -69,6 +85,10 @@ public abstract class QuestionCommunication {
 
     /**
      * Sends an HTTP request to fetch questions that have been asked in current lecture.
+     *     If it is not the first time, the server answers as soon as the lecture
+     *     has changed after the last version received by the client, and only
+     *     the changed and removed questions are sent and merged into the current ones.
+     * @param firstTime true if the questions have to be returned immediately
      * @return the list of questions related to current lecture,
      *         null if error occurs or the user is not in the lecture
      */
@@ -76,19 +96,66 @@ public abstract class QuestionCommunication {
         if (Lecture.getCurrent() == null) {
             return null;
         }
+        UUID lid = Lecture.getCurrent().getUuid();
+        if (!lid.equals(lastLecture)) {
+            lastVersion = -1;
+        }
+        if (!firstTime && lastVersion != -1) {
+            return fetchQuestionChanges(lid);
+        }
 
         HttpRequest request = HttpRequest.newBuilder().GET().uri(URI.create(ADDRESS
-                + "/api/question/fetch?lid=" + URLEncoder.encode(Lecture.getCurrent()
-                        .getUuid().toString(),
+                + "/api/question/fetch?lid=" + URLEncoder.encode(lid.toString(),
                 StandardCharsets.UTF_8) + "&firstTime=" + firstTime)).build();
         HttpResponse<String> response = sendAndReceive(request);
         if (handleResponseNoAlerts(response) != 0) {
+            backOffIfBusy(response);
             return null;
         }
-        Objects.requireNonNull(response).body();
+        Objects.requireNonNull(response).headers().firstValue(VERSION_HEADER)
+                .ifPresent(v -> setLastVersion(lid, Long.parseLong(v)));
         return gson.fromJson(response.body(), new TypeToken<List<Question>>(){}.getType());
     }
 
+    /**
+     * A helper method to fetch the changes of the questions since the last version
+     *     received by the client and merge them into the current questions.
+     * @param lid the id of the current lecture
+     * @return the merged list of questions, null if error occurs
+     */
+    private static List<Question> fetchQuestionChanges(UUID lid) {
+        HttpRequest request = HttpRequest.newBuilder().GET().uri(URI.create(ADDRESS
+                + "/api/question/fetch?lid=" + URLEncoder.encode(lid.toString(),
+                StandardCharsets.UTF_8) + "&since=" + lastVersion)).build();
+        HttpResponse<String> response = sendAndReceive(request);
+        if (handleResponseNoAlerts(response) != 0) {
+            backOffIfBusy(response);
+            return null;
+        }
+        QuestionChanges changes = gson.fromJson(Objects.requireNonNull(response).body(),
+                QuestionChanges.class);
+        setLastVersion(lid, changes.getVersion());
+        return changes.applyTo(Question.getCurrentList());
+    }
+
+    /**
+     * A helper method to remember the last version received by the client.
+     * @param lid the id of the lecture
+     * @param version the version of the lecture
+     */
+    private static void setLastVersion(UUID lid, long version) {
+        lastLecture = lid;
+        lastVersion = version;
+    }
+
+    /**
+     * Gets the last version of the current lecture received from the server.
+     * @return the last version of the current lecture, -1 if nothing has been received yet
+     */
+    public static long getLastVersion() {
+        return lastVersion;
+    }
+
     /** Sends an HTTP request to upvote a question.
      * @param qid the id of the question
      * @param uid the id of the user
@@ -98,6 +165,9 @@ public abstract class QuestionCommunication {
         if (Lecture.getCurrent() == null) {
             return false;
         }
+        if (LectureWebSocketCommunication.isOpen()) {
+            return LectureWebSocketCommunication.upvoteQuestion(qid, uid);
+        }
 
         HttpRequest.BodyPublisher body =  HttpRequest.BodyPublishers.ofString("");
         HttpRequest request = HttpRequest.newBuilder().PUT(body).uri(URI.create(ADDRESS
@@ -223,6 +293,9 @@ public abstract class QuestionCommunication {
         if (Lecture.getCurrent() == null) {
             return false;
         }
+        if (LectureWebSocketCommunication.isOpen()) {
+            return LectureWebSocketCommunication.setStatus(qid, modkey, status, uid);
+        }
         HttpRequest.BodyPublisher body =  HttpRequest.BodyPublishers.ofString(status);
         HttpRequest request = HttpRequest.newBuilder().PUT(body).uri(URI.create(ADDRESS
                 + "/api/question/status/" + qid + "/" + uid + "/"
@@ -0,0 +1,56 @@
+package nl.tudelft.oopp.livechat.businesslogic;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReconnectBackOffTest {
+    @Test
+    public void lastingStreamTest() {
+        ReconnectBackOff backOff = new ReconnectBackOff();
+        assertEquals(ReconnectBackOff.MIN_DELAY, backOff.nextDelay(ReconnectBackOff.SHORT_STREAM));
+        assertEquals(ReconnectBackOff.MIN_DELAY, backOff.nextDelay(60000));
+    }
+
+    @Test
+    public void shortStreamsGrowTest() {
+        ReconnectBackOff backOff = new ReconnectBackOff();
+        assertEquals(1000, backOff.nextDelay(0));
+        assertEquals(2000, backOff.nextDelay(0));
+        assertEquals(4000, backOff.nextDelay(100));
+    }
+
+    @Test
+    public void shortStreamsMaxDelayTest() {
+        ReconnectBackOff backOff = new ReconnectBackOff();
+        for (int i = 0; i < 20; i++) {
+            backOff.nextDelay(0);
+        }
+        assertEquals(ReconnectBackOff.MAX_DELAY, backOff.nextDelay(0));
+    }
+
+    @Test
+    public void lastingStreamResetsTest() {
+        ReconnectBackOff backOff = new ReconnectBackOff();
+        backOff.nextDelay(0);
+        backOff.nextDelay(0);
+        assertEquals(ReconnectBackOff.MIN_DELAY, backOff.nextDelay(60000));
+        assertEquals(1000, backOff.nextDelay(0));
+    }
+
+    @Test
+    public void awaitTest() {
+        ReconnectBackOff backOff = new ReconnectBackOff();
+        long start = System.currentTimeMillis();
+        assertTrue(backOff.await(60000));
+        assertTrue(System.currentTimeMillis() - start >= ReconnectBackOff.MIN_DELAY);
+    }
+
+    @Test
+    public void awaitInterruptedTest() {
+        ReconnectBackOff backOff = new ReconnectBackOff();
+        Thread.currentThread().interrupt();
+        assertFalse(backOff.await(0));
+        assertTrue(Thread.interrupted());
+    }
+}
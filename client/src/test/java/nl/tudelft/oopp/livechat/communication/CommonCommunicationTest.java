@@ -12,6 +12,7 @@ import org.mockserver.client.MockServerClient;
 import org.mockserver.integration.ClientAndServer;
 import org.mockserver.model.HttpResponse;
 import org.mockserver.model.Parameter;
+import org.mockserver.verify.VerificationTimes;
 
 import java.net.URI;
 import java.net.http.HttpRequest;
@@ -55,6 +56,20 @@ public class CommonCommunicationTest {
                 .respond(HttpResponse.response().withStatusCode(400)
                         .withBody(jason).withHeader("Content-Type","application/json"));
 
+        //not modified since the tagged response
+        mockServer.when(request().withMethod("GET").withPath("/api/get/tagged")
+                .withHeader("If-None-Match", "\"v1\""))
+                .respond(HttpResponse.response().withStatusCode(304)
+                        .withHeader("ETag", "\"v1\""));
+
+        //tagged response
+        mockServer.when(request().withMethod("GET").withPath("/api/get/tagged"))
+                .respond(HttpResponse.response().withStatusCode(200).withBody("tagged")
+                        .withHeader("ETag", "\"v1\""));
+
+        //response without a tag
+        mockServer.when(request().withMethod("GET").withPath("/api/get/untagged"))
+                .respond(HttpResponse.response().withStatusCode(200).withBody("untagged"));
     }
 
     private static HttpRequest buildRequest(long qid, long uid) {
@@ -104,6 +119,33 @@ public class CommonCommunicationTest {
 
 
 
+    @Test
+    public void sendAndReceiveNotModifiedTest() {
+        HttpRequest request = HttpRequest.newBuilder().GET()
+                .uri(URI.create(CommonCommunication.ADDRESS + "/api/get/tagged")).build();
+        java.net.http.HttpResponse<String> first = CommonCommunication.sendAndReceive(request);
+        assertNotNull(first);
+        assertEquals("tagged", first.body());
+
+        java.net.http.HttpResponse<String> second = CommonCommunication.sendAndReceive(request);
+        assertSame(first, second);
+        mockServer.verify(request().withMethod("GET").withPath("/api/get/tagged")
+                .withHeader("If-None-Match", "\"v1\""));
+    }
+
+    @Test
+    public void sendAndReceiveNoTagTest() {
+        HttpRequest request = HttpRequest.newBuilder().GET()
+                .uri(URI.create(CommonCommunication.ADDRESS + "/api/get/untagged")).build();
+        CommonCommunication.sendAndReceive(request);
+        java.net.http.HttpResponse<String> second = CommonCommunication.sendAndReceive(request);
+
+        assertNotNull(second);
+        assertEquals("untagged", second.body());
+        mockServer.verify(request().withPath("/api/get/untagged")
+                .withHeader("If-None-Match"), VerificationTimes.exactly(0));
+    }
+
     @Test
     public void handleResponseSuccessful() {
         assertEquals(0, CommonCommunication
@@ -0,0 +1,121 @@
+package nl.tudelft.oopp.livechat.communication;
+
+import nl.tudelft.oopp.livechat.data.Question;
+import nl.tudelft.oopp.livechat.servercommunication.LectureStreamCommunication;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockserver.client.MockServerClient;
+import org.mockserver.integration.ClientAndServer;
+import org.mockserver.model.HttpResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockserver.model.HttpRequest.request;
+
+public class LectureStreamCommunicationTest {
+    public static MockServerClient mockServer;
+
+    private static final UUID lid = UUID.randomUUID();
+    private static final UUID wrongLid = UUID.randomUUID();
+    private static final UUID busyLid = UUID.randomUUID();
+
+    /**
+     * Create expectations for opening the stream of a lecture.
+     */
+    private static void createExpectationsForStream() {
+        //Success (the server closes the stream after the initial events)
+        String events = "event:questions\n"
+                + "data:{\"version\":5,\"full\":true,\"questions\":[{\"id\":1,\"text\":\"Why?\"},"
+                + "{\"id\":2,\"text\":\"How?\"}],\"removed\":[]}\n\n"
+                + "event:speed\ndata:[3,4]\n\n"
+                + "event:poll\ndata:{\"poll\":{\"id\":7,\"questionText\":\"Ready?\","
+                + "\"open\":true},\"options\":[]}\n\n"
+                + "event:questions\ndata:{\"version\":6,\"full\":false,\"questions\":[],"
+                + "\"removed\":[2]}\n\n";
+        mockServer.when(request().withMethod("GET").withPath("/api/stream/" + lid))
+                .respond(HttpResponse.response().withStatusCode(200)
+                        .withBody(events)
+                        .withHeader("Content-Type", "text/event-stream"));
+
+        //Lecture not found
+        mockServer.when(request().withMethod("GET").withPath("/api/stream/" + wrongLid))
+                .respond(HttpResponse.response().withStatusCode(404));
+
+        //Too many clients waiting - send 503
+        mockServer.when(request().withMethod("GET").withPath("/api/stream/" + busyLid))
+                .respond(HttpResponse.response().withStatusCode(503)
+                        .withHeader("Retry-After", "1"));
+    }
+
+    @BeforeAll
+    public static void setUp() {
+        mockServer = ClientAndServer.startClientAndServer(8080);
+        createExpectationsForStream();
+    }
+
+    @AfterEach
+    public void clean() {
+        LectureStreamCommunication.close();
+        Question.setCurrentList(new ArrayList<>());
+    }
+
+    @Test
+    public void connectSuccessfulTest() {
+        assertTrue(LectureStreamCommunication.connect(lid));
+        assertFalse(LectureStreamCommunication.isConnected());
+
+        List<Question> questions = Question.getCurrentList();
+        assertEquals(1, questions.size());
+        assertEquals(1, questions.get(0).getId());
+        assertEquals(List.of(3, 4), LectureStreamCommunication.getLectureSpeed());
+        assertEquals(7, LectureStreamCommunication.getPoll().getPoll().getId());
+    }
+
+    @Test
+    public void connectNotFoundTest() {
+        assertFalse(LectureStreamCommunication.connect(wrongLid));
+        assertNull(LectureStreamCommunication.getLectureSpeed());
+    }
+
+    @Test
+    public void connectBusyBacksOffTest() {
+        long start = System.currentTimeMillis();
+        assertFalse(LectureStreamCommunication.connect(busyLid));
+        assertTrue(System.currentTimeMillis() - start >= 1000);
+        assertFalse(LectureStreamCommunication.isConnected());
+    }
+
+    @Test
+    public void handleEventUnknownTest() {
+        LectureStreamCommunication.handleEvent("unknown", "{}");
+        assertNull(LectureStreamCommunication.getLectureSpeed());
+        assertNull(LectureStreamCommunication.getPoll());
+    }
+
+    @Test
+    public void closeTest() {
+        LectureStreamCommunication.handleEvent("speed", "[1,2]");
+        assertEquals(List.of(1, 2), LectureStreamCommunication.getLectureSpeed());
+
+        LectureStreamCommunication.close();
+        assertNull(LectureStreamCommunication.getLectureSpeed());
+    }
+
+    /**
+     * Stops the mock server after the tests.
+     */
+    @AfterAll
+    public static void stop() {
+        mockServer.stop();
+        while (!mockServer.hasStopped(3,100L, TimeUnit.MILLISECONDS)) {
+            System.out.println("Server has not stopped yet. Waiting until it fully stops");
+        }
+    }
+}
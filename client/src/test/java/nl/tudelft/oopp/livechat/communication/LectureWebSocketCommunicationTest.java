@@ -0,0 +1,64 @@
+package nl.tudelft.oopp.livechat.communication;
+
+import nl.tudelft.oopp.livechat.servercommunication.LectureWebSocketCommunication;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LectureWebSocketCommunicationTest {
+
+    @AfterEach
+    public void clean() {
+        LectureWebSocketCommunication.close();
+    }
+
+    @Test
+    public void openServerNotRunningTest() {
+        assertFalse(LectureWebSocketCommunication.open());
+        assertFalse(LectureWebSocketCommunication.isOpen());
+    }
+
+    @Test
+    public void closeNotOpenTest() {
+        LectureWebSocketCommunication.close();
+        assertFalse(LectureWebSocketCommunication.isOpen());
+    }
+
+    @Test
+    public void upvoteNotOpenTest() {
+        assertFalse(LectureWebSocketCommunication.upvoteQuestion(1, 2));
+    }
+
+    @Test
+    public void voteOnLectureSpeedNotOpenTest() {
+        assertFalse(LectureWebSocketCommunication
+                .voteOnLectureSpeed(1, UUID.randomUUID(), "faster"));
+    }
+
+    @Test
+    public void voteOnPollNotOpenTest() {
+        assertFalse(LectureWebSocketCommunication.voteOnPoll(1, 2));
+    }
+
+    @Test
+    public void setStatusNotOpenTest() {
+        assertFalse(LectureWebSocketCommunication
+                .setStatus(1, UUID.randomUUID(), "editing", 2));
+    }
+
+    @Test
+    public void handleAckUnknownIdTest() {
+        assertDoesNotThrow(() -> LectureWebSocketCommunication
+                .handleAck("{\"id\":12345,\"result\":0}"));
+    }
+
+    @Test
+    public void handleAckWithoutIdTest() {
+        assertDoesNotThrow(() -> LectureWebSocketCommunication
+                .handleAck("{\"status\":400,\"error\":\"Invalid request\"}"));
+    }
+}
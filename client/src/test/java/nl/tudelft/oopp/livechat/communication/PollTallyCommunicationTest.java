@@ -0,0 +1,101 @@
+package nl.tudelft.oopp.livechat.communication;
+
+import nl.tudelft.oopp.livechat.servercommunication.PollTallyCommunication;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockserver.client.MockServerClient;
+import org.mockserver.integration.ClientAndServer;
+import org.mockserver.model.HttpResponse;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockserver.model.HttpRequest.request;
+
+public class PollTallyCommunicationTest {
+    public static MockServerClient mockServer;
+
+    private static final UUID lid = UUID.randomUUID();
+    private static final UUID modkey = UUID.randomUUID();
+    private static final UUID wrongModkey = UUID.randomUUID();
+
+    /**
+     * Create expectations for opening the stream of the votes of a lecture.
+     */
+    private static void createExpectationsForStream() {
+        //Success (the server closes the stream after the events)
+        String events = "event:tally\ndata:{\"pollId\":7,\"open\":true,\"votes\":1,"
+                + "\"optionVotes\":{\"8\":1,\"9\":0}}\n\n"
+                + "event:tally\ndata:{\"pollId\":7,\"open\":true,\"votes\":3,"
+                + "\"optionVotes\":{\"8\":1,\"9\":2}}\n\n";
+        mockServer.when(request().withMethod("GET")
+                .withPath("/api/stream/poll/" + lid + "/" + modkey))
+                .respond(HttpResponse.response().withStatusCode(200)
+                        .withBody(events)
+                        .withHeader("Content-Type", "text/event-stream"));
+
+        //Wrong moderator key
+        mockServer.when(request().withMethod("GET")
+                .withPath("/api/stream/poll/" + lid + "/" + wrongModkey))
+                .respond(HttpResponse.response().withStatusCode(401));
+    }
+
+    @BeforeAll
+    public static void setUp() {
+        mockServer = ClientAndServer.startClientAndServer(8080);
+        createExpectationsForStream();
+    }
+
+    @AfterEach
+    public void clean() {
+        PollTallyCommunication.close();
+    }
+
+    @Test
+    public void connectSuccessfulTest() {
+        assertTrue(PollTallyCommunication.connect(lid, modkey));
+        assertFalse(PollTallyCommunication.isConnected());
+
+        assertEquals(7, PollTallyCommunication.getTally().getPollId());
+        assertEquals(3, PollTallyCommunication.getTally().getVotes());
+        assertEquals(Map.of(8L, 1L, 9L, 2L), PollTallyCommunication.getTally().getOptionVotes());
+    }
+
+    @Test
+    public void connectWrongModkeyTest() {
+        assertFalse(PollTallyCommunication.connect(lid, wrongModkey));
+        assertNull(PollTallyCommunication.getTally());
+    }
+
+    @Test
+    public void handleEventUnknownTest() {
+        PollTallyCommunication.handleEvent("unknown", "{}");
+        assertNull(PollTallyCommunication.getTally());
+    }
+
+    @Test
+    public void closeTest() {
+        PollTallyCommunication.handleEvent("tally",
+                "{\"pollId\":1,\"open\":false,\"votes\":0,\"optionVotes\":{}}");
+        assertFalse(PollTallyCommunication.getTally().isOpen());
+
+        PollTallyCommunication.close();
+        assertNull(PollTallyCommunication.getTally());
+    }
+
+    /**
+     * Stops the mock server after the tests.
+     */
+    @AfterAll
+    public static void stop() {
+        mockServer.stop();
+        while (!mockServer.hasStopped(3,100L, TimeUnit.MILLISECONDS)) {
+            System.out.println("Server has not stopped yet. Waiting until it fully stops");
+        }
+    }
+}
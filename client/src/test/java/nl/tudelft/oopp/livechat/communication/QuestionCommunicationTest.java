@@ -46,6 +46,7 @@ public class QuestionCommunicationTest {
     private static final UUID lid = UUID.randomUUID();
     private static final UUID modkey = UUID.randomUUID();
     private static final UUID incorrectModkey = UUID.randomUUID();
+    private static final UUID busyLid = UUID.randomUUID();
     private static final String qid1 = "5397545054934456486";
     private static final String qid2 = "8077505054105457480";
     private static final String qid3 = "6840541099020457076";
@@ -98,6 +99,18 @@ public class QuestionCommunicationTest {
                         new Parameter("firstTime", "true")))
                 .respond(HttpResponse.response().withStatusCode(200)
                         .withBody(questions)
+                        .withHeader("Content-Type","application/json")
+                        .withHeader("X-Lecture-Version", "42"));
+
+        //Changed after the last version
+        String changes = "{\"version\":43,\"full\":false,\"questions\":"
+                + createQuestionsList(createJsonQuestion(qid1, "HHH?"))
+                + ",\"removed\":[" + qid2 + "]}";
+        mockServer.when(request().withMethod("GET").withPath("/api/question/fetch")
+                .withQueryStringParameters(new Parameter("lid", lid.toString()),
+                        new Parameter("since", "42")))
+                .respond(HttpResponse.response().withStatusCode(200)
+                        .withBody(changes)
                         .withHeader("Content-Type","application/json"));
 
         //No questions found
@@ -114,6 +127,20 @@ public class QuestionCommunicationTest {
                 .withQueryStringParameters(new Parameter("lid", incorrectModkey.toString()),
                         new Parameter("firstTime", "true")))
                 .respond(HttpResponse.response().withStatusCode(400));
+
+        //Too many clients waiting - send 503 after the first fetch
+        mockServer.when(request().withMethod("GET").withPath("/api/question/fetch")
+                .withQueryStringParameters(new Parameter("lid", busyLid.toString()),
+                        new Parameter("firstTime", "true")))
+                .respond(HttpResponse.response().withStatusCode(200)
+                        .withBody("[]")
+                        .withHeader("Content-Type","application/json")
+                        .withHeader("X-Lecture-Version", "7"));
+        mockServer.when(request().withMethod("GET").withPath("/api/question/fetch")
+                .withQueryStringParameters(new Parameter("lid", busyLid.toString()),
+                        new Parameter("since", "7")))
+                .respond(HttpResponse.response().withStatusCode(503)
+                        .withHeader("Retry-After", "1"));
     }
 
     /**
@@ -455,6 +482,35 @@ public class QuestionCommunicationTest {
         assertEquals(Long.parseLong(qid2), actual2.getId());
     }
 
+    @Test
+    public void fetchQuestionsMergesChangesTest() {
+        Lecture.setCurrent(new Lecture(lid,
+                modkey, "HCI", "Not Sebastian"));
+        Question.setCurrentList(QuestionCommunication.fetchQuestions(true));
+        assertEquals(2, Question.getCurrentList().size());
+        assertEquals(42, QuestionCommunication.getLastVersion());
+
+        List<Question> questions = QuestionCommunication.fetchQuestions(false);
+        assertNotNull(questions);
+        assertEquals(1, questions.size());
+        assertEquals(Long.parseLong(qid1), questions.get(0).getId());
+        assertEquals("HHH?", questions.get(0).getText());
+        assertEquals(43, QuestionCommunication.getLastVersion());
+        Question.setCurrentList(new ArrayList<>());
+    }
+
+    @Test
+    public void fetchQuestionsBusyBacksOffTest() {
+        Lecture.setCurrent(new Lecture(busyLid,
+                modkey, "HCI", "Not Sebastian"));
+        assertEquals(new ArrayList<Question>(), QuestionCommunication.fetchQuestions(true));
+
+        long start = System.currentTimeMillis();
+        assertNull(QuestionCommunication.fetchQuestions(false));
+        assertTrue(System.currentTimeMillis() - start >= 1000);
+        assertEquals(7, QuestionCommunication.getLastVersion());
+    }
+
     @Test
     public void fetchQuestionsCurrentNoLectureExistsTest() {
         Lecture.setCurrent(null);
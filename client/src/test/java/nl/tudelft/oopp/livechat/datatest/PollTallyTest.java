@@ -0,0 +1,122 @@
+package nl.tudelft.oopp.livechat.datatest;
+
+import nl.tudelft.oopp.livechat.data.Poll;
+import nl.tudelft.oopp.livechat.data.PollAndOptions;
+import nl.tudelft.oopp.livechat.data.PollOption;
+import nl.tudelft.oopp.livechat.data.PollTally;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PollTallyTest {
+    private static PollTally tally;
+    private PollAndOptions pollAndOptions;
+    private PollTally pollTally;
+
+    @BeforeAll
+    static void setUp() {
+        tally = new PollTally(0, true, 10, Map.of(1L, 3L, 2L, 7L));
+    }
+
+    @BeforeEach
+    void createPoll() {
+        Poll poll = new Poll(UUID.randomUUID(), "Tea or coffee?",
+                new Timestamp(System.currentTimeMillis()), 0, true);
+        pollAndOptions = new PollAndOptions(poll, List.of(new PollOption(1, 0, "Tea", 0, false),
+                new PollOption(2, 0, "Coffee", 0, true)));
+        pollTally = new PollTally(poll.getId(), true, 10, Map.of(1L, 3L, 2L, 7L));
+    }
+
+    @Test
+    void emptyConstructorTest() {
+        PollTally t = new PollTally();
+        assertNotNull(t);
+    }
+
+    @Test
+    void getPollIdTest() {
+        assertEquals(0, tally.getPollId());
+    }
+
+    @Test
+    void isOpenTest() {
+        assertTrue(tally.isOpen());
+    }
+
+    @Test
+    void getVotesTest() {
+        assertEquals(10, tally.getVotes());
+    }
+
+    @Test
+    void getOptionVotesTest() {
+        assertEquals(Map.of(1L, 3L, 2L, 7L), tally.getOptionVotes());
+    }
+
+    @Test
+    void applyToTest() {
+        assertTrue(pollTally.applyTo(pollAndOptions));
+        assertEquals(10, pollAndOptions.getPoll().getVotes());
+        assertEquals(3, pollAndOptions.getOptions().get(0).getVotes());
+        assertEquals(7, pollAndOptions.getOptions().get(1).getVotes());
+    }
+
+    @Test
+    void applyToClosedPollTest() {
+        pollAndOptions.getPoll().setOpen(false);
+        assertFalse(pollTally.applyTo(pollAndOptions));
+        assertEquals(0, pollAndOptions.getPoll().getVotes());
+    }
+
+    @Test
+    void applyToOtherOptionsTest() {
+        pollAndOptions.setOptions(List.of(new PollOption(1, 0, "Tea", 0, false),
+                new PollOption(3, 0, "Water", 0, true)));
+        assertFalse(pollTally.applyTo(pollAndOptions));
+        assertEquals(0, pollAndOptions.getOptions().get(0).getVotes());
+    }
+
+    @Test
+    void applyToOtherPollTest() {
+        assertFalse(tally.applyTo(pollAndOptions));
+        assertEquals(0, pollAndOptions.getPoll().getVotes());
+    }
+
+    @Test
+    void applyToNullTest() {
+        assertFalse(pollTally.applyTo(null));
+    }
+
+    @Test
+    void equalsSameTest() {
+        assertEquals(tally, tally);
+    }
+
+    @Test
+    void equalsEqualTest() {
+        assertEquals(new PollTally(0, true, 10, Map.of(1L, 3L, 2L, 7L)), tally);
+    }
+
+    @Test
+    void equalsDifferentTest() {
+        assertNotEquals(new PollTally(0, false, 10, Map.of(1L, 3L, 2L, 7L)), tally);
+    }
+
+    @Test
+    void equalsDifferentClassTest() {
+        assertNotEquals(tally, "tally");
+    }
+
+    @Test
+    void hashCodeTest() {
+        assertEquals(Objects.hash(0L, true, 10L, Map.of(1L, 3L, 2L, 7L)), tally.hashCode());
+    }
+}
@@ -0,0 +1,68 @@
+package nl.tudelft.oopp.livechat.datatest;
+
+import nl.tudelft.oopp.livechat.data.Question;
+import nl.tudelft.oopp.livechat.data.QuestionChanges;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QuestionChangesTest {
+    private static Question q1;
+    private static Question q2;
+    private static Question q3;
+    private static final UUID lid = UUID.randomUUID();
+
+    @BeforeAll
+    static void setUp() {
+        q1 = new Question(lid, "Is this on the exam?", 1);
+        q1.setId(1);
+        q2 = new Question(lid, "Can you repeat that?", 2);
+        q2.setId(2);
+        q3 = new Question(lid, "When is the deadline?", 3);
+        q3.setId(3);
+    }
+
+    @Test
+    void emptyConstructorTest() {
+        QuestionChanges changes = new QuestionChanges();
+        assertNotNull(changes);
+        assertTrue(changes.getQuestions().isEmpty());
+        assertTrue(changes.getRemoved().isEmpty());
+    }
+
+    @Test
+    void gettersTest() {
+        QuestionChanges changes = new QuestionChanges(5, true, List.of(q1), List.of(2L));
+        assertEquals(5, changes.getVersion());
+        assertTrue(changes.isFull());
+        assertEquals(List.of(q1), changes.getQuestions());
+        assertEquals(List.of(2L), changes.getRemoved());
+    }
+
+    @Test
+    void applyToAddsAndRemovesTest() {
+        QuestionChanges changes = new QuestionChanges(5, false, List.of(q3), List.of(2L));
+        assertEquals(List.of(q1, q3), changes.applyTo(List.of(q1, q2)));
+    }
+
+    @Test
+    void applyToReplacesChangedTest() {
+        Question edited = new Question(lid, "Is this on the final exam?", 1);
+        edited.setId(1);
+        QuestionChanges changes = new QuestionChanges(5, false, List.of(edited), List.of());
+
+        List<Question> merged = changes.applyTo(List.of(q1, q2));
+        assertEquals(2, merged.size());
+        assertEquals("Is this on the final exam?", merged.get(0).getText());
+    }
+
+    @Test
+    void applyToFullTest() {
+        QuestionChanges changes = new QuestionChanges(5, true, List.of(q3), List.of());
+        assertEquals(List.of(q3), changes.applyTo(List.of(q1, q2)));
+    }
+}
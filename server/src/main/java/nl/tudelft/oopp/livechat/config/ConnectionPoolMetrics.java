@@ -0,0 +1,155 @@
+package nl.tudelft.oopp.livechat.config;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+
+/**
+ * Metrics of the database connection pool, to size the pool against the traffic:
+ *     the active, idle and total connections, the threads waiting for a connection
+ *     and a histogram of the time spent waiting for a connection.
+ *     The metrics are written to the log every jdbc.pool.metrics-interval
+ *     (the connections are also exposed over JMX by the pool itself).
+ */
+@Component
+public class ConnectionPoolMetrics implements MetricsTrackerFactory {
+
+    /**
+     * The upper bounds (inclusive, in milliseconds) of the buckets of the wait time histogram.
+     *     The last bucket of the histogram counts the longer waits.
+     */
+    public static final long[] WAIT_BUCKETS = {1, 5, 10, 50, 100, 500, 1000, 5000};
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    /**
+     * The number of connections borrowed after a wait in every bucket.
+     */
+    private final LongAdder[] waits = new LongAdder[WAIT_BUCKETS.length + 1];
+
+    /**
+     * The number of times no connection could be borrowed within the connection timeout.
+     */
+    private final LongAdder timeouts = new LongAdder();
+
+    /**
+     * The statistics of the pool, set when the pool is started.
+     */
+    private volatile PoolStats poolStats;
+
+    /**
+     * Creates the connection pool metrics.
+     */
+    public ConnectionPoolMetrics() {
+        Arrays.setAll(waits, i -> new LongAdder());
+    }
+
+    /**
+     * Creates the tracker of the pool (done by the pool when it is started).
+     * @param poolName the name of the pool
+     * @param poolStats the statistics of the pool
+     * @return the tracker recording the waits for a connection
+     */
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolStats = poolStats;
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                recordWait(TimeUnit.NANOSECONDS.toMillis(elapsedAcquiredNanos));
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+
+    /**
+     * Records the time a thread waited for a connection.
+     * @param millis the time waited (in milliseconds)
+     */
+    void recordWait(long millis) {
+        int bucket = 0;
+        while (bucket < WAIT_BUCKETS.length && millis > WAIT_BUCKETS[bucket]) {
+            bucket++;
+        }
+        waits[bucket].increment();
+    }
+
+    /**
+     * Gets the number of connections in use.
+     * @return the number of active connections, 0 if the pool is not started
+     */
+    public int getActiveConnections() {
+        PoolStats stats = poolStats;
+        return stats == null ? 0 : stats.getActiveConnections();
+    }
+
+    /**
+     * Gets the number of connections waiting to be used.
+     * @return the number of idle connections, 0 if the pool is not started
+     */
+    public int getIdleConnections() {
+        PoolStats stats = poolStats;
+        return stats == null ? 0 : stats.getIdleConnections();
+    }
+
+    /**
+     * Gets the number of open connections.
+     * @return the number of connections, 0 if the pool is not started
+     */
+    public int getTotalConnections() {
+        PoolStats stats = poolStats;
+        return stats == null ? 0 : stats.getTotalConnections();
+    }
+
+    /**
+     * Gets the number of threads waiting for a connection.
+     * @return the number of waiting threads, 0 if the pool is not started
+     */
+    public int getPendingThreads() {
+        PoolStats stats = poolStats;
+        return stats == null ? 0 : stats.getPendingThreads();
+    }
+
+    /**
+     * Gets the histogram of the time spent waiting for a connection.
+     * @return the number of waits in every bucket of WAIT_BUCKETS,
+     *         followed by the number of longer waits
+     */
+    public long[] getWaitHistogram() {
+        return Arrays.stream(waits).mapToLong(LongAdder::sum).toArray();
+    }
+
+    /**
+     * Gets the number of times no connection could be borrowed within the connection timeout.
+     * @return the number of timeouts
+     */
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    /**
+     * Writes the metrics to the log.
+     */
+    @Scheduled(fixedDelayString = "${jdbc.pool.metrics-interval:60000}")
+    public void logMetrics() {
+        logger.info("Connection pool: active=" + getActiveConnections()
+                + ", idle=" + getIdleConnections() + ", total=" + getTotalConnections()
+                + ", pending=" + getPendingThreads() + ", timeouts=" + getTimeouts()
+                + ", waits (ms " + Arrays.toString(WAIT_BUCKETS) + ", longer)="
+                + Arrays.toString(getWaitHistogram()));
+    }
+}
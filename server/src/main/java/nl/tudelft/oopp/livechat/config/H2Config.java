@@ -1,5 +1,7 @@
 package nl.tudelft.oopp.livechat.config;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import javax.sql.DataSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
@@ -7,7 +9,6 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.core.env.Environment;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 import java.util.Objects;
@@ -29,19 +30,34 @@ public class H2Config {
     @Autowired
     private Environment environment;
 
+    @Autowired
+    private ConnectionPoolMetrics connectionPoolMetrics;
+
     /**
-     * Set up the connection to the database.
+     * Set up the connection to the database: a pool of connections that are opened once
+     *     and borrowed by every query. The pool is sized by the jdbc.pool properties
+     *     of the chosen properties file.
      * @return the data source
      */
     @Bean
     public DataSource dataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName(
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("livechat");
+        config.setDriverClassName(
                 Objects.requireNonNull(environment.getProperty("jdbc.driverClassName")));
-        dataSource.setUrl(environment.getProperty("jdbc.url"));
-        dataSource.setUsername(environment.getProperty("jdbc.user"));
-        dataSource.setPassword(environment.getProperty("jdbc.pass"));
+        config.setJdbcUrl(environment.getProperty("jdbc.url"));
+        config.setUsername(environment.getProperty("jdbc.user"));
+        config.setPassword(environment.getProperty("jdbc.pass"));
+
+        config.setMaximumPoolSize(
+                environment.getProperty("jdbc.pool.max-size", Integer.class, 10));
+        config.setMinimumIdle(environment.getProperty("jdbc.pool.min-idle", Integer.class, 2));
+        config.setConnectionTimeout(
+                environment.getProperty("jdbc.pool.connection-timeout", Long.class, 5000L));
+        config.setRegisterMbeans(
+                environment.getProperty("jdbc.pool.register-mbeans", Boolean.class, true));
+        config.setMetricsTrackerFactory(connectionPoolMetrics);
 
-        return dataSource;
+        return new HikariDataSource(config);
     }
 }
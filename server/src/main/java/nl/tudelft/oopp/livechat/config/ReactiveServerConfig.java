@@ -0,0 +1,48 @@
+package nl.tudelft.oopp.livechat.config;
+
+import nl.tudelft.oopp.livechat.controllers.ReactiveFetchHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+
+/**
+ * Configuration of the reactive server (reactive.enabled=true), running next to Tomcat
+ *     on its own port. It serves the read-heavy fetch endpoints (see ReactiveFetchHandler)
+ *     on a few event loop threads, so the clients waiting for changes hold
+ *     a connection but no thread.
+ */
+@Configuration
+@ConditionalOnProperty(name = "reactive.enabled", havingValue = "true")
+public class ReactiveServerConfig {
+
+    /**
+     * The event loop threads of the reactive server.
+     * @param threads the number of threads
+     * @return the event loops
+     */
+    @Bean(destroyMethod = "dispose")
+    public LoopResources reactiveLoopResources(@Value("${reactive.threads:2}") int threads) {
+        return LoopResources.create("reactive-fetch", threads, true);
+    }
+
+    /**
+     * Starts the reactive server, stopped when the application is closed.
+     * @param handler the handler of the fetch endpoints
+     * @param loopResources the event loop threads
+     * @param port the port of the server, 0 for any free port
+     * @return the running server
+     */
+    @Bean(destroyMethod = "disposeNow")
+    public DisposableServer reactiveFetchServer(ReactiveFetchHandler handler,
+                                                LoopResources loopResources,
+                                                @Value("${reactive.port:8081}") int port) {
+        return HttpServer.create().port(port)
+                .tcpConfiguration(tcp -> tcp.runOn(loopResources))
+                .route(handler::registerRoutes).bindNow();
+    }
+}
@@ -0,0 +1,69 @@
+package nl.tudelft.oopp.livechat.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.TaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+
+/**
+ * Configuration of the scheduler and of the executors used by the services.
+ *     Kept apart from the WebSocket configuration, which depends on the services itself.
+ *     In the virtual thread mode (threads.virtual=true), their threads are virtual.
+ */
+@Configuration
+public class SchedulingConfig {
+
+    /**
+     * True if the scheduler and the executors use virtual threads.
+     */
+    @Value("${threads.virtual:false}")
+    private boolean virtualThreads;
+
+    /**
+     * The scheduler used by the services (e.g. to unban users or to notify the clients).
+     *     Declared here because the WebSocket support defines its own scheduler,
+     *     which stops Spring Boot from creating the default one.
+     * @param builder the builder configured by Spring Boot
+     * @return the task scheduler
+     */
+    @Bean
+    @Primary
+    public ThreadPoolTaskScheduler taskScheduler(TaskSchedulerBuilder builder) {
+        ThreadPoolTaskScheduler scheduler = builder.build();
+        if (virtualThreads) {
+            scheduler.setThreadFactory(VirtualThreads.factory(scheduler.getThreadNamePrefix()));
+        }
+        return scheduler;
+    }
+
+    /**
+     * The threads completing the clients waiting for the changes of a lecture
+     *     at the end of a notification window. Bounded, so that a lecture with many clients
+     *     can not take the threads of the other tasks; when the queue is full
+     *     the scheduler notifies the clients itself.
+     * @param threads the number of threads
+     * @param queueCapacity the number of notifications that can wait for a thread
+     * @return the task executor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor lectureNotificationExecutor(
+            @Value("${lecture.notification.threads:2}") int threads,
+            @Value("${lecture.notification.queue:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("lecture-notify-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        if (virtualThreads) {
+            executor.setThreadFactory(VirtualThreads.factory(executor.getThreadNamePrefix()));
+        }
+        return executor;
+    }
+}
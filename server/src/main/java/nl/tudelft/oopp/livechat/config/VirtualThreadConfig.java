@@ -0,0 +1,36 @@
+package nl.tudelft.oopp.livechat.config;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+
+/**
+ * Configuration of the opt-in virtual thread mode (threads.virtual=true, Java 21 or newer).
+ *     Every request is handled on a new virtual thread instead of a thread of the pool
+ *     of Tomcat, so the requests blocked on the database or on a lock do not use up
+ *     the threads of the server. The threads of the scheduler and of the notifications
+ *     of the clients are made virtual by SchedulingConfig.
+ */
+@Configuration
+@ConditionalOnProperty(name = "threads.virtual", havingValue = "true")
+public class VirtualThreadConfig {
+
+    /**
+     * Makes Tomcat run every request (and the completion of the long polls)
+     *     on a virtual thread of its own.
+     * @return the customizer of the Tomcat server
+     */
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> virtualThreadTomcat() {
+        ThreadFactory threads = VirtualThreads.factory("http-virtual-");
+        Executor executor = task -> threads.newThread(task).start();
+        return factory -> factory.addConnectorCustomizers(connector ->
+                connector.getProtocolHandler().setExecutor(executor));
+    }
+}
@@ -0,0 +1,61 @@
+package nl.tudelft.oopp.livechat.config;
+
+import java.util.concurrent.ThreadFactory;
+
+
+/**
+ * Creates virtual threads, which are cheap enough to have one for every blocked request.
+ *     Virtual threads need Java 21 or newer, while the server is compiled for older versions,
+ *     so they are created through reflection.
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+
+    }
+
+    /**
+     * Checks whether the running Java version can create virtual threads.
+     * @return true if virtual threads are supported
+     */
+    public static boolean isSupported() {
+        try {
+            factory("check-");
+            return true;
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Creates a factory of virtual threads named with the prefix followed by a counter.
+     * @param prefix the prefix of the names of the threads
+     * @return the factory of virtual threads
+     * @throws IllegalStateException if the running Java version has no virtual threads
+     */
+    public static ThreadFactory factory(String prefix) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class)
+                    .invoke(builder, prefix, 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new IllegalStateException("Virtual threads need Java 21 or newer, running "
+                    + Runtime.version(), e);
+        }
+    }
+
+    /**
+     * Checks whether the thread is a virtual thread.
+     * @param thread the thread
+     * @return true if the thread is virtual, false if not or if virtual threads are unsupported
+     */
+    public static boolean isVirtual(Thread thread) {
+        try {
+            return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+        } catch (ReflectiveOperationException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package nl.tudelft.oopp.livechat.config;
+
+import nl.tudelft.oopp.livechat.controllers.LectureWebSocketHandler;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+
+/**
+ * Configuration of the WebSocket endpoint used by the clients
+ *     to send their lecture interactions (upvotes, votes, status changes).
+ */
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final LectureWebSocketHandler lectureWebSocketHandler;
+
+    /**
+     * Creates the WebSocket configuration.
+     * @param lectureWebSocketHandler the handler of the lecture interactions
+     */
+    public WebSocketConfig(LectureWebSocketHandler lectureWebSocketHandler) {
+        this.lectureWebSocketHandler = lectureWebSocketHandler;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(lectureWebSocketHandler, "/api/ws");
+    }
+}
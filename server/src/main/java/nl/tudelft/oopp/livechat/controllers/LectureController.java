@@ -6,10 +6,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import nl.tudelft.oopp.livechat.entities.LectureEntity;
 import nl.tudelft.oopp.livechat.exceptions.InvalidModkeyException;
 import nl.tudelft.oopp.livechat.exceptions.LectureException;
+import nl.tudelft.oopp.livechat.services.EntityTagService;
 import nl.tudelft.oopp.livechat.services.LectureService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.sql.Timestamp;
 import java.text.SimpleDateFormat;
@@ -22,6 +24,8 @@ public class LectureController {
 
     private final LectureService service;
 
+    private final EntityTagService entityTagService;
+
     /**
      * The Object mapper.
      */
@@ -30,20 +34,29 @@ public class LectureController {
     /**
      * Creates new LectureController.
      * @param service the LectureService
+     * @param entityTagService the EntityTagService
      */
-    public LectureController(LectureService service) {
+    public LectureController(LectureService service, EntityTagService entityTagService) {
         this.service = service;
+        this.entityTagService = entityTagService;
     }
 
 
     /**
      * GET Endpoint to retrieve a lecture.
+     *     Responds with 304 Not Modified if the lecture has not changed
+     *     since the version in the If-None-Match header.
      * @param id the id of the lecture
-     * @return the lecture object if successful
+     * @param request the request with the ETag of the lecture seen by the client (if any)
+     * @return the lecture object if successful, nothing if not modified
      * @throws LectureException when the lecture is not found or is not started yet
      */
     @GetMapping("/get/{id}")
-    public LectureEntity getLecturesByID(@PathVariable("id") UUID id) throws LectureException {
+    public LectureEntity getLecturesByID(@PathVariable("id") UUID id, WebRequest request)
+            throws LectureException {
+        if (request.checkNotModified(entityTagService.getLectureTag(id))) {
+            return null;
+        }
         return service.getLectureByIdNoModkey(id);
     }
 
@@ -0,0 +1,104 @@
+package nl.tudelft.oopp.livechat.controllers;
+
+import nl.tudelft.oopp.livechat.exceptions.InvalidModkeyException;
+import nl.tudelft.oopp.livechat.exceptions.LectureException;
+import nl.tudelft.oopp.livechat.exceptions.LectureNotFoundException;
+import nl.tudelft.oopp.livechat.exceptions.PollNotFoundException;
+import nl.tudelft.oopp.livechat.services.LectureSpeedService;
+import nl.tudelft.oopp.livechat.services.PollService;
+import nl.tudelft.oopp.livechat.services.QuestionService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+
+@RestController
+@RequestMapping("/api/stream")
+public class LectureStreamController {
+
+    private final QuestionService questionService;
+
+    private final LectureSpeedService speedService;
+
+    private final PollService pollService;
+
+    /**
+     * Creates a new LectureStreamController.
+     * @param questionService the question service
+     * @param speedService the lecture speed service
+     * @param pollService the poll service
+     */
+    public LectureStreamController(QuestionService questionService,
+                                   LectureSpeedService speedService, PollService pollService) {
+        this.questionService = questionService;
+        this.speedService = speedService;
+        this.pollService = pollService;
+    }
+
+    /**
+     * GET Endpoint to open a stream (Server-Sent Events) with the live state of the lecture.
+     *     The stream starts with the current state and then sends an event on every change:
+     *     "questions" with the changes of the questions (all of them in the first event),
+     *     "speed" with the votes for the lecture speed (faster, slower)
+     *     and "poll" with the latest poll and its options as seen by the students.
+     *     When too many clients are waiting, 503 is returned with a Retry-After header.
+     * @param lid the id of the lecture
+     * @return the stream of events of the lecture
+     * @throws LectureNotFoundException when the lecture is not found
+     */
+    @GetMapping(value = "/{lid}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> openStream(@PathVariable UUID lid)
+            throws LectureNotFoundException {
+        if (!questionService.lectureExists(lid)) {
+            throw new LectureNotFoundException();
+        }
+        return questionService.openLectureStream(lid, () -> {
+            List<SseEmitter.SseEventBuilder> events = new ArrayList<>();
+            try {
+                events.add(SseEmitter.event().name(LectureSpeedService.SPEED_EVENT)
+                        .data(speedService.getVotes(lid)));
+                events.add(SseEmitter.event().name(PollService.POLL_EVENT)
+                        .data(pollService.fetchPollAndOptionsStudent(lid)));
+            } catch (LectureException | PollNotFoundException e) {
+                //the lecture has no poll (yet)
+            }
+            return events;
+        });
+    }
+
+    /**
+     * GET Endpoint to open a stream (Server-Sent Events) with the live votes on the polls
+     *     of the lecture, for the moderator. The stream starts with the votes on the latest poll
+     *     and then sends a "tally" event with the votes on the poll and on each of its options
+     *     when they change, at most once per tally interval.
+     * @param lid the id of the lecture
+     * @param modkey the moderator key
+     * @return the stream of the votes
+     * @throws LectureException when the lecture is not found
+     * @throws InvalidModkeyException when the moderator key is incorrect
+     */
+    @GetMapping(value = "/poll/{lid}/{modkey}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter openTallyStream(@PathVariable UUID lid, @PathVariable UUID modkey)
+            throws LectureException, InvalidModkeyException {
+        return pollService.openTallyStream(lid, modkey);
+    }
+
+    /**
+     * Exception handler for requests containing invalid uuids.
+     * @param exception exception that has occurred
+     * @return response object with 400 Bad Request status code and 'Don't do this' message
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    private ResponseEntity<Object> badUUID(IllegalArgumentException exception) {
+        System.out.println(exception.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("UUID is not in the correct format");
+    }
+}
@@ -0,0 +1,126 @@
+package nl.tudelft.oopp.livechat.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import nl.tudelft.oopp.livechat.services.LectureSpeedService;
+import nl.tudelft.oopp.livechat.services.PollService;
+import nl.tudelft.oopp.livechat.services.QuestionService;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.util.UUID;
+
+
+/**
+ * Handles the lecture interactions sent over the WebSocket endpoint.
+ *     Every message is a JSON object with the id chosen by the client, the action
+ *     and its parameters (the same as the ones of the matching HTTP endpoint):
+ *     "upvote" (qid, uid), "speed" (uid, uuid, speed), "pollVote" (uid, optionId)
+ *     and "status" (status, qid, uid, modkey).
+ *     Every message is acknowledged with a JSON object with the same id
+ *     and either the result or the status and the reason of the error.
+ */
+@Component
+public class LectureWebSocketHandler extends TextWebSocketHandler {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final QuestionService questionService;
+
+    private final LectureSpeedService speedService;
+
+    private final PollService pollService;
+
+    /**
+     * Creates a new LectureWebSocketHandler.
+     * @param questionService the question service
+     * @param speedService the lecture speed service
+     * @param pollService the poll service
+     */
+    public LectureWebSocketHandler(QuestionService questionService,
+                                   LectureSpeedService speedService, PollService pollService) {
+        this.questionService = questionService;
+        this.speedService = speedService;
+        this.pollService = pollService;
+    }
+
+    /**
+     * Handles a message with an action and sends the acknowledgement back.
+     * @param session the session of the client
+     * @param message the message with the action
+     * @throws IOException when the acknowledgement can not be sent
+     */
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message)
+            throws IOException {
+        ObjectNode ack = objectMapper.createObjectNode();
+        try {
+            JsonNode request = objectMapper.readTree(message.getPayload());
+            ack.set("id", request.path("id"));
+            ack.put("result", handleAction(request));
+        } catch (IOException | IllegalArgumentException e) {
+            ack.put("status", HttpStatus.BAD_REQUEST.value());
+            ack.put("error", "Invalid request");
+        } catch (Exception e) {
+            ResponseStatus status =
+                    AnnotationUtils.findAnnotation(e.getClass(), ResponseStatus.class);
+            if (status == null) {
+                ack.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
+                ack.put("error", "Internal server error");
+            } else {
+                ack.put("status", status.value().value());
+                ack.put("error", status.reason());
+            }
+        }
+        session.sendMessage(new TextMessage(ack.toString()));
+    }
+
+    /**
+     * A helper method to perform the action of the message.
+     * @param request the message with the action and its parameters
+     * @return the result of the action (0 if successful)
+     * @throws Exception when the action fails (the same exceptions as the HTTP endpoints)
+     */
+    private int handleAction(JsonNode request) throws Exception {
+        switch (required(request, "action").asText()) {
+            case "upvote":
+                return questionService.upvote(required(request, "qid").asLong(),
+                        required(request, "uid").asLong());
+            case "speed":
+                return speedService.setUserLectureSpeedVote(required(request, "uid").asLong(),
+                        UUID.fromString(required(request, "uuid").asText()),
+                        required(request, "speed").asText());
+            case "pollVote":
+                return pollService.voteOnPoll(required(request, "uid").asLong(),
+                        required(request, "optionId").asLong());
+            case "status":
+                return questionService.setStatus(required(request, "status").asText(),
+                        required(request, "qid").asLong(), required(request, "uid").asLong(),
+                        UUID.fromString(required(request, "modkey").asText()));
+            default:
+                throw new IllegalArgumentException("Unknown action");
+        }
+    }
+
+    /**
+     * A helper method to get a required parameter of the message.
+     * @param request the message
+     * @param name the name of the parameter
+     * @return the value of the parameter
+     * @throws IllegalArgumentException when the parameter is missing
+     */
+    private static JsonNode required(JsonNode request, String name) {
+        JsonNode value = request.path(name);
+        if (value.isMissingNode() || value.isNull()) {
+            throw new IllegalArgumentException("Missing " + name);
+        }
+        return value;
+    }
+}
@@ -4,10 +4,12 @@ import nl.tudelft.oopp.livechat.entities.poll.PollAndOptions;
 import nl.tudelft.oopp.livechat.entities.poll.PollEntity;
 import nl.tudelft.oopp.livechat.entities.poll.PollOptionEntity;
 import nl.tudelft.oopp.livechat.exceptions.*;
+import nl.tudelft.oopp.livechat.services.EntityTagService;
 import nl.tudelft.oopp.livechat.services.PollService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.UUID;
 
@@ -17,13 +19,17 @@ import java.util.UUID;
 public class PollController {
     private final PollService pollService;
 
+    private final EntityTagService entityTagService;
+
     /**
      * Instantiates a new Poll controller.
      *
      * @param pollService the poll service
+     * @param entityTagService the entity tag service
      */
-    public PollController(PollService pollService) {
+    public PollController(PollService pollService, EntityTagService entityTagService) {
         this.pollService = pollService;
+        this.entityTagService = entityTagService;
     }
 
     /**
@@ -79,15 +85,22 @@ public class PollController {
 
     /**
      * GET endpoint to fetch poll and options by students.
+     *     Responds with 304 Not Modified if the poll has not changed
+     *     since the version in the If-None-Match header.
      *
      * @param lectureId the lecture id
-     * @return the poll and options in a container class
+     * @param request the request with the ETag of the poll seen by the client (if any)
+     * @return the poll and options in a container class, nothing if not modified
      * @throws LectureNotFoundException when the lecture is not found
      * @throws PollNotFoundException when the poll is not found
      */
     @GetMapping("/fetchStudent/{lectureId}")
-    public PollAndOptions fetchPollAndOptionsStudent(@PathVariable UUID lectureId)
+    public PollAndOptions fetchPollAndOptionsStudent(@PathVariable UUID lectureId,
+                                                     WebRequest request)
             throws LectureNotFoundException, PollNotFoundException {
+        if (request.checkNotModified(entityTagService.getPollTag(lectureId))) {
+            return null;
+        }
         return pollService.fetchPollAndOptionsStudent(lectureId);
     }
 
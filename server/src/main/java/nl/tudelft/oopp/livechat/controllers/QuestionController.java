@@ -3,9 +3,7 @@ package nl.tudelft.oopp.livechat.controllers;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import java.util.List;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
 
 import nl.tudelft.oopp.livechat.entities.QuestionEntity;
 import nl.tudelft.oopp.livechat.exceptions.*;
@@ -37,49 +35,70 @@ public class QuestionController {
 
     /**
      * GET Endpoint to retrieve all the questions for the particular lecture.
+     *     If it is not the first time, the request is parked until the lecture changes
+     *     after the provided version (or returned immediately if it has already changed).
+     *     The version of the returned questions is sent in the X-Lecture-Version header.
      * @param lid the id of the lecture
+     * @param firstTime true if the questions have to be returned immediately
+     * @param version the last version of the lecture seen by the client (optional)
      * @return the list of questions associated with a particular lecture, or empty list
+     * @throws LectureNotFoundException when the lecture is not found
      */
     @GetMapping("/fetch")
-    public DeferredResult<List<QuestionEntity>> fetchQuestions(@RequestParam UUID lid,
-                                                               @RequestParam boolean firstTime)
-            throws LectureNotFoundException {
+    public DeferredResult<ResponseEntity<byte[]>> fetchQuestions(
+            @RequestParam UUID lid, @RequestParam boolean firstTime,
+            @RequestParam(required = false) Long version) throws LectureNotFoundException {
         if (!questionService.lectureExists(lid)) {
             throw new LectureNotFoundException();
         }
         long timeOutInMilliSec = 30 * 1000L;
-        DeferredResult<List<QuestionEntity>> deferredResult =
+        DeferredResult<ResponseEntity<byte[]>> deferredResult =
                 new DeferredResult<>(timeOutInMilliSec);
-        CompletableFuture<Void> future;
         if (firstTime) {
-            deferredResult.setResult(questionService.getQuestionsByLectureId(lid));
+            deferredResult.setResult(questionService.getVersionedQuestions(lid));
             return deferredResult;
-        } else {
-            future = CompletableFuture.runAsync(() -> {
-                long startTime = System.currentTimeMillis();
-                while (true) {
-                    if (questionService.wasLectureChanged(lid)) {
-                        deferredResult.setResult(questionService.getQuestionsByLectureId(lid));
-                        break;
-                    } else if (System.currentTimeMillis() - startTime >= timeOutInMilliSec + 5000) {
-                        deferredResult.setErrorResult(
-                                ResponseEntity.status(HttpStatus.GONE)
-                                        .body("Thread killed himself for too much time passing"));
-                        break;
-                    }
-                }
-            });
         }
-        deferredResult.onTimeout(() -> {
-            future.cancel(true);
-            deferredResult.setErrorResult(ResponseEntity.status(HttpStatus.REQUEST_TIMEOUT)
-                                .body("Request timeout occurred."));
-            }
-        );
+        deferredResult.onTimeout(() -> deferredResult.setErrorResult(
+                ResponseEntity.status(HttpStatus.REQUEST_TIMEOUT)
+                        .body("Request timeout occurred.")));
+        deferredResult.onCompletion(() ->
+                questionService.removeLectureWaiter(lid, deferredResult));
+        //clients without a version wait for the next change
+        long lastSeen = version == null ? questionService.getLectureVersion(lid) : version;
+        questionService.addLectureWaiter(lid, lastSeen, deferredResult);
         return deferredResult;
     }
 
 
+    /**
+     * GET Endpoint to retrieve only the changes of the questions for the particular lecture.
+     *     The request is parked until the lecture changes after the provided version
+     *     (or returned immediately if it has already changed).
+     * @param lid the id of the lecture
+     * @param since the last version of the lecture seen by the client
+     * @return the version of the lecture, the questions created or modified since the
+     *          provided version and the ids of the removed questions. If the changes
+     *          can not be computed, all the questions are returned and full is set to true
+     * @throws LectureNotFoundException when the lecture is not found
+     */
+    @GetMapping(value = "/fetch", params = "since")
+    public DeferredResult<ResponseEntity<byte[]>> fetchQuestionChanges(
+            @RequestParam UUID lid, @RequestParam long since) throws LectureNotFoundException {
+        if (!questionService.lectureExists(lid)) {
+            throw new LectureNotFoundException();
+        }
+        long timeOutInMilliSec = 30 * 1000L;
+        DeferredResult<ResponseEntity<byte[]>> deferredResult =
+                new DeferredResult<>(timeOutInMilliSec);
+        deferredResult.onTimeout(() -> deferredResult.setErrorResult(
+                ResponseEntity.status(HttpStatus.REQUEST_TIMEOUT)
+                        .body("Request timeout occurred.")));
+        deferredResult.onCompletion(() ->
+                questionService.removeLectureWaiter(lid, deferredResult));
+        questionService.addChangesWaiter(lid, since, deferredResult);
+        return deferredResult;
+    }
+
     /**
      * POST Endpoint to ask a question and store it in the database.
      * @param question question to be added to the database
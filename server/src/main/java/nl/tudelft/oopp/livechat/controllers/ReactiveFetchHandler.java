@@ -0,0 +1,309 @@
+package nl.tudelft.oopp.livechat.controllers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import nl.tudelft.oopp.livechat.exceptions.LectureNotFoundException;
+import nl.tudelft.oopp.livechat.services.EntityTagService;
+import nl.tudelft.oopp.livechat.services.LectureService;
+import nl.tudelft.oopp.livechat.services.LectureSpeedService;
+import nl.tudelft.oopp.livechat.services.PollService;
+import nl.tudelft.oopp.livechat.services.QuestionService;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.context.request.async.DeferredResult;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+import reactor.netty.http.server.HttpServerRoutes;
+
+
+/**
+ * Non-blocking versions of the read-heavy GET endpoints (the questions, the lecture speed,
+ *     the poll for the students and the lecture), served by the reactive server
+ *     (see ReactiveServerConfig) next to the REST controllers, which keep handling the writes.
+ *     The paths, parameters and responses are the same as those of the controllers,
+ *     so the clients can move to the reactive server one endpoint at a time.
+ *     The responses come from the state kept in memory by the services. The work that may
+ *     still reach the database (e.g. a lecture that is not cached yet) is moved off
+ *     the event loop, and the long polls wait without holding any thread.
+ */
+@Component
+@ConditionalOnProperty(name = "reactive.enabled", havingValue = "true")
+public class ReactiveFetchHandler {
+
+    /**
+     * The time (in milliseconds) a long poll waits for the lecture to change.
+     */
+    public static final long FETCH_TIMEOUT = 30 * 1000L;
+
+    private final QuestionService questionService;
+
+    private final LectureSpeedService speedService;
+
+    private final PollService pollService;
+
+    private final LectureService lectureService;
+
+    private final EntityTagService entityTagService;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Creates the reactive fetch handler.
+     * @param questionService question service
+     * @param speedService lecture speed service
+     * @param pollService poll service
+     * @param lectureService lecture service
+     * @param entityTagService entity tag service
+     * @param objectMapper the object mapper used by the REST controllers
+     */
+    public ReactiveFetchHandler(QuestionService questionService,
+                                LectureSpeedService speedService, PollService pollService,
+                                LectureService lectureService,
+                                EntityTagService entityTagService, ObjectMapper objectMapper) {
+        this.questionService = questionService;
+        this.speedService = speedService;
+        this.pollService = pollService;
+        this.lectureService = lectureService;
+        this.entityTagService = entityTagService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Registers the endpoints.
+     * @param routes the routes of the reactive server
+     */
+    public void registerRoutes(HttpServerRoutes routes) {
+        routes.get("/api/question/fetch", (request, response) ->
+                send(response, () -> fetchQuestions(request)))
+            .get("/api/vote/getLectureSpeed/{UUID}", (request, response) ->
+                send(response, () -> getLectureSpeed(request)))
+            .get("/api/poll/fetchStudent/{lectureId}", (request, response) ->
+                send(response, () -> fetchPollStudent(request)))
+            .get("/api/get/{id}", (request, response) ->
+                send(response, () -> getLecture(request)));
+    }
+
+    /**
+     * Retrieves all the questions of the lecture, or only their changes if since is given
+     *     (see QuestionController). Unless it is the first time, the request waits
+     *     until the lecture changes after the version of the client.
+     * @param request the request with the id of the lecture (lid) and firstTime,
+     *                version or since
+     * @return the questions or their changes as JSON
+     */
+    private Mono<ResponseEntity<byte[]>> fetchQuestions(HttpServerRequest request) {
+        Map<String, List<String>> params = new QueryStringDecoder(request.uri()).parameters();
+        UUID lid = UUID.fromString(getParam(params, "lid", true));
+        String since = getParam(params, "since", false);
+        if (since != null) {
+            long sinceVersion = Long.parseLong(since);
+            return inLecture(lid, () -> waitForChange(lid,
+                waiter -> questionService.addChangesWaiter(lid, sinceVersion, waiter)));
+        }
+        boolean firstTime = Boolean.parseBoolean(getParam(params, "firstTime", true));
+        String version = getParam(params, "version", false);
+        return inLecture(lid, () -> {
+            if (firstTime) {
+                return Mono.just(questionService.getVersionedQuestions(lid));
+            }
+            //clients without a version wait for the next change
+            long lastSeen = version == null
+                    ? questionService.getLectureVersion(lid) : Long.parseLong(version);
+            return waitForChange(lid,
+                waiter -> questionService.addLectureWaiter(lid, lastSeen, waiter));
+        });
+    }
+
+    /**
+     * Retrieves the number of votes for the lecture speed (see UserLectureVotingController).
+     * @param request the request with the id of the lecture and the ETag seen (if any)
+     * @return the votes as JSON, nothing if not modified
+     */
+    private Mono<ResponseEntity<byte[]>> getLectureSpeed(HttpServerRequest request) {
+        UUID uuid = UUID.fromString(request.param("UUID"));
+        return tagged(request, entityTagService.getLectureTag(uuid),
+            () -> speedService.getVotes(uuid));
+    }
+
+    /**
+     * Retrieves the latest poll of the lecture without the correct options (see PollController).
+     * @param request the request with the id of the lecture and the ETag seen (if any)
+     * @return the poll and its options as JSON, nothing if not modified
+     */
+    private Mono<ResponseEntity<byte[]>> fetchPollStudent(HttpServerRequest request) {
+        UUID lectureId = UUID.fromString(request.param("lectureId"));
+        return tagged(request, entityTagService.getPollTag(lectureId),
+            () -> pollService.fetchPollAndOptionsStudent(lectureId));
+    }
+
+    /**
+     * Retrieves the lecture without the moderator key (see LectureController).
+     * @param request the request with the id of the lecture and the ETag seen (if any)
+     * @return the lecture as JSON, nothing if not modified
+     */
+    private Mono<ResponseEntity<byte[]>> getLecture(HttpServerRequest request) {
+        UUID id = UUID.fromString(request.param("id"));
+        return tagged(request, entityTagService.getLectureTag(id),
+            () -> lectureService.getLectureByIdNoModkey(id));
+    }
+
+    /**
+     * A helper method to check that the lecture exists before handling the request.
+     *     Both may query the database, so they run off the event loop.
+     * @param lid the id of the lecture
+     * @param handler the handler of the request
+     * @return the response of the handler
+     */
+    private Mono<ResponseEntity<byte[]>> inLecture(
+            UUID lid, Supplier<Mono<ResponseEntity<byte[]>>> handler) {
+        return Mono.defer(() -> {
+            if (!questionService.lectureExists(lid)) {
+                return Mono.<ResponseEntity<byte[]>>error(new LectureNotFoundException());
+            }
+            return handler.get();
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * A helper method to park the request until the lecture changes.
+     *     The request is removed from the waiting clients when it is completed,
+     *     when it times out (408 Request Timeout) or when the client goes away.
+     * @param lid the id of the lecture
+     * @param park parks the waiter with the question service
+     * @return the response the waiter is completed with
+     */
+    private Mono<ResponseEntity<byte[]>> waitForChange(
+            UUID lid, Consumer<DeferredResult<ResponseEntity<byte[]>>> park) {
+        return Mono.<ResponseEntity<byte[]>>create(sink -> {
+            DeferredResult<ResponseEntity<byte[]>> waiter = new DeferredResult<>();
+            waiter.setResultHandler(result -> sink.success(castResponse(result)));
+            sink.onDispose(() -> questionService.removeLectureWaiter(lid, waiter));
+            park.accept(waiter);
+        }).timeout(Duration.ofMillis(FETCH_TIMEOUT), Mono.fromSupplier(() ->
+            ResponseEntity.status(HttpStatus.REQUEST_TIMEOUT)
+                .body("Request timeout occurred.".getBytes(StandardCharsets.UTF_8))));
+    }
+
+    /**
+     * A helper method to respond with 304 Not Modified if the client has seen the tag,
+     *     or with the value as JSON (tagged) otherwise.
+     * @param request the request with the ETag seen by the client (if any)
+     * @param tag the current tag of the value
+     * @param value gets the value, may query the database
+     * @return the response with the value or 304 Not Modified
+     */
+    private Mono<ResponseEntity<byte[]>> tagged(HttpServerRequest request, String tag,
+                                                Callable<Object> value) {
+        String seen = request.requestHeaders().get(HttpHeaders.IF_NONE_MATCH);
+        if (seen != null && List.of(seen.split(",")).stream()
+                .map(t -> t.trim().replaceFirst("^W/", "")).anyMatch(tag::equals)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tag).build());
+        }
+        return Mono.fromCallable(value)
+            .map(v -> ResponseEntity.ok().eTag(tag)
+                    .contentType(MediaType.APPLICATION_JSON).body(toJson(v)))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * A helper method to write the response of a handler, or the error it failed with.
+     * @param response the response of the server
+     * @param handler creates the response
+     * @return completes when the response is written
+     */
+    private Publisher<Void> send(HttpServerResponse response,
+                                 Supplier<Mono<ResponseEntity<byte[]>>> handler) {
+        return Mono.defer(handler)
+            .onErrorResume(e -> Mono.just(errorResponse(e)))
+            .flatMap(entity -> {
+                byte[] body = entity.getBody() == null ? new byte[0] : entity.getBody();
+                response.status(entity.getStatusCodeValue());
+                entity.getHeaders().forEach(response.responseHeaders()::add);
+                response.responseHeaders().set(HttpHeaders.CONTENT_LENGTH, body.length);
+                return response.sendByteArray(Mono.just(body)).then();
+            });
+    }
+
+    /**
+     * A helper method to create the response to a failed request, with the same status
+     *     as the REST controllers: 400 for an invalid parameter, the status of the
+     *     ResponseStatus annotation of the exception, 500 otherwise.
+     * @param error the exception the request failed with
+     * @return the error response
+     */
+    private static ResponseEntity<byte[]> errorResponse(Throwable error) {
+        if (error instanceof IllegalArgumentException) {
+            return ResponseEntity.badRequest()
+                .body("UUID is not in the correct format".getBytes(StandardCharsets.UTF_8));
+        }
+        ResponseStatus status =
+                AnnotatedElementUtils.findMergedAnnotation(error.getClass(), ResponseStatus.class);
+        if (status == null) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+        return ResponseEntity.status(status.code())
+            .body(status.reason().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * A helper method to get a query parameter.
+     * @param params the query parameters of the request
+     * @param name the name of the parameter
+     * @param required true if the parameter must be given
+     * @return the value of the parameter, null if not given
+     * @throws IllegalArgumentException if a required parameter is not given
+     */
+    private static String getParam(Map<String, List<String>> params, String name,
+                                   boolean required) {
+        List<String> values = params.get(name);
+        if (values == null || values.isEmpty()) {
+            if (required) {
+                throw new IllegalArgumentException("Missing parameter " + name);
+            }
+            return null;
+        }
+        return values.get(0);
+    }
+
+    /**
+     * A helper method to serialize a value to JSON the same way as the REST controllers.
+     * @param value the value
+     * @return the JSON bytes
+     */
+    private byte[] toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A helper method to cast the result of a waiter, which is always a response.
+     * @param result the result of the waiter
+     * @return the response
+     */
+    @SuppressWarnings("unchecked")
+    private static ResponseEntity<byte[]> castResponse(Object result) {
+        return (ResponseEntity<byte[]>) result;
+    }
+}
@@ -1,13 +1,16 @@
 package nl.tudelft.oopp.livechat.controllers;
 
+import nl.tudelft.oopp.livechat.entities.LectureSpeedPoint;
 import nl.tudelft.oopp.livechat.exceptions.InvalidModkeyException;
 import nl.tudelft.oopp.livechat.exceptions.LectureException;
 import nl.tudelft.oopp.livechat.exceptions.UserException;
+import nl.tudelft.oopp.livechat.services.EntityTagService;
 import nl.tudelft.oopp.livechat.services.LectureSpeedService;
 import nl.tudelft.oopp.livechat.services.PollService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,12 +20,17 @@ public class UserLectureVotingController {
 
     private final LectureSpeedService speedService;
 
+    private final EntityTagService entityTagService;
+
     /**
      * Creates new LectureVotingController.
      * @param speedService the LectureSpeedService
+     * @param entityTagService the EntityTagService
      */
-    public UserLectureVotingController(LectureSpeedService speedService) {
+    public UserLectureVotingController(LectureSpeedService speedService,
+                                       EntityTagService entityTagService) {
         this.speedService = speedService;
+        this.entityTagService = entityTagService;
     }
 
     // TODO reconsider user authentication
@@ -46,13 +54,20 @@ public class UserLectureVotingController {
 
     /**
      * GET Endpoint to get the number of votes for the lecture speed.
+     *     Responds with 304 Not Modified if the votes have not changed
+     *     since the version in the If-None-Match header.
      * @param uuid the id of the lecture
+     * @param request the request with the ETag of the votes seen by the client (if any)
      * @return the list of votes for the lecture speed
-     *          (first number is for faster, second for slower)
+     *          (first number is for faster, second for slower), nothing if not modified
      * @throws LectureException when the lecture is not found
      */
     @GetMapping("/getLectureSpeed/{UUID}")
-    public List<Integer> getVotes(@PathVariable("UUID") UUID uuid) throws LectureException {
+    public List<Integer> getVotes(@PathVariable("UUID") UUID uuid, WebRequest request)
+            throws LectureException {
+        if (request.checkNotModified(entityTagService.getLectureTag(uuid))) {
+            return null;
+        }
         return speedService.getVotes(uuid);
     }
 
@@ -71,6 +86,24 @@ public class UserLectureVotingController {
         return speedService.resetLectureSpeed(uuid, modkey);
     }
 
+    /**
+     * GET Endpoint to get the history of the votes for the lecture speed (done by a moderator).
+     * @param uuid the id of the lecture
+     * @param modkey the moderator key
+     * @param window the length of the history in milliseconds (1 hour by default),
+     *               at most the history kept for the lecture
+     * @return the votes in every time bucket of the window, from the oldest to the current one
+     * @throws LectureException when the lecture is not found
+     * @throws InvalidModkeyException when the moderator key is incorrect
+     */
+    @GetMapping("/getLectureSpeedHistory/{UUID}/{modkey}")
+    public List<LectureSpeedPoint> getHistory(@PathVariable("UUID") UUID uuid,
+                                              @PathVariable("modkey") UUID modkey,
+                                              @RequestParam(defaultValue = "3600000") long window)
+            throws LectureException, InvalidModkeyException {
+        return speedService.getHistory(uuid, modkey, window);
+    }
+
     /**
      * Exception handler for requests containing invalid uuids.
      * @param exception exception that has occurred
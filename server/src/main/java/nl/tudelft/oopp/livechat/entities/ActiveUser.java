@@ -0,0 +1,112 @@
+package nl.tudelft.oopp.livechat.entities;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+
+/**
+ * The part of a user needed to validate the actions of the user,
+ *     copied from the user entity and never changed afterwards.
+ */
+public final class ActiveUser {
+    /**
+     * The id of the user.
+     */
+    private final long uid;
+
+    /**
+     * The name of the user.
+     */
+    private final String userName;
+
+    /**
+     * The id of the lecture the user is in.
+     */
+    private final UUID lectureId;
+
+    /**
+     * True if the user is not banned.
+     */
+    private final boolean allowed;
+
+    /**
+     * The time of the last question asked by the user (in milliseconds since the epoch),
+     *     0 if the user has not asked any question.
+     */
+    private final long lastQuestion;
+
+    /**
+     * Creates an ActiveUser object with the current state of the user.
+     * @param user the user
+     */
+    public ActiveUser(UserEntity user) {
+        this(user.getUid(), user.getUserName(), user.getLectureId(), user.isAllowed(),
+                user.getLastQuestion() == null ? 0 : user.getLastQuestion().getTime());
+    }
+
+    /**
+     * A helper constructor to create an ActiveUser object with the specified parameters.
+     * @param uid the id of the user
+     * @param userName the name of the user
+     * @param lectureId the id of the lecture the user is in
+     * @param allowed true if the user is not banned
+     * @param lastQuestion the time of the last question asked by the user
+     */
+    private ActiveUser(long uid, String userName, UUID lectureId,
+                       boolean allowed, long lastQuestion) {
+        this.uid = uid;
+        this.userName = userName;
+        this.lectureId = lectureId;
+        this.allowed = allowed;
+        this.lastQuestion = lastQuestion;
+    }
+
+    /**
+     * Creates a copy of the user with the time of the last question changed.
+     * @param time the time of the last question asked by the user
+     * @return the changed copy of the user
+     */
+    public ActiveUser withLastQuestion(Timestamp time) {
+        return new ActiveUser(uid, userName, lectureId, allowed, time.getTime());
+    }
+
+    /**
+     * Gets the id of the user.
+     * @return the id of the user
+     */
+    public long getUid() {
+        return uid;
+    }
+
+    /**
+     * Gets the name of the user.
+     * @return the name of the user
+     */
+    public String getUserName() {
+        return userName;
+    }
+
+    /**
+     * Gets the id of the lecture the user is in.
+     * @return the id of the lecture
+     */
+    public UUID getLectureId() {
+        return lectureId;
+    }
+
+    /**
+     * Checks whether the user is allowed to take part (not banned).
+     * @return whether the user is allowed
+     */
+    public boolean isAllowed() {
+        return allowed;
+    }
+
+    /**
+     * Gets the time of the last question asked by the user.
+     * @return a copy of the time of the last question, null if the user has not asked any
+     */
+    public Timestamp getLastQuestion() {
+        return lastQuestion == 0 ? null : new Timestamp(lastQuestion);
+    }
+}
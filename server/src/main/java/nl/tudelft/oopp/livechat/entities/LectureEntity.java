@@ -7,10 +7,13 @@ import java.sql.Timestamp;
 import java.util.Objects;
 import java.util.UUID;
 import javax.persistence.*;
+import nl.tudelft.oopp.livechat.services.LectureStoreListener;
+import nl.tudelft.oopp.livechat.services.LectureTagListener;
 
 
 @Entity
 @Table(name = "lectures")
+@EntityListeners({LectureTagListener.class, LectureStoreListener.class})
 public class LectureEntity {
     @Id
     @Column(name = "uuid")
@@ -25,10 +28,11 @@ public class LectureEntity {
     @Column(name = "creatorName")
     private String creatorName;
 
-    @Column(name = "fasterCount")
+    //only changed by the lecture speed service, which adds the votes in the database itself
+    @Column(name = "fasterCount", updatable = false)
     private int fasterCount;
 
-    @Column(name = "slowerCount")
+    @Column(name = "slowerCount", updatable = false)
     private int slowerCount;
 
     @Column(name = "frequency")
@@ -0,0 +1,97 @@
+package nl.tudelft.oopp.livechat.entities;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+
+/**
+ * The part of a lecture needed to validate the requests made in it,
+ *     copied from the lecture entity and never changed afterwards.
+ */
+public final class LectureMetadata {
+    /**
+     * The id of the lecture.
+     */
+    private final UUID uuid;
+
+    /**
+     * The moderator key of the lecture.
+     */
+    private final UUID modkey;
+
+    /**
+     * True if the lecture is open.
+     */
+    private final boolean open;
+
+    /**
+     * The start time of the lecture.
+     */
+    private final Timestamp startTime;
+
+    /**
+     * The frequency of asking questions (in seconds).
+     */
+    private final int frequency;
+
+    /**
+     * Creates a LectureMetadata object with the current state of the lecture.
+     * @param lecture the lecture
+     */
+    public LectureMetadata(LectureEntity lecture) {
+        this.uuid = lecture.getUuid();
+        this.modkey = lecture.getModkey();
+        this.open = lecture.isOpen();
+        this.startTime = copy(lecture.getStartTime());
+        this.frequency = lecture.getFrequency();
+    }
+
+    /**
+     * Gets the id of the lecture.
+     * @return the id of the lecture
+     */
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    /**
+     * Gets the moderator key of the lecture.
+     * @return the moderator key of the lecture
+     */
+    public UUID getModkey() {
+        return modkey;
+    }
+
+    /**
+     * Checks whether the lecture is open.
+     * @return whether the lecture is open
+     */
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Gets the start time of the lecture.
+     * @return a copy of the start time of the lecture
+     */
+    public Timestamp getStartTime() {
+        return copy(startTime);
+    }
+
+    /**
+     * Gets the frequency of asking questions.
+     * @return the frequency of asking questions (in seconds)
+     */
+    public int getFrequency() {
+        return frequency;
+    }
+
+    /**
+     * A helper method to copy a timestamp, which can be changed.
+     * @param time the timestamp to copy
+     * @return the copy of the timestamp, null if the timestamp is null
+     */
+    private static Timestamp copy(Timestamp time) {
+        return time == null ? null : new Timestamp(time.getTime());
+    }
+}
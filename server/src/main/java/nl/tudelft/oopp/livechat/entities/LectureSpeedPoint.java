@@ -0,0 +1,138 @@
+package nl.tudelft.oopp.livechat.entities;
+
+import java.util.Objects;
+
+
+public class LectureSpeedPoint {
+    /**
+     * The start of the time bucket (in milliseconds since the epoch).
+     */
+    private long time;
+
+    /**
+     * The number of votes for faster at the end of the bucket.
+     */
+    private int faster;
+
+    /**
+     * The number of votes for slower at the end of the bucket.
+     */
+    private int slower;
+
+    /**
+     * The number of votes cast (or taken back) during the bucket.
+     */
+    private int votes;
+
+    /**
+     * Creates a LectureSpeedPoint object.
+     */
+    public LectureSpeedPoint() {
+    }
+
+    /**
+     * Creates a LectureSpeedPoint object with the specified parameters.
+     * @param time the start of the time bucket
+     * @param faster the number of votes for faster at the end of the bucket
+     * @param slower the number of votes for slower at the end of the bucket
+     * @param votes the number of votes cast during the bucket
+     */
+    public LectureSpeedPoint(long time, int faster, int slower, int votes) {
+        this.time = time;
+        this.faster = faster;
+        this.slower = slower;
+        this.votes = votes;
+    }
+
+    /**
+     * Gets the start of the time bucket.
+     * @return the start of the time bucket (in milliseconds since the epoch)
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Sets the start of the time bucket.
+     * @param time the start of the time bucket (in milliseconds since the epoch)
+     */
+    public void setTime(long time) {
+        this.time = time;
+    }
+
+    /**
+     * Gets the number of votes for faster at the end of the bucket.
+     * @return the number of votes for faster
+     */
+    public int getFaster() {
+        return faster;
+    }
+
+    /**
+     * Sets the number of votes for faster at the end of the bucket.
+     * @param faster the number of votes for faster
+     */
+    public void setFaster(int faster) {
+        this.faster = faster;
+    }
+
+    /**
+     * Gets the number of votes for slower at the end of the bucket.
+     * @return the number of votes for slower
+     */
+    public int getSlower() {
+        return slower;
+    }
+
+    /**
+     * Sets the number of votes for slower at the end of the bucket.
+     * @param slower the number of votes for slower
+     */
+    public void setSlower(int slower) {
+        this.slower = slower;
+    }
+
+    /**
+     * Gets the number of votes cast (or taken back) during the bucket.
+     * @return the number of votes cast
+     */
+    public int getVotes() {
+        return votes;
+    }
+
+    /**
+     * Sets the number of votes cast (or taken back) during the bucket.
+     * @param votes the number of votes cast
+     */
+    public void setVotes(int votes) {
+        this.votes = votes;
+    }
+
+    /**
+     * Compares the LectureSpeedPoint object to another object.
+     * @param o the other object to compare to
+     * @return true iff the other object is also a LectureSpeedPoint object and has the same
+     *         time, counts and votes. False otherwise
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof LectureSpeedPoint) {
+            LectureSpeedPoint that = (LectureSpeedPoint) o;
+            return this.time == that.time && this.faster == that.faster
+                    && this.slower == that.slower && this.votes == that.votes;
+        }
+        return false;
+    }
+
+    /**
+     * Generates the hash code for the LectureSpeedPoint object.
+     * @return the generated hash code
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(time, faster, slower, votes);
+    }
+}
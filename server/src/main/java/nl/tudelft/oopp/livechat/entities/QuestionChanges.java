@@ -0,0 +1,141 @@
+package nl.tudelft.oopp.livechat.entities;
+
+import java.util.List;
+import java.util.Objects;
+
+
+public class QuestionChanges {
+    /**
+     * The version of the lecture the changes lead to.
+     */
+    private long version;
+
+    /**
+     * True if the questions are all the questions of the lecture, not only the changed ones.
+     */
+    private boolean full;
+
+    /**
+     * The questions created or modified since the version of the client.
+     */
+    private List<QuestionEntity> questions;
+
+    /**
+     * The ids of the questions removed since the version of the client.
+     */
+    private List<Long> removed;
+
+    /**
+     * Creates a QuestionChanges object.
+     */
+    public QuestionChanges() {
+    }
+
+    /**
+     * Creates a QuestionChanges object with the specified parameters.
+     * @param version the version of the lecture the changes lead to
+     * @param full true if the questions are all the questions of the lecture
+     * @param questions the questions created or modified
+     * @param removed the ids of the questions removed
+     */
+    public QuestionChanges(long version, boolean full,
+                           List<QuestionEntity> questions, List<Long> removed) {
+        this.version = version;
+        this.full = full;
+        this.questions = questions;
+        this.removed = removed;
+    }
+
+    /**
+     * Gets the version of the lecture the changes lead to.
+     * @return the version of the lecture
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the version of the lecture the changes lead to.
+     * @param version the version of the lecture
+     */
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * Checks if the questions are all the questions of the lecture.
+     * @return true if the questions are all the questions of the lecture, false otherwise
+     */
+    public boolean isFull() {
+        return full;
+    }
+
+    /**
+     * Sets if the questions are all the questions of the lecture.
+     * @param full true if the questions are all the questions of the lecture
+     */
+    public void setFull(boolean full) {
+        this.full = full;
+    }
+
+    /**
+     * Gets the questions created or modified.
+     * @return the questions created or modified
+     */
+    public List<QuestionEntity> getQuestions() {
+        return questions;
+    }
+
+    /**
+     * Sets the questions created or modified.
+     * @param questions the questions created or modified
+     */
+    public void setQuestions(List<QuestionEntity> questions) {
+        this.questions = questions;
+    }
+
+    /**
+     * Gets the ids of the questions removed.
+     * @return the ids of the questions removed
+     */
+    public List<Long> getRemoved() {
+        return removed;
+    }
+
+    /**
+     * Sets the ids of the questions removed.
+     * @param removed the ids of the questions removed
+     */
+    public void setRemoved(List<Long> removed) {
+        this.removed = removed;
+    }
+
+    /**
+     * Compares the QuestionChanges object to another object.
+     * @param o the other object to compare to
+     * @return true iff the other object is also a QuestionChanges object and has the same
+     *         version, questions and removed ids. False otherwise
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof QuestionChanges) {
+            QuestionChanges that = (QuestionChanges) o;
+            return this.version == that.version && this.full == that.full
+                    && Objects.equals(this.questions, that.questions)
+                    && Objects.equals(this.removed, that.removed);
+        }
+        return false;
+    }
+
+    /**
+     * Generates the hash code for the QuestionChanges object.
+     * @return the generated hash code
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(version, full, questions, removed);
+    }
+}
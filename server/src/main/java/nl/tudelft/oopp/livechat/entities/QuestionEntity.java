@@ -8,14 +8,18 @@ import javax.persistence.*;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import nl.tudelft.oopp.livechat.services.QuestionStoreListener;
 import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 
 @Entity(name = "question")
-@Table(name = "questions")
+@Table(name = "questions", indexes = {
+        @Index(name = "questions_lecture", columnList = "lectureId"),
+        @Index(name = "questions_owner", columnList = "ownerId")})
 @DynamicUpdate
 @EnableTransactionManagement
+@EntityListeners(QuestionStoreListener.class)
 public class QuestionEntity {
 
     @Id
@@ -29,7 +33,8 @@ public class QuestionEntity {
     @Column(name = "time")
     private Timestamp time = new Timestamp(System.currentTimeMillis() / 1000 * 1000);
 
-    @Column(name = "votes")
+    //only changed by the vote counter, which adds the votes in the database itself
+    @Column(name = "votes", updatable = false)
     private int votes;
 
     @Column(name = "text", length = 2000)
@@ -83,6 +88,26 @@ public class QuestionEntity {
         this.ownerId = ownerId;
     }
 
+    /**
+     * Copy constructor to create a question entity with the same values as another one.
+     * @param other the question entity to copy
+     */
+    public QuestionEntity(QuestionEntity other) {
+        this.id = other.id;
+        this.lectureId = other.lectureId;
+        this.time = other.time;
+        this.votes = other.votes;
+        this.text = other.text;
+        this.status = other.status;
+        this.answered = other.answered;
+        this.answerText = other.answerText;
+        this.edited = other.edited;
+        this.answerTime = other.answerTime;
+        this.ownerId = other.ownerId;
+        this.editorId = other.editorId;
+        this.ownerName = other.ownerName;
+    }
+
     /**
      * Static constructor to create a question entity.
      * @param lectureId the id of the lecture
@@ -149,6 +174,15 @@ public class QuestionEntity {
         return this.votes;
     }
 
+    /**
+     * Sets the number of votes.
+     *
+     * @param votes the number of votes
+     */
+    public void setVotes(int votes) {
+        this.votes = votes;
+    }
+
     /**
      * Increments the vote count of the question by 1.
      */
@@ -1,5 +1,6 @@
 package nl.tudelft.oopp.livechat.entities;
 
+import nl.tudelft.oopp.livechat.services.UserStoreListener;
 import org.hibernate.annotations.DynamicUpdate;
 
 import javax.persistence.*;
@@ -8,8 +9,9 @@ import java.util.UUID;
 
 
 @Entity(name = "user")
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "users_ip", columnList = "ip"))
 @DynamicUpdate
+@EntityListeners(UserStoreListener.class)
 public class UserEntity {
 
     /**
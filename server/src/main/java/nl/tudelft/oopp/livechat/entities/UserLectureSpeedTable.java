@@ -7,6 +7,7 @@ import java.util.Objects;
 import java.util.UUID;
 
 
+//the primary key (lectureId, userId) also serves the queries by lecture, no other index needed
 @Table(name = "UserLectureSpeedTable")
 @Entity
 @IdClass(UserLectureSpeedPairId.class)
@@ -5,16 +5,21 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.Table;
 import java.sql.Timestamp;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.ThreadLocalRandom;
+import nl.tudelft.oopp.livechat.services.PollStoreListener;
 
 
 @Entity
-@Table(name = "polls")
+@Table(name = "polls", indexes = @Index(name = "polls_lecture_time",
+        columnList = "lectureId, time"))
+@EntityListeners(PollStoreListener.class)
 public class PollEntity {
 
     @Id
@@ -32,7 +37,8 @@ public class PollEntity {
     @Column(name = "time")
     private Timestamp time;
 
-    @Column(name = "votes")
+    //only changed by the poll service, which adds the votes in the database itself
+    @Column(name = "votes", updatable = false)
     private long votes;
 
     @Column(name = "isOpen")
@@ -74,6 +80,21 @@ public class PollEntity {
         this.isOpen = false;
     }
 
+    /**
+     * Creates a detached copy of the poll with the specified votes
+     *     (used for the views of the poll, which are never saved).
+     * @param poll the poll to copy
+     * @param votes the number of votes for the poll
+     */
+    public PollEntity(PollEntity poll, long votes) {
+        this.id = poll.id;
+        this.lectureId = poll.lectureId;
+        this.questionText = poll.questionText;
+        this.time = poll.time;
+        this.votes = votes;
+        this.isOpen = poll.isOpen;
+    }
+
     /**
      * Gets the id of the poll.
      * @return the id of the poll
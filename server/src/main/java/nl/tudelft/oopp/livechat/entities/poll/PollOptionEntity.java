@@ -4,18 +4,23 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.Table;
 import java.util.Objects;
 import java.util.concurrent.ThreadLocalRandom;
+import nl.tudelft.oopp.livechat.services.PollStoreListener;
 
 @Entity
-@Table(name = "pollOptions")
+@Table(name = "pollOptions", indexes = @Index(name = "poll_options_poll",
+        columnList = "pollId"))
+@EntityListeners(PollStoreListener.class)
 public class PollOptionEntity {
     @Id
     @Column(name = "id")
     @JsonProperty(access = JsonProperty.Access.READ_ONLY, value = "id")
-    private final long id  = ThreadLocalRandom.current().nextLong(Long.MAX_VALUE);
+    private final long id;
 
     @Column(name = "pollId")
     private long pollId;
@@ -23,7 +28,8 @@ public class PollOptionEntity {
     @Column(name = "optionText")
     private String optionText;
 
-    @Column(name = "votes")
+    //only changed by the poll service, which adds the votes in the database itself
+    @Column(name = "votes", updatable = false)
     private long votes;
 
     @Column(name = "isCorrect")
@@ -33,6 +39,7 @@ public class PollOptionEntity {
      * Creates a new PollOptionEntity object.
      */
     public PollOptionEntity() {
+        this.id = ThreadLocalRandom.current().nextLong(Long.MAX_VALUE);
     }
 
     /**
@@ -43,12 +50,27 @@ public class PollOptionEntity {
      * @param isCorrect true if it is a correct option
      */
     public PollOptionEntity(long pollId, String optionText, long votes, boolean isCorrect) {
+        this.id = ThreadLocalRandom.current().nextLong(Long.MAX_VALUE);
         this.pollId = pollId;
         this.optionText = optionText;
         this.votes = votes;
         this.isCorrect = isCorrect;
     }
 
+    /**
+     * Creates a detached copy of the option with the specified votes and correctness
+     *     (used for the views of the poll, which are never saved).
+     * @param option the option to copy
+     * @param votes the number of votes for the option
+     * @param isCorrect true if it is a correct option
+     */
+    public PollOptionEntity(PollOptionEntity option, long votes, boolean isCorrect) {
+        this.id = option.id;
+        this.pollId = option.pollId;
+        this.optionText = option.optionText;
+        this.votes = votes;
+        this.isCorrect = isCorrect;
+    }
 
     /**
      * Gets the id of the poll option.
@@ -0,0 +1,140 @@
+package nl.tudelft.oopp.livechat.entities.poll;
+
+import java.util.Map;
+import java.util.Objects;
+
+
+public class PollTally {
+    /**
+     * The id of the poll.
+     */
+    private long pollId;
+
+    /**
+     * True if the poll is open for voting.
+     */
+    private boolean open;
+
+    /**
+     * The number of votes on the poll.
+     */
+    private long votes;
+
+    /**
+     * The number of votes on every option of the poll, by the id of the option.
+     */
+    private Map<Long, Long> optionVotes;
+
+    /**
+     * Creates a PollTally object.
+     */
+    public PollTally() {
+    }
+
+    /**
+     * Creates a PollTally object with the specified parameters.
+     * @param pollId the id of the poll
+     * @param open true if the poll is open for voting
+     * @param votes the number of votes on the poll
+     * @param optionVotes the number of votes on every option of the poll
+     */
+    public PollTally(long pollId, boolean open, long votes, Map<Long, Long> optionVotes) {
+        this.pollId = pollId;
+        this.open = open;
+        this.votes = votes;
+        this.optionVotes = optionVotes;
+    }
+
+    /**
+     * Gets the id of the poll.
+     * @return the id of the poll
+     */
+    public long getPollId() {
+        return pollId;
+    }
+
+    /**
+     * Sets the id of the poll.
+     * @param pollId the id of the poll
+     */
+    public void setPollId(long pollId) {
+        this.pollId = pollId;
+    }
+
+    /**
+     * Checks if the poll is open for voting.
+     * @return true if the poll is open, false otherwise
+     */
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Sets if the poll is open for voting.
+     * @param open true if the poll is open, false otherwise
+     */
+    public void setOpen(boolean open) {
+        this.open = open;
+    }
+
+    /**
+     * Gets the number of votes on the poll.
+     * @return the number of votes on the poll
+     */
+    public long getVotes() {
+        return votes;
+    }
+
+    /**
+     * Sets the number of votes on the poll.
+     * @param votes the number of votes on the poll
+     */
+    public void setVotes(long votes) {
+        this.votes = votes;
+    }
+
+    /**
+     * Gets the number of votes on every option of the poll.
+     * @return the number of votes by the id of the option
+     */
+    public Map<Long, Long> getOptionVotes() {
+        return optionVotes;
+    }
+
+    /**
+     * Sets the number of votes on every option of the poll.
+     * @param optionVotes the number of votes by the id of the option
+     */
+    public void setOptionVotes(Map<Long, Long> optionVotes) {
+        this.optionVotes = optionVotes;
+    }
+
+    /**
+     * Compares the PollTally object to another object.
+     * @param o the other object to compare to
+     * @return true iff the other object is also a PollTally object and has the same
+     *         poll id, state and votes. False otherwise
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof PollTally) {
+            PollTally that = (PollTally) o;
+            return this.pollId == that.pollId && this.open == that.open
+                    && this.votes == that.votes
+                    && Objects.equals(this.optionVotes, that.optionVotes);
+        }
+        return false;
+    }
+
+    /**
+     * Generates the hash code for the PollTally object.
+     * @return the generated hash code
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(pollId, open, votes, optionVotes);
+    }
+}
@@ -4,7 +4,9 @@ import javax.persistence.*;
 import java.util.Objects;
 
 @Entity
-@Table(name = "userPollVote")
+@Table(name = "userPollVote", indexes = {
+        @Index(name = "user_poll_vote_user", columnList = "userId"),
+        @Index(name = "user_poll_vote_poll", columnList = "pollId")})
 @IdClass(UserPollVotePairId.class)
 public class UserPollVoteTable {
     @Id
@@ -3,9 +3,25 @@ package nl.tudelft.oopp.livechat.repositories;
 import java.util.UUID;
 import nl.tudelft.oopp.livechat.entities.LectureEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface LectureRepository extends JpaRepository<LectureEntity, UUID> {
     LectureEntity findLectureEntityByUuid(UUID id);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE LectureEntity l SET l.fasterCount = l.fasterCount + :faster, "
+            + "l.slowerCount = l.slowerCount + :slower WHERE l.uuid = :uuid")
+    int addSpeedVotes(@Param("uuid") UUID uuid, @Param("faster") int faster,
+                      @Param("slower") int slower);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE LectureEntity l SET l.fasterCount = 0, l.slowerCount = 0 WHERE l.uuid = :uuid")
+    int resetSpeedVotes(@Param("uuid") UUID uuid);
 }
@@ -2,7 +2,11 @@ package nl.tudelft.oopp.livechat.repositories;
 
 import nl.tudelft.oopp.livechat.entities.poll.PollOptionEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -11,4 +15,14 @@ public interface PollOptionRepository extends JpaRepository<PollOptionEntity, Lo
     PollOptionEntity findById(long id);
 
     List<PollOptionEntity> findAllByPollId(long id);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE PollOptionEntity o SET o.votes = o.votes + :delta WHERE o.id = :id")
+    int addVotes(@Param("id") long id, @Param("delta") long delta);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE PollOptionEntity o SET o.votes = 0 WHERE o.pollId = :pollId")
+    int resetVotes(@Param("pollId") long pollId);
 }
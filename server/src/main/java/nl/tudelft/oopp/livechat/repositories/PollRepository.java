@@ -2,7 +2,11 @@ package nl.tudelft.oopp.livechat.repositories;
 
 import nl.tudelft.oopp.livechat.entities.poll.PollEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.UUID;
@@ -13,4 +17,16 @@ public interface PollRepository extends JpaRepository<PollEntity, Long> {
 
     List<PollEntity> findAllByLectureIdOrderByTimeDesc(UUID uuid);
 
+    PollEntity findFirstByLectureIdOrderByTimeDesc(UUID uuid);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE PollEntity p SET p.votes = p.votes + :delta WHERE p.id = :id")
+    int addVotes(@Param("id") long id, @Param("delta") long delta);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE PollEntity p SET p.votes = 0 WHERE p.id = :id")
+    int resetVotes(@Param("id") long id);
+
 }
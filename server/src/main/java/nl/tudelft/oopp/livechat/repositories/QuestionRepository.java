@@ -4,7 +4,11 @@ import java.util.List;
 import java.util.UUID;
 import nl.tudelft.oopp.livechat.entities.QuestionEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface QuestionRepository extends JpaRepository<QuestionEntity, Long> {
@@ -12,4 +16,9 @@ public interface QuestionRepository extends JpaRepository<QuestionEntity, Long>
     List<QuestionEntity> findAllByLectureId(UUID lectureId);
 
     List<QuestionEntity> findAllByOwnerId(long ownerId);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE question q SET q.votes = q.votes + :delta WHERE q.id = :id")
+    int addVotes(@Param("id") long id, @Param("delta") int delta);
 }
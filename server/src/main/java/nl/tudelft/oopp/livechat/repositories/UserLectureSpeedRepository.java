@@ -3,6 +3,9 @@ package nl.tudelft.oopp.livechat.repositories;
 import nl.tudelft.oopp.livechat.entities.UserLectureSpeedPairId;
 import nl.tudelft.oopp.livechat.entities.UserLectureSpeedTable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,6 +24,7 @@ public interface UserLectureSpeedRepository
     void deleteAllByLectureId(UUID uuid);
 
     @Transactional
-    void deleteByUserIdAndLectureId(long uid, UUID uuid);
-
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM UserLectureSpeedTable t WHERE t.userId = :uid AND t.lectureId = :uuid")
+    int deleteVote(@Param("uid") long uid, @Param("uuid") UUID uuid);
 }
@@ -13,6 +13,11 @@ public interface UserPollVoteRepository
         extends JpaRepository<UserPollVoteTable, UserPollVotePairId> {
     List<UserPollVoteTable> findAllByUserId(long uid);
 
+    List<UserPollVoteTable> findAllByPollId(long pollId);
+
+    @Transactional
+    void deleteAllByPollId(long pollId);
+
     @Transactional
     void deleteAllByOptionId(long optionId);
 }
@@ -2,8 +2,13 @@ package nl.tudelft.oopp.livechat.repositories;
 
 import nl.tudelft.oopp.livechat.entities.UserEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.util.List;
 import java.util.UUID;
 
@@ -20,4 +25,9 @@ public interface UserRepository extends JpaRepository<UserEntity, Long> {
     int countAllByIp(String ip);
 
     List<UserEntity> findAllByIp(String ip);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE user u SET u.lastQuestion = :time WHERE u.uid = :uid")
+    int setLastQuestion(@Param("uid") long uid, @Param("time") Timestamp time);
 }
@@ -0,0 +1,107 @@
+package nl.tudelft.oopp.livechat.services;
+
+import java.sql.Timestamp;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import nl.tudelft.oopp.livechat.entities.ActiveUser;
+import nl.tudelft.oopp.livechat.repositories.UserRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+
+/**
+ * The users active in the lectures kept in memory (name, lecture, ban and last question),
+ *     so that the actions of a user can be validated without querying the database.
+ *     A user is looked up the first time it is needed and dropped when it is saved
+ *     or removed (see UserStoreListener), when its lecture is closed or removed
+ *     (see LectureStoreListener) or when it has not been used for a while.
+ *     Users that do not exist are not kept, so that a registered user is seen at once.
+ */
+@Service
+public class ActiveUserCache {
+
+    private final UserRepository userRepository;
+
+    /**
+     * The users asked for since their last change, by the id of the user.
+     */
+    private final Map<Long, Entry> users = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the active user cache.
+     * @param userRepository user repository
+     */
+    public ActiveUserCache(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Gets the user, looking it up in the database if needed.
+     * @param uid the id of the user
+     * @return the user, null if the user is not registered
+     */
+    public ActiveUser get(long uid) {
+        //looked up while holding the entry, so that a change committed in the meantime
+        //waits for it and drops it afterwards
+        Entry entry = users.computeIfAbsent(uid, id -> userRepository.findById(id)
+                .map(user -> new Entry(new ActiveUser(user))).orElse(null));
+        if (entry == null) {
+            return null;
+        }
+        entry.lastUsed = System.currentTimeMillis();
+        return entry.user;
+    }
+
+    /**
+     * Records the time of the last question asked by the user, if the user is kept.
+     *     Must be called after the time is written to the database.
+     * @param uid the id of the user
+     * @param time the time of the question
+     */
+    public void questionAsked(long uid, Timestamp time) {
+        users.computeIfPresent(uid, (id, entry) -> new Entry(entry.user.withLastQuestion(time)));
+    }
+
+    /**
+     * Drops the user, it is looked up again the next time it is needed.
+     *     Must be called after the change of the user is committed.
+     * @param uid the id of the user
+     */
+    public void invalidate(long uid) {
+        users.remove(uid);
+    }
+
+    /**
+     * Drops all the users of the lecture (e.g. when the lecture is closed).
+     * @param lectureId the id of the lecture
+     */
+    public void evictLecture(UUID lectureId) {
+        users.values().removeIf(entry -> lectureId.equals(entry.user.getLectureId()));
+    }
+
+    /**
+     * Drops the users that have not been used for longer than
+     *     the idle timeout of the question store.
+     */
+    @Scheduled(fixedRate = QuestionStore.IDLE_TIMEOUT / 4)
+    public void evictIdleUsers() {
+        long now = System.currentTimeMillis();
+        users.values().removeIf(entry -> now - entry.lastUsed > QuestionStore.IDLE_TIMEOUT);
+    }
+
+    /**
+     * A user kept in memory and the last time it was used.
+     */
+    private static class Entry {
+
+        private final ActiveUser user;
+
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        private Entry(ActiveUser user) {
+            this.user = user;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package nl.tudelft.oopp.livechat.services;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import nl.tudelft.oopp.livechat.entities.poll.PollEntity;
+import nl.tudelft.oopp.livechat.repositories.PollRepository;
+import org.springframework.stereotype.Service;
+
+
+/**
+ * The latest poll of every lecture, kept in memory as the id of the poll,
+ *     so that finding it does not depend on the number of polls of the lecture.
+ *     The pointer is set when a poll is created and looked up in the database
+ *     (only the latest poll) the first time it is needed.
+ */
+@Service
+public class CurrentPollCache {
+
+    /**
+     * The pointer of a lecture without polls.
+     */
+    private static final CurrentPoll NO_POLL = new CurrentPoll(0, Long.MIN_VALUE);
+
+    private final PollRepository pollRepository;
+
+    /**
+     * The latest poll of every lecture asked for since it was loaded.
+     */
+    private final Map<UUID, CurrentPoll> currentPolls = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the current poll cache.
+     * @param pollRepository poll repository
+     */
+    public CurrentPollCache(PollRepository pollRepository) {
+        this.pollRepository = pollRepository;
+    }
+
+    /**
+     * Gets the latest poll of the lecture.
+     * @param lectureId the id of the lecture
+     * @return the latest poll, null if the lecture has no polls
+     */
+    public PollEntity getCurrentPoll(UUID lectureId) {
+        CurrentPoll current = currentPolls.computeIfAbsent(lectureId, this::load);
+        if (current == NO_POLL) {
+            return null;
+        }
+        PollEntity poll = pollRepository.findById(current.id);
+        if (poll == null) {
+            //the poll has been removed in the meantime
+            currentPolls.remove(lectureId, current);
+            return getCurrentPoll(lectureId);
+        }
+        return poll;
+    }
+
+    /**
+     * Points the lecture to the created poll, unless a newer poll is known already.
+     * @param poll the created poll
+     */
+    public void pollCreated(PollEntity poll) {
+        CurrentPoll created = new CurrentPoll(poll.getId(), poll.getTime().getTime());
+        currentPolls.merge(poll.getLectureId(), created, CurrentPoll::latest);
+    }
+
+    /**
+     * Forgets the latest poll of the lecture, it is looked up again the next time.
+     * @param lectureId the id of the lecture
+     */
+    public void evict(UUID lectureId) {
+        currentPolls.remove(lectureId);
+    }
+
+    /**
+     * A helper method to look up the latest poll of the lecture in the database.
+     * @param lectureId the id of the lecture
+     * @return the pointer to the latest poll
+     */
+    private CurrentPoll load(UUID lectureId) {
+        PollEntity poll = pollRepository.findFirstByLectureIdOrderByTimeDesc(lectureId);
+        return poll == null ? NO_POLL : new CurrentPoll(poll.getId(), poll.getTime().getTime());
+    }
+
+    /**
+     * The id and the creation time of the latest poll of a lecture.
+     */
+    private static class CurrentPoll {
+
+        private final long id;
+
+        private final long time;
+
+        private CurrentPoll(long id, long time) {
+            this.id = id;
+            this.time = time;
+        }
+
+        /**
+         * Chooses the latest of two polls, the created one if they have the same time.
+         * @param current the current poll
+         * @param created the created poll
+         * @return the latest poll
+         */
+        private static CurrentPoll latest(CurrentPoll current, CurrentPoll created) {
+            return created.time >= current.time ? created : current;
+        }
+    }
+}
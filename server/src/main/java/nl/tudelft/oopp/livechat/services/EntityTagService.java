@@ -0,0 +1,81 @@
+package nl.tudelft.oopp.livechat.services;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Service;
+
+
+/**
+ * The versions of the lectures and their polls, used as strong ETags
+ *     so that the clients polling them get 304 Not Modified when nothing has changed.
+ */
+@Service
+public class EntityTagService {
+
+    /**
+     * The start of the server, part of every tag so that the tags
+     *     from before a restart never match the new ones.
+     */
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    /**
+     * The version of every changed lecture (name, state, speed votes...).
+     */
+    private final Map<UUID, AtomicLong> lectureVersions = new ConcurrentHashMap<>();
+
+    /**
+     * The version of the polls of every lecture with changed polls.
+     */
+    private final Map<UUID, AtomicLong> pollVersions = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the tag of the lecture (also used for its lecture speed votes).
+     * @param lid the id of the lecture
+     * @return the tag of the current version of the lecture
+     */
+    public String getLectureTag(UUID lid) {
+        return "\"" + epoch + "-" + getVersion(lectureVersions, lid) + "\"";
+    }
+
+    /**
+     * Gets the tag of the latest poll of the lecture.
+     *     The tag also changes when the lecture itself changes (e.g. when it is deleted).
+     * @param lid the id of the lecture
+     * @return the tag of the current version of the polls of the lecture
+     */
+    public String getPollTag(UUID lid) {
+        return "\"" + epoch + "-" + getVersion(lectureVersions, lid)
+                + "-" + getVersion(pollVersions, lid) + "\"";
+    }
+
+    /**
+     * Records a change of the lecture. Must be called after the change is saved.
+     * @param lid the id of the lecture
+     */
+    public void lectureChanged(UUID lid) {
+        lectureVersions.computeIfAbsent(lid, id -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Records a change of a poll (or its options) of the lecture.
+     *     Must be called after the change is saved.
+     * @param lid the id of the lecture
+     */
+    public void pollChanged(UUID lid) {
+        pollVersions.computeIfAbsent(lid, id -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * A helper method to get the version of the lecture.
+     * @param versions the versions of the lectures
+     * @param lid the id of the lecture
+     * @return the version of the lecture, 0 if it has not changed since the start
+     */
+    private static long getVersion(Map<UUID, AtomicLong> versions, UUID lid) {
+        AtomicLong version = versions.get(lid);
+        return version == null ? 0 : version.get();
+    }
+}
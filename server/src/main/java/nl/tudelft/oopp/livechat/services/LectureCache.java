@@ -0,0 +1,101 @@
+package nl.tudelft.oopp.livechat.services;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import nl.tudelft.oopp.livechat.entities.LectureEntity;
+import nl.tudelft.oopp.livechat.entities.LectureMetadata;
+import nl.tudelft.oopp.livechat.repositories.LectureRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+
+/**
+ * The metadata of the lectures (open flag, start time, frequency and moderator key)
+ *     kept in memory, so that the requests made in a lecture can be validated
+ *     without querying the database. A lecture is looked up the first time it is needed
+ *     and dropped when it is closed, removed or changed (by the lecture service and
+ *     by LectureStoreListener for the lectures saved through the repository).
+ *     Lectures that do not exist are not kept, so that a created lecture is seen at once.
+ */
+@Service
+public class LectureCache {
+
+    private final LectureRepository lectureRepository;
+
+    /**
+     * The maximum number of lectures kept in memory.
+     */
+    private final int maxSize;
+
+    /**
+     * The metadata of every lecture asked for since its last change.
+     */
+    private final Map<UUID, LectureMetadata> lectures = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the lecture cache.
+     * @param lectureRepository lecture repository
+     * @param maxSize the maximum number of lectures kept in memory
+     */
+    public LectureCache(LectureRepository lectureRepository,
+                        @Value("${lecture.cache.size:10000}") int maxSize) {
+        this.lectureRepository = lectureRepository;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Gets the metadata of the lecture, looking it up in the database if needed.
+     * @param id the id of the lecture
+     * @return the metadata of the lecture, null if the lecture does not exist
+     */
+    public LectureMetadata get(UUID id) {
+        LectureMetadata lecture = lectures.get(id);
+        if (lecture != null) {
+            return lecture;
+        }
+        //looked up while holding the entry, so that a change committed in the meantime
+        //waits for it and drops it afterwards
+        lecture = lectures.computeIfAbsent(id, this::load);
+        if (lecture != null && lectures.size() > maxSize) {
+            evictOthers(id);
+        }
+        return lecture;
+    }
+
+    /**
+     * Drops the metadata of the lecture, it is looked up again the next time it is needed.
+     *     Must be called after the change of the lecture is committed.
+     * @param id the id of the lecture
+     */
+    public void invalidate(UUID id) {
+        lectures.remove(id);
+    }
+
+    /**
+     * A helper method to look up the lecture in the database.
+     * @param id the id of the lecture
+     * @return the metadata of the lecture, null if the lecture does not exist
+     */
+    private LectureMetadata load(UUID id) {
+        LectureEntity lecture = lectureRepository.findLectureEntityByUuid(id);
+        return lecture == null ? null : new LectureMetadata(lecture);
+    }
+
+    /**
+     * A helper method to drop other lectures until the maximum size is respected.
+     *     The lectures are dropped in the iteration order of the map, which does not
+     *     depend on their use, since they are cheap to look up again.
+     * @param kept the id of the lecture to keep
+     */
+    private void evictOthers(UUID kept) {
+        Iterator<UUID> ids = lectures.keySet().iterator();
+        while (lectures.size() > maxSize && ids.hasNext()) {
+            if (!ids.next().equals(kept)) {
+                ids.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package nl.tudelft.oopp.livechat.services;
+
+import java.util.*;
+
+
+/**
+ * The version of a lecture together with the version in which each of its questions
+ *     was last changed or removed. Used to send the clients only what changed since
+ *     the last version they have seen.
+ */
+public class LectureChangeLog {
+
+    /**
+     * The oldest version the changes can be computed from.
+     */
+    private long firstVersion;
+
+    /**
+     * The current version of the lecture.
+     */
+    private long version;
+
+    /**
+     * The last version whose changes have been sent to the open streams of the lecture.
+     */
+    private long streamedVersion;
+
+    /**
+     * The version in which each question was last created or modified.
+     */
+    private final Map<Long, Long> changed = new HashMap<>();
+
+    /**
+     * The version in which each question was removed (tombstones).
+     */
+    private final Map<Long, Long> removed = new HashMap<>();
+
+    /**
+     * Creates a change log starting at the given version.
+     * @param firstVersion the first version of the lecture
+     */
+    public LectureChangeLog(long firstVersion) {
+        this.firstVersion = firstVersion;
+        this.version = firstVersion;
+        this.streamedVersion = firstVersion;
+    }
+
+    /**
+     * Gets the current version of the lecture.
+     * @return the current version of the lecture
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the last version whose changes have been sent to the open streams of the lecture.
+     * @return the last streamed version
+     */
+    public synchronized long getStreamedVersion() {
+        return streamedVersion;
+    }
+
+    /**
+     * Marks the changes up to the given version as sent to the open streams of the lecture.
+     *     The streamed version never goes back.
+     * @param streamedVersion the last streamed version
+     */
+    public synchronized void setStreamedVersion(long streamedVersion) {
+        this.streamedVersion = Math.max(this.streamedVersion, streamedVersion);
+    }
+
+    /**
+     * Records a new version in which the given questions were changed and removed.
+     * @param changedIds the ids of the questions that were created or modified
+     * @param removedIds the ids of the questions that were removed
+     * @return the new version of the lecture
+     */
+    public synchronized long addChanges(Collection<Long> changedIds,
+                                        Collection<Long> removedIds) {
+        version++;
+        for (Long id : changedIds) {
+            removed.remove(id);
+            changed.put(id, version);
+        }
+        for (Long id : removedIds) {
+            changed.remove(id);
+            removed.put(id, version);
+        }
+        return version;
+    }
+
+    /**
+     * Records a new version with changes that are not related to particular questions.
+     *     The changes since the older versions can not be computed anymore.
+     * @return the new version of the lecture
+     */
+    public synchronized long reset() {
+        version++;
+        firstVersion = version;
+        changed.clear();
+        removed.clear();
+        return version;
+    }
+
+    /**
+     * Checks if the changes since the given version can be computed.
+     * @param since the last version seen by the client
+     * @return true if the version is neither too old nor ahead of the current one
+     */
+    public synchronized boolean canComputeChangesSince(long since) {
+        return since >= firstVersion && since <= version;
+    }
+
+    /**
+     * Gets the ids of the questions created or modified after the given version.
+     * @param since the last version seen by the client
+     * @return the ids of the changed questions
+     */
+    public synchronized List<Long> getChangedSince(long since) {
+        return idsAfter(changed, since);
+    }
+
+    /**
+     * Gets the ids of the questions removed after the given version.
+     * @param since the last version seen by the client
+     * @return the ids of the removed questions
+     */
+    public synchronized List<Long> getRemovedSince(long since) {
+        return idsAfter(removed, since);
+    }
+
+    /**
+     * A helper method to get the ids with a version newer than the given one.
+     * @param versions the versions of the questions
+     * @param since the last version seen by the client
+     * @return the ids of the questions with newer versions
+     */
+    private static List<Long> idsAfter(Map<Long, Long> versions, long since) {
+        List<Long> ids = new ArrayList<>();
+        for (Map.Entry<Long, Long> entry : versions.entrySet()) {
+            if (entry.getValue() > since) {
+                ids.add(entry.getKey());
+            }
+        }
+        return ids;
+    }
+}
@@ -3,6 +3,7 @@ package nl.tudelft.oopp.livechat.services;
 import java.sql.Timestamp;
 import java.util.UUID;
 import nl.tudelft.oopp.livechat.entities.LectureEntity;
+import nl.tudelft.oopp.livechat.entities.LectureMetadata;
 import nl.tudelft.oopp.livechat.exceptions.*;
 import nl.tudelft.oopp.livechat.repositories.LectureRepository;
 import org.springframework.stereotype.Service;
@@ -16,13 +17,20 @@ public class LectureService {
      */
     final LectureRepository lectureRepository;
 
+    /**
+     * The Lecture cache.
+     */
+    final LectureCache lectureCache;
+
     /**
      * Constructor for the lecture service.
      *
      * @param lectureRepository lecture repository
+     * @param lectureCache lecture cache
      */
-    public LectureService(LectureRepository lectureRepository) {
+    public LectureService(LectureRepository lectureRepository, LectureCache lectureCache) {
         this.lectureRepository = lectureRepository;
+        this.lectureCache = lectureCache;
     }
 
     /**
@@ -82,6 +90,7 @@ public class LectureService {
             throw new LectureNotFoundException();
         } else if (toDelete.getModkey().equals(modkey)) {
             lectureRepository.deleteById(id);
+            lectureCache.invalidate(id);
             return 0;
         }
         throw new InvalidModkeyException();
@@ -102,6 +111,7 @@ public class LectureService {
         } else if (toClose.getModkey().equals(modkey)) {
             toClose.close();
             lectureRepository.save(toClose);
+            lectureCache.invalidate(id);
             return 0;
         }
         throw new InvalidModkeyException();
@@ -109,6 +119,7 @@ public class LectureService {
 
     /**
      * Checks if the provided moderator key matches the moderator key of the lecture.
+     *     The lecture is read from the lecture cache.
      * @param id the id of the lecture
      * @param modkey the moderator key
      * @return 0 if successful
@@ -117,7 +128,7 @@ public class LectureService {
      */
     public int validateModerator(UUID id, UUID modkey)
             throws LectureException, InvalidModkeyException {
-        LectureEntity l = getLectureById(id);
+        LectureMetadata l = lectureCache.get(id);
         if (l == null) {
             throw new LectureNotFoundException();
         } else if (l.getModkey().equals(modkey)) {
@@ -147,6 +158,7 @@ public class LectureService {
         if (lecture.getModkey().equals(modkey)) {
             lecture.setFrequency(frequency);
             lectureRepository.save(lecture);
+            lectureCache.invalidate(id);
             return 0;
         }
         throw new InvalidModkeyException();
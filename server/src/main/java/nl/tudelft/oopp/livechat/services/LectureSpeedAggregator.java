@@ -0,0 +1,404 @@
+package nl.tudelft.oopp.livechat.services;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import javax.annotation.PreDestroy;
+
+import nl.tudelft.oopp.livechat.entities.LectureEntity;
+import nl.tudelft.oopp.livechat.entities.UserLectureSpeedTable;
+import nl.tudelft.oopp.livechat.repositories.LectureRepository;
+import nl.tudelft.oopp.livechat.repositories.UserLectureSpeedRepository;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+
+/**
+ * The votes for the lecture speed of the active lectures, counted in memory
+ *     and written to the database in batches (write-behind). A vote only changes
+ *     the vote of the user and the counters of the lecture in memory;
+ *     the database is updated every flush interval (lecture.speed.flush-interval)
+ *     and when a lecture is closed or has not been used for a while.
+ */
+@Service
+public class LectureSpeedAggregator {
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    /**
+     * No vote (the user has taken the vote back or has not voted yet).
+     */
+    private static final byte NONE = 0;
+
+    /**
+     * A vote for a faster lecture.
+     */
+    private static final byte FASTER = 1;
+
+    /**
+     * A vote for a slower lecture.
+     */
+    private static final byte SLOWER = 2;
+
+    private final LectureRepository lectureRepository;
+
+    private final UserLectureSpeedRepository userLectureSpeedRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * The votes of every loaded lecture.
+     */
+    private final Map<UUID, LectureSpeed> lectures = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the lecture speed aggregator.
+     * @param lectureRepository lecture repository
+     * @param userLectureSpeedRepository user lecture speed repository
+     * @param transactionManager the transaction manager running each flush in one transaction
+     */
+    public LectureSpeedAggregator(LectureRepository lectureRepository,
+                                  UserLectureSpeedRepository userLectureSpeedRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.lectureRepository = lectureRepository;
+        this.userLectureSpeedRepository = userLectureSpeedRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        //a new transaction, since a flush can be triggered after another one has been committed
+        this.transactionTemplate.setPropagationBehavior(
+                TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Checks if the lecture exists.
+     * @param uuid the id of the lecture
+     * @return true if the lecture exists, false otherwise
+     */
+    public boolean exists(UUID uuid) {
+        return load(uuid) != null;
+    }
+
+    /**
+     * Checks if the lecture is open.
+     * @param uuid the id of the lecture
+     * @return true if the lecture exists and is open, false otherwise
+     */
+    public boolean isOpen(UUID uuid) {
+        LectureSpeed lecture = load(uuid);
+        return lecture != null && lecture.open;
+    }
+
+    /**
+     * Checks if the user has already voted in the lecture (and thus is known to be in it),
+     *     even if the vote has been taken back.
+     * @param uuid the id of the lecture
+     * @param uid the id of the user
+     * @return true if the user has voted, false otherwise
+     */
+    public boolean isVoter(UUID uuid, long uid) {
+        LectureSpeed lecture = load(uuid);
+        return lecture != null && lecture.votes.containsKey(uid);
+    }
+
+    /**
+     * Gets the votes for the lecture speed.
+     * @param uuid the id of the lecture
+     * @return the votes (first number is for faster, second for slower),
+     *          null if the lecture does not exist
+     */
+    public List<Integer> getVotes(UUID uuid) {
+        LectureSpeed lecture = load(uuid);
+        if (lecture == null) {
+            return null;
+        }
+        return List.of(lecture.faster.intValue(), lecture.slower.intValue());
+    }
+
+    /**
+     * Records the vote of the user, or takes it back if the user has voted the same already.
+     *     Voting for the other speed changes the vote.
+     * @param uuid the id of the lecture
+     * @param uid the id of the user
+     * @param speed the indication of the lecture speed ("faster" or "slower")
+     * @return true if the vote has been recorded, false if the lecture does not exist
+     */
+    public boolean vote(UUID uuid, long uid, String speed) {
+        byte vote = speed.equals("faster") ? FASTER : SLOWER;
+        while (true) {
+            LectureSpeed lecture = load(uuid);
+            if (lecture == null) {
+                return false;
+            }
+            lecture.lock.readLock().lock();
+            try {
+                //an evicted lecture is loaded again, with the votes it has written
+                if (!lecture.evicted) {
+                    lecture.vote(uid, vote);
+                    return true;
+                }
+            } finally {
+                lecture.lock.readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Removes all the votes of the lecture, in memory and in the database.
+     * @param uuid the id of the lecture
+     */
+    public synchronized void reset(UUID uuid) {
+        lectures.compute(uuid, (id, lecture) -> {
+            if (lecture != null) {
+                markEvicted(lecture);
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                userLectureSpeedRepository.deleteAllByLectureId(uuid);
+                lectureRepository.resetSpeedVotes(uuid);
+            });
+            return null;
+        });
+    }
+
+    /**
+     * Writes the votes of the lecture to the database and removes them from memory,
+     *     they are loaded again the next time the lecture is used.
+     * @param uuid the id of the lecture
+     */
+    public synchronized void evict(UUID uuid) {
+        lectures.computeIfPresent(uuid, (id, lecture) -> writeAndEvict(lecture));
+    }
+
+    /**
+     * Removes the votes of the lecture from memory without writing them
+     *     (used when the lecture has been removed).
+     * @param uuid the id of the lecture
+     */
+    public synchronized void discard(UUID uuid) {
+        lectures.computeIfPresent(uuid, (id, lecture) -> markEvicted(lecture));
+    }
+
+    /**
+     * Removes the votes of the lectures that have not been used for longer than
+     *     the idle timeout of the question store from memory, writing them first.
+     */
+    @Scheduled(fixedRate = QuestionStore.IDLE_TIMEOUT / 4)
+    public synchronized void evictIdleLectures() {
+        long now = System.currentTimeMillis();
+        for (UUID uuid : new ArrayList<>(lectures.keySet())) {
+            lectures.computeIfPresent(uuid, (id, lecture) -> now - lecture.lastUsed
+                    <= QuestionStore.IDLE_TIMEOUT ? lecture : writeAndEvict(lecture));
+        }
+    }
+
+    /**
+     * Writes the pending votes of every lecture to the database,
+     *     one transaction per lecture. If a transaction fails, the failure is logged,
+     *     the votes are kept for the next flush and the other lectures are still written.
+     */
+    @Scheduled(fixedDelayString = "${lecture.speed.flush-interval:1000}")
+    @PreDestroy
+    public synchronized void flush() {
+        for (LectureSpeed lecture : lectures.values()) {
+            //a lecture that can not be written must not hold up the others
+            try {
+                flushLecture(lecture);
+            } catch (RuntimeException e) {
+                logger.warn("Votes of the lecture " + lecture.uuid
+                        + " not written, kept for the next flush", e);
+            }
+        }
+    }
+
+    /**
+     * A helper method to get the votes of the lecture, loading them if needed.
+     * @param uuid the id of the lecture
+     * @return the votes of the lecture, null if the lecture does not exist
+     */
+    private LectureSpeed load(UUID uuid) {
+        LectureSpeed lecture = lectures.computeIfAbsent(uuid, id -> {
+            LectureEntity entity = lectureRepository.findLectureEntityByUuid(id);
+            if (entity == null) {
+                return null;
+            }
+            LectureSpeed loaded = new LectureSpeed(entity);
+            for (UserLectureSpeedTable vote : userLectureSpeedRepository.findAllByLectureId(id)) {
+                loaded.votes.put(vote.getUserId(),
+                        vote.getVoteOnLectureSpeed().equals("faster") ? FASTER : SLOWER);
+            }
+            return loaded;
+        });
+        if (lecture != null) {
+            lecture.lastUsed = System.currentTimeMillis();
+        }
+        return lecture;
+    }
+
+    /**
+     * A helper method to mark the lecture as evicted, waiting for the votes being recorded.
+     * @param lecture the lecture
+     * @return null (to remove the lecture from the map)
+     */
+    private LectureSpeed markEvicted(LectureSpeed lecture) {
+        lecture.lock.writeLock().lock();
+        lecture.evicted = true;
+        lecture.lock.writeLock().unlock();
+        return null;
+    }
+
+    /**
+     * A helper method to write the votes of the lecture and to mark it as evicted,
+     *     waiting for the votes being recorded.
+     * @param lecture the lecture
+     * @return null (to remove the lecture from the map)
+     */
+    private LectureSpeed writeAndEvict(LectureSpeed lecture) {
+        lecture.lock.writeLock().lock();
+        try {
+            flushLecture(lecture);
+            lecture.evicted = true;
+        } finally {
+            lecture.lock.writeLock().unlock();
+        }
+        return null;
+    }
+
+    /**
+     * A helper method to write the pending votes of the lecture in one transaction.
+     * @param lecture the lecture
+     */
+    private void flushLecture(LectureSpeed lecture) {
+        int faster = (int) lecture.pendingFaster.sumThenReset();
+        int slower = (int) lecture.pendingSlower.sumThenReset();
+        Map<Long, Byte> voters = new HashMap<>(lecture.pendingVotes);
+        if (faster == 0 && slower == 0 && voters.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    write(lecture.uuid, faster, slower, voters));
+        } catch (RuntimeException e) {
+            lecture.pendingFaster.add(faster);
+            lecture.pendingSlower.add(slower);
+            throw e;
+        }
+        //only the votes that have not changed again in the meantime are written
+        voters.forEach(lecture.pendingVotes::remove);
+    }
+
+    /**
+     * A helper method to write the votes and the voters of the lecture.
+     * @param uuid the id of the lecture
+     * @param faster the number of votes for faster to add
+     * @param slower the number of votes for slower to add
+     * @param voters the vote of every user that has voted
+     */
+    private void write(UUID uuid, int faster, int slower, Map<Long, Byte> voters) {
+        lectureRepository.addSpeedVotes(uuid, faster, slower);
+        List<UserLectureSpeedTable> changed = new ArrayList<>();
+        voters.forEach((uid, vote) -> {
+            if (vote == NONE) {
+                userLectureSpeedRepository.deleteVote(uid, uuid);
+            } else {
+                changed.add(new UserLectureSpeedTable(uid, uuid,
+                        vote == FASTER ? "faster" : "slower"));
+            }
+        });
+        userLectureSpeedRepository.saveAll(changed);
+    }
+
+    /**
+     * The votes for the speed of a loaded lecture.
+     */
+    private static class LectureSpeed {
+
+        private final UUID uuid;
+
+        private final boolean open;
+
+        /**
+         * Held while voting, so that the lecture can not be evicted
+         *     in the middle of a vote (eviction takes the write lock).
+         */
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private final LongAdder faster = new LongAdder();
+
+        private final LongAdder slower = new LongAdder();
+
+        /**
+         * The votes for faster not written to the database yet.
+         */
+        private final LongAdder pendingFaster = new LongAdder();
+
+        /**
+         * The votes for slower not written to the database yet.
+         */
+        private final LongAdder pendingSlower = new LongAdder();
+
+        /**
+         * The vote of every user that has voted.
+         */
+        private final Map<Long, Byte> votes = new ConcurrentHashMap<>();
+
+        /**
+         * The votes of the users not written to the database yet.
+         */
+        private final Map<Long, Byte> pendingVotes = new ConcurrentHashMap<>();
+
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        /**
+         * Set (under the write lock) once the lecture has been removed from memory.
+         */
+        private boolean evicted;
+
+        /**
+         * Creates the votes of the lecture from the counts in the database.
+         * @param lecture the lecture
+         */
+        private LectureSpeed(LectureEntity lecture) {
+            this.uuid = lecture.getUuid();
+            this.open = lecture.isOpen();
+            this.faster.add(lecture.getFasterCount());
+            this.slower.add(lecture.getSlowerCount());
+        }
+
+        /**
+         * Records the vote of the user, or takes it back if the user has voted the same.
+         *     The votes of one user are changed one at a time.
+         * @param uid the id of the user
+         * @param vote the vote (FASTER or SLOWER)
+         */
+        private void vote(long uid, byte vote) {
+            votes.compute(uid, (id, current) -> {
+                byte previous = current == null ? NONE : current;
+                byte next = previous == vote ? NONE : vote;
+                count(previous, -1);
+                count(next, 1);
+                pendingVotes.put(id, next);
+                return next;
+            });
+        }
+
+        /**
+         * A helper method to add to the counter of the vote.
+         * @param vote the vote
+         * @param delta the number to add
+         */
+        private void count(byte vote, int delta) {
+            if (vote == FASTER) {
+                faster.add(delta);
+                pendingFaster.add(delta);
+            } else if (vote == SLOWER) {
+                slower.add(delta);
+                pendingSlower.add(delta);
+            }
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package nl.tudelft.oopp.livechat.services;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import nl.tudelft.oopp.livechat.entities.LectureSpeedPoint;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+
+/**
+ * The history of the votes for the lecture speed, kept in memory in fixed time buckets.
+ *     Every lecture has a ring buffer with the latest buckets only
+ *     (lecture.speed.history.buckets of lecture.speed.history.bucket ms each),
+ *     so the memory used per lecture does not depend on how long the lecture takes.
+ */
+@Service
+public class LectureSpeedHistory {
+
+    private final long bucketSize;
+
+    private final int capacity;
+
+    /**
+     * The timeline of every lecture with votes in the last capacity buckets.
+     */
+    private final Map<UUID, Timeline> timelines = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the lecture speed history.
+     * @param bucketSize the length of a time bucket (in milliseconds)
+     * @param capacity the number of buckets kept for every lecture
+     */
+    @Autowired
+    public LectureSpeedHistory(@Value("${lecture.speed.history.bucket:60000}") long bucketSize,
+                               @Value("${lecture.speed.history.buckets:240}") int capacity) {
+        this.bucketSize = bucketSize;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Records the votes for the speed of the lecture after a vote (or a reset).
+     * @param uuid the id of the lecture
+     * @param faster the number of votes for faster
+     * @param slower the number of votes for slower
+     */
+    public void record(UUID uuid, int faster, int slower) {
+        record(uuid, faster, slower, System.currentTimeMillis());
+    }
+
+    /**
+     * Records the votes for the speed of the lecture at the specified time.
+     * @param uuid the id of the lecture
+     * @param faster the number of votes for faster
+     * @param slower the number of votes for slower
+     * @param time the time of the vote (in milliseconds since the epoch)
+     */
+    void record(UUID uuid, int faster, int slower, long time) {
+        timelines.computeIfAbsent(uuid, id -> new Timeline())
+                .record(time / bucketSize, faster, slower);
+    }
+
+    /**
+     * Gets the timeline of the votes of the lecture, one point per bucket,
+     *     from the oldest bucket in the window (or the first vote) to the current one.
+     * @param uuid the id of the lecture
+     * @param window the length of the window (in milliseconds),
+     *               limited to the buckets kept for the lecture
+     * @return the timeline, empty if there have been no votes in the kept buckets
+     */
+    public List<LectureSpeedPoint> getTimeline(UUID uuid, long window) {
+        return getTimeline(uuid, window, System.currentTimeMillis());
+    }
+
+    /**
+     * Gets the timeline of the votes of the lecture at the specified time.
+     * @param uuid the id of the lecture
+     * @param window the length of the window (in milliseconds)
+     * @param time the current time (in milliseconds since the epoch)
+     * @return the timeline, empty if there have been no votes in the kept buckets
+     */
+    List<LectureSpeedPoint> getTimeline(UUID uuid, long window, long time) {
+        Timeline timeline = timelines.get(uuid);
+        if (timeline == null) {
+            return new ArrayList<>();
+        }
+        long now = time / bucketSize;
+        long buckets = Math.min(Math.max(window / bucketSize, 1), capacity);
+        return timeline.getPoints(now - buckets + 1, now);
+    }
+
+    /**
+     * Removes the timelines without votes in the kept buckets.
+     */
+    @Scheduled(fixedRateString = "${lecture.speed.history.bucket:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis() / bucketSize;
+        timelines.values().removeIf(timeline -> timeline.isExpired(now));
+    }
+
+    /**
+     * The ring buffer of the buckets of one lecture. Every bucket between the first
+     *     and the last recorded one is filled, the empty ones with the counts
+     *     of the bucket before.
+     */
+    private class Timeline {
+
+        private final long[] buckets = new long[capacity];
+
+        private final int[] faster = new int[capacity];
+
+        private final int[] slower = new int[capacity];
+
+        private final int[] votes = new int[capacity];
+
+        private long first = -1;
+
+        private long last = -1;
+
+        /**
+         * Records the counts in the bucket, filling the buckets since the last one.
+         * @param bucket the index of the bucket
+         * @param faster the number of votes for faster
+         * @param slower the number of votes for slower
+         */
+        private synchronized void record(long bucket, int faster, int slower) {
+            if (bucket < last) {
+                //a late vote of a previous bucket, its counts are in the current one already
+                return;
+            }
+            if (first < 0) {
+                first = bucket;
+            } else {
+                int previous = slot(last);
+                for (long b = Math.max(last + 1, bucket - capacity + 1); b < bucket; b++) {
+                    set(b, this.faster[previous], this.slower[previous], 0);
+                }
+            }
+            int slot = slot(bucket);
+            set(bucket, faster, slower, buckets[slot] == bucket ? votes[slot] + 1 : 1);
+            last = bucket;
+        }
+
+        /**
+         * Gets the points of the buckets between from and to (both inclusive).
+         * @param from the index of the first bucket
+         * @param to the index of the last bucket
+         * @return the points, starting with the first recorded bucket
+         */
+        private synchronized List<LectureSpeedPoint> getPoints(long from, long to) {
+            List<LectureSpeedPoint> points = new ArrayList<>();
+            long start = Math.max(Math.max(from, first), last - capacity + 1);
+            for (long b = start; b <= to; b++) {
+                //the counts have not changed since the last bucket
+                int slot = slot(Math.min(b, last));
+                points.add(new LectureSpeedPoint(b * bucketSize, faster[slot], slower[slot],
+                        b > last ? 0 : votes[slot]));
+            }
+            return points;
+        }
+
+        /**
+         * Checks if the last vote is older than the kept buckets.
+         * @param now the index of the current bucket
+         * @return true if the timeline can be removed, false otherwise
+         */
+        private synchronized boolean isExpired(long now) {
+            return now - last >= capacity;
+        }
+
+        /**
+         * A helper method to fill a bucket.
+         * @param bucket the index of the bucket
+         * @param faster the number of votes for faster
+         * @param slower the number of votes for slower
+         * @param votes the number of votes cast
+         */
+        private void set(long bucket, int faster, int slower, int votes) {
+            int slot = slot(bucket);
+            this.buckets[slot] = bucket;
+            this.faster[slot] = faster;
+            this.slower[slot] = slower;
+            this.votes[slot] = votes;
+        }
+
+        /**
+         * A helper method to get the slot of a bucket in the ring buffer.
+         * @param bucket the index of the bucket
+         * @return the slot
+         */
+        private int slot(long bucket) {
+            return (int) (bucket % capacity);
+        }
+    }
+}
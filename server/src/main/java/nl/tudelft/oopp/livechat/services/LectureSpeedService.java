@@ -1,14 +1,11 @@
 package nl.tudelft.oopp.livechat.services;
 
-import nl.tudelft.oopp.livechat.entities.LectureEntity;
-import nl.tudelft.oopp.livechat.entities.UserLectureSpeedTable;
+import nl.tudelft.oopp.livechat.entities.ActiveUser;
+import nl.tudelft.oopp.livechat.entities.LectureMetadata;
+import nl.tudelft.oopp.livechat.entities.LectureSpeedPoint;
 import nl.tudelft.oopp.livechat.exceptions.*;
-import nl.tudelft.oopp.livechat.repositories.LectureRepository;
-import nl.tudelft.oopp.livechat.repositories.UserLectureSpeedRepository;
-import nl.tudelft.oopp.livechat.repositories.UserRepository;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,52 +14,76 @@ import java.util.UUID;
 public class LectureSpeedService {
 
     /**
-     * The User repository.
+     * The Active user cache.
      */
-    final UserRepository userRepository;
+    final ActiveUserCache activeUserCache;
     /**
-     * The Lecture repository.
+     * The Lecture cache.
      */
-    final LectureRepository lectureRepository;
+    final LectureCache lectureCache;
     /**
-     * The User lecture speed repository.
+     * The Lecture speed aggregator.
      */
-    final UserLectureSpeedRepository userLectureSpeedRepository;
+    final LectureSpeedAggregator speedAggregator;
+    /**
+     * The Lecture speed history.
+     */
+    final LectureSpeedHistory speedHistory;
+    /**
+     * The Lecture stream service.
+     */
+    final LectureStreamService lectureStreamService;
+    /**
+     * The Entity tag service.
+     */
+    final EntityTagService entityTagService;
+
+    /**
+     * The name of the stream event with the votes for the lecture speed.
+     */
+    public static final String SPEED_EVENT = "speed";
 
     /**
      * Instantiates a new Lecture speed service.
-     * @param userRepository the user repository
-     * @param lectureRepository the lecture repository
-     * @param userLectureSpeedRepository the user lecture speed repository
-     */
-    public LectureSpeedService(UserRepository userRepository,
-                               LectureRepository lectureRepository,
-                               UserLectureSpeedRepository userLectureSpeedRepository) {
-        this.userRepository = userRepository;
-        this.lectureRepository = lectureRepository;
-        this.userLectureSpeedRepository = userLectureSpeedRepository;
+     * @param activeUserCache the active user cache
+     * @param lectureCache the lecture cache
+     * @param speedAggregator the lecture speed aggregator
+     * @param speedHistory the lecture speed history
+     * @param lectureStreamService the lecture stream service
+     * @param entityTagService the entity tag service
+     */
+    public LectureSpeedService(ActiveUserCache activeUserCache,
+                               LectureCache lectureCache,
+                               LectureSpeedAggregator speedAggregator,
+                               LectureSpeedHistory speedHistory,
+                               LectureStreamService lectureStreamService,
+                               EntityTagService entityTagService) {
+        this.activeUserCache = activeUserCache;
+        this.lectureCache = lectureCache;
+        this.speedAggregator = speedAggregator;
+        this.speedHistory = speedHistory;
+        this.lectureStreamService = lectureStreamService;
+        this.entityTagService = entityTagService;
     }
 
 
     /**
-     * Gets the votes for the lecture speed.
+     * Gets the votes for the lecture speed (counted in memory).
      * @param uuid the id of the lecture
      * @return the votes for the lecture speed (first number is for faster, second for slower)
      * @throws LectureException when the lecture is not found
      */
     public List<Integer> getVotes(UUID uuid) throws LectureException {
-        LectureEntity lecture = lectureRepository.findLectureEntityByUuid(uuid);
-        if (lecture == null) {
+        List<Integer> numberOfVotes = speedAggregator.getVotes(uuid);
+        if (numberOfVotes == null) {
             throw new LectureNotFoundException();
         }
-        List<Integer> numberOfVotes = new ArrayList<>();
-        numberOfVotes.add(lecture.getFasterCount());
-        numberOfVotes.add(lecture.getSlowerCount());
         return numberOfVotes;
     }
 
     /**
-     * Records a user vote for the lecture speed.
+     * Records a user vote for the lecture speed. The vote is counted in memory
+     *     and written to the database later by the lecture speed aggregator.
      * @param uid the id of the user
      * @param uuid the id of the lecture
      * @param speed the indication of the lecture speed (faster or slower)
@@ -73,20 +94,12 @@ public class LectureSpeedService {
      */
     public int setUserLectureSpeedVote(long uid, UUID uuid, String speed)
             throws LectureException, UserException {
-        LectureEntity lecture = validateRequest(uid, uuid, speed);
-        UserLectureSpeedTable userLectureSpeedTable = userLectureSpeedRepository
-                .findByUserIdAndLectureId(uid, uuid);
-
-        //Check if speed vote count does not exist yet
-        if (userLectureSpeedTable == null) {
-            setVote(uid, uuid, speed, lecture);
-
-            //Check if voting twice for the same thing then delete the vote
-        } else if (userLectureSpeedTable.getVoteOnLectureSpeed().equals(speed)) {
-            removeVote(uid, uuid, lecture, userLectureSpeedTable);
-        } else {
-            toggleVote(uid, uuid, speed, lecture);
+        validateRequest(uid, uuid, speed);
+        //the lecture may have been removed in the meantime
+        if (!speedAggregator.vote(uuid, uid, speed)) {
+            throw new LectureNotFoundException();
         }
+        votesChanged(uuid);
         return 0;
     }
 
@@ -100,101 +113,95 @@ public class LectureSpeedService {
      */
     public int resetLectureSpeed(UUID uuid, UUID modKey)
             throws LectureException, InvalidModkeyException {
-        LectureEntity lecture = lectureRepository.findLectureEntityByUuid(uuid);
+        LectureMetadata lecture = lectureCache.get(uuid);
         if (lecture == null) {
             throw new LectureNotFoundException();
         } else if (!lecture.getModkey().equals(modKey)) {
             throw new InvalidModkeyException();
         }
-        userLectureSpeedRepository.deleteAllByLectureId(uuid);
-        lecture.resetSpeedCounts();
-        lectureRepository.save(lecture);
+        speedAggregator.reset(uuid);
+        votesChanged(uuid);
         return 0;
     }
 
     /**
-     * A helper method too validate the request.
+     * Gets the history of the votes for the lecture speed (done by a moderator).
+     * @param uuid the id of the lecture
+     * @param modKey the moderator key
+     * @param window the length of the history (in milliseconds)
+     * @return the votes in every time bucket of the window, from the oldest to the current one
+     * @throws LectureException when the lecture is not found
+     * @throws InvalidModkeyException when the moderator key is incorrect
+     */
+    public List<LectureSpeedPoint> getHistory(UUID uuid, UUID modKey, long window)
+            throws LectureException, InvalidModkeyException {
+        LectureMetadata lecture = lectureCache.get(uuid);
+        if (lecture == null) {
+            throw new LectureNotFoundException();
+        } else if (!lecture.getModkey().equals(modKey)) {
+            throw new InvalidModkeyException();
+        }
+        return speedHistory.getTimeline(uuid, window);
+    }
+
+    /**
+     * A helper method to record the changed votes for the lecture speed in the history,
+     *     to change the tag of the lecture and to send the votes to the open streams.
+     * @param uuid the id of the lecture
+     */
+    private void votesChanged(UUID uuid) {
+        List<Integer> votes = speedAggregator.getVotes(uuid);
+        if (votes != null) {
+            speedHistory.record(uuid, votes.get(0), votes.get(1));
+        }
+        entityTagService.lectureChanged(uuid);
+        streamVotes(uuid);
+    }
+
+    /**
+     * A helper method to send the votes for the lecture speed to the open streams of the lecture.
+     * @param uuid the id of the lecture
+     */
+    private void streamVotes(UUID uuid) {
+        lectureStreamService.publish(uuid, SPEED_EVENT, () -> speedAggregator.getVotes(uuid));
+    }
+
+    /**
+     * A helper method too validate the request. The lecture is checked in memory,
+     *     the user only the first time the user votes in the lecture.
      * @param uid the id of the user
      * @param uuid the id of the lecture
      * @param speed the indication of the lecture speed
-     * @return the lecture entity object if successful
      * @throws LectureException when the lecture is not found, is closed or the vote
      *          is incorrect (not "faster" or "slower")
      * @throws UserException when the user is not in the lecture
      */
-    private LectureEntity validateRequest(long uid, UUID uuid, String speed)
+    private void validateRequest(long uid, UUID uuid, String speed)
             throws LectureException, UserException {
         //Check if valid speed type
         if (!speed.equals("faster") && !speed.equals("slower")) {
             throw new InvalidVoteException();
         }
         //Check if user exists
-        if (userRepository.getUserEntityByUidAndLectureId(uid, uuid) == null) {
+        if (!speedAggregator.isVoter(uuid, uid) && !isInLecture(uid, uuid)) {
             throw new UserNotInLectureException();
         }
         //Checks if the lecture is open
-        LectureEntity lecture = lectureRepository.findLectureEntityByUuid(uuid);
-        if (lecture == null) {
+        if (!speedAggregator.exists(uuid)) {
             throw new LectureNotFoundException();
-        } else if (!lectureRepository.findLectureEntityByUuid(uuid).isOpen()) {
+        } else if (!speedAggregator.isOpen(uuid)) {
             throw new LectureClosedException();
         }
-        return lecture;
     }
 
     /**
-     * A helper method to set the vote for the lecture.
+     * A helper method to check if the user is in the lecture (in memory).
      * @param uid the id of the user
      * @param uuid the id of the lecture
-     * @param speed the indication of the lecture speed
-     * @param lecture the lecture the user is in
+     * @return true if the user is registered in the lecture, false otherwise
      */
-    private void setVote(long uid, UUID uuid, String speed, LectureEntity lecture) {
-        if (speed.equals("faster")) {
-            lecture.incrementFasterCount();
-        } else {
-            lecture.incrementSlowerCount();
-        }
-        lectureRepository.save(lecture);
-        userLectureSpeedRepository.save(new UserLectureSpeedTable(uid, uuid, speed));
+    private boolean isInLecture(long uid, UUID uuid) {
+        ActiveUser user = activeUserCache.get(uid);
+        return user != null && uuid.equals(user.getLectureId());
     }
-
-    /**
-     * A helper method to remove the vote for the lecture speed.
-     * @param uid the id of the user
-     * @param uuid the id of the lecture
-     * @param lecture the lecture the user is in
-     * @param table UserLectureSpeedTable object for recording the user's votes
-     */
-    private void removeVote(long uid, UUID uuid, LectureEntity lecture,
-                UserLectureSpeedTable table) {
-        userLectureSpeedRepository.deleteByUserIdAndLectureId(uid, uuid);
-        if (table.getVoteOnLectureSpeed().equals("slower")) {
-            lecture.decrementSlowerCount();
-        } else {
-            lecture.decrementFasterCount();
-        }
-        lectureRepository.save(lecture);
-    }
-
-    /**
-     * A helper method to toggle the vote from "faster" to "slower" and vice versa.
-     * @param uid the id of the user
-     * @param uuid the id of the lecture
-     * @param speed the indication of the lecture speed
-     * @param lecture the lecture the user is in
-     */
-    private void toggleVote(long uid, UUID uuid, String speed, LectureEntity lecture) {
-        if (speed.equals("faster")) {
-            lecture.decrementSlowerCount();
-            lecture.incrementFasterCount();
-        } else {
-            lecture.decrementFasterCount();
-            lecture.incrementSlowerCount();
-        }
-        lectureRepository.save(lecture);
-        userLectureSpeedRepository.save(new UserLectureSpeedTable(uid, uuid, speed));
-    }
-
-
 }
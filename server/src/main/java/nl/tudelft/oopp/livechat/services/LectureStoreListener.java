@@ -0,0 +1,90 @@
+package nl.tudelft.oopp.livechat.services;
+
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+import nl.tudelft.oopp.livechat.entities.LectureEntity;
+import org.springframework.beans.factory.ObjectProvider;
+
+
+/**
+ * Removes the questions, the speed votes and the users of a lecture kept in memory
+ *     when the lecture is closed or removed, and its metadata when it is changed,
+ *     once the change is committed.
+ */
+public class LectureStoreListener {
+
+    /**
+     * Looked up lazily, since the question service needs the repositories,
+     *     which are created after the entity listeners.
+     */
+    private final ObjectProvider<QuestionService> questionService;
+
+    private final ObjectProvider<LectureSpeedAggregator> speedAggregator;
+
+    private final ObjectProvider<LectureCache> lectureCache;
+
+    private final ObjectProvider<ActiveUserCache> activeUserCache;
+
+    /**
+     * Creates the listener (done by Hibernate through the Spring bean factory).
+     * @param questionService the provider of the question service
+     * @param speedAggregator the provider of the lecture speed aggregator
+     * @param lectureCache the provider of the lecture cache
+     * @param activeUserCache the provider of the active user cache
+     */
+    public LectureStoreListener(ObjectProvider<QuestionService> questionService,
+                                ObjectProvider<LectureSpeedAggregator> speedAggregator,
+                                ObjectProvider<LectureCache> lectureCache,
+                                ObjectProvider<ActiveUserCache> activeUserCache) {
+        this.questionService = questionService;
+        this.speedAggregator = speedAggregator;
+        this.lectureCache = lectureCache;
+        this.activeUserCache = activeUserCache;
+    }
+
+    /**
+     * Evicts the lecture if it has been closed, writing its speed votes first.
+     *     The speed votes and the metadata of an open lecture are reloaded as well,
+     *     since the lecture may have been opened again.
+     * @param lecture the saved lecture
+     */
+    @PostUpdate
+    public void lectureUpdated(LectureEntity lecture) {
+        if (!lecture.isOpen()) {
+            evict(lecture, true);
+        } else {
+            TransactionHooks.afterCommit(() -> {
+                lectureCache.getObject().invalidate(lecture.getUuid());
+                speedAggregator.getObject().evict(lecture.getUuid());
+            });
+        }
+    }
+
+    /**
+     * Evicts the removed lecture, dropping the speed votes not written yet.
+     * @param lecture the removed lecture
+     */
+    @PostRemove
+    public void lectureRemoved(LectureEntity lecture) {
+        evict(lecture, false);
+    }
+
+    /**
+     * A helper method to evict the lecture after the commit.
+     * @param lecture the closed or removed lecture
+     * @param write true if the pending speed votes should be written, false otherwise
+     */
+    private void evict(LectureEntity lecture, boolean write) {
+        TransactionHooks.afterCommit(() -> {
+            lectureCache.getObject().invalidate(lecture.getUuid());
+            activeUserCache.getObject().evictLecture(lecture.getUuid());
+            questionService.getObject().evictLecture(lecture.getUuid());
+            if (write) {
+                speedAggregator.getObject().evict(lecture.getUuid());
+            } else {
+                speedAggregator.getObject().discard(lecture.getUuid());
+            }
+        });
+    }
+}
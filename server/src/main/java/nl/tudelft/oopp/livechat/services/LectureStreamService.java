@@ -0,0 +1,293 @@
+package nl.tudelft.oopp.livechat.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+
+@Service
+public class LectureStreamService {
+
+    /**
+     * The time after which a stream is closed and the client has to reconnect (30 minutes).
+     */
+    public static final long STREAM_TIMEOUT = 30 * 60 * 1000L;
+
+    /**
+     * The number of events that can wait to be sent to a stream. A client falling further
+     *     behind is disconnected, and gets the whole state again when it reconnects.
+     */
+    public static final int MAX_QUEUED_EVENTS = 64;
+
+    /**
+     * The open streams of every lecture.
+     */
+    private final Map<UUID, LectureStream> lectureStreams = new ConcurrentHashMap<>();
+
+    /**
+     * The number of open streams of all the lectures.
+     */
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * The executor writing the events, so that a slow client never blocks
+     *     the thread changing the lecture.
+     */
+    private final Executor executor;
+
+    private final int maxQueuedEvents;
+
+    /**
+     * Creates the lecture stream service.
+     * @param objectMapper the object mapper used to write the events
+     * @param threads the number of threads writing the events
+     */
+    @Autowired
+    public LectureStreamService(ObjectMapper objectMapper,
+                                @Value("${lecture.stream.threads:4}") int threads) {
+        this(objectMapper, Executors.newFixedThreadPool(threads,
+                new CustomizableThreadFactory("lecture-stream-")), MAX_QUEUED_EVENTS);
+    }
+
+    /**
+     * Creates the lecture stream service writing the events with the given executor.
+     * @param objectMapper the object mapper used to write the events
+     * @param executor the executor writing the events
+     * @param maxQueuedEvents the number of events that can wait to be sent to a stream
+     */
+    LectureStreamService(ObjectMapper objectMapper, Executor executor, int maxQueuedEvents) {
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.maxQueuedEvents = maxQueuedEvents;
+    }
+
+    /**
+     * Opens a new stream of events of the lecture.
+     *     The initial events are sent before any event published afterwards.
+     * @param lid the id of the lecture
+     * @param initialEvents the events describing the current state of the lecture
+     * @return the stream of events of the lecture
+     */
+    public SseEmitter subscribe(UUID lid,
+                                Supplier<List<SseEmitter.SseEventBuilder>> initialEvents) {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT);
+        Subscriber subscriber = new Subscriber(lid, emitter);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> unsubscribe(subscriber));
+        while (true) {
+            LectureStream stream = lectureStreams.computeIfAbsent(lid, id -> new LectureStream());
+            synchronized (stream) {
+                if (stream.closed) {
+                    //the last stream has just been closed, so the lecture needs a new one
+                    continue;
+                }
+                try {
+                    //the emitter is not returned yet, so these events are only buffered
+                    for (SseEmitter.SseEventBuilder event : initialEvents.get()) {
+                        emitter.send(event);
+                    }
+                } catch (IOException e) {
+                    emitter.completeWithError(e);
+                    return emitter;
+                }
+                if (stream.subscribers.add(subscriber)) {
+                    subscriberCount.incrementAndGet();
+                }
+                return emitter;
+            }
+        }
+    }
+
+    /**
+     * Sends an event to all the open streams of the lecture.
+     *     The data is only computed if there is at least one open stream,
+     *     and it is serialized once for all the streams. The event is only queued here,
+     *     it is written to the streams by the executor.
+     * @param lid the id of the lecture
+     * @param name the name of the event
+     * @param data the data of the event, the event is not sent if it is null
+     * @return true if the data has been computed, false if there are no open streams
+     */
+    public boolean publish(UUID lid, String name, Supplier<?> data) {
+        LectureStream stream = lectureStreams.get(lid);
+        if (stream == null) {
+            return false;
+        }
+        List<Subscriber> behind = new ArrayList<>();
+        synchronized (stream) {
+            if (stream.subscribers.isEmpty()) {
+                return false;
+            }
+            Object value = data.get();
+            if (value == null) {
+                return true;
+            }
+            String json;
+            try {
+                json = objectMapper.writeValueAsString(value);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not serialize the " + name + " event", e);
+            }
+            for (Subscriber subscriber : stream.subscribers) {
+                if (!subscriber.offer(SseEmitter.event().name(name).data(json))) {
+                    behind.add(subscriber);
+                }
+            }
+        }
+        for (Subscriber subscriber : behind) {
+            unsubscribe(subscriber);
+            subscriber.emitter.complete();
+        }
+        return true;
+    }
+
+    /**
+     * Gets the number of open streams of the lecture.
+     * @param lid the id of the lecture
+     * @return the number of open streams
+     */
+    public int getSubscriberCount(UUID lid) {
+        LectureStream stream = lectureStreams.get(lid);
+        if (stream == null) {
+            return 0;
+        }
+        synchronized (stream) {
+            return stream.subscribers.size();
+        }
+    }
+
+    /**
+     * Gets the number of open streams of all the lectures.
+     * @return the number of open streams
+     */
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    /**
+     * Stops the threads writing the events.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ExecutorService) {
+            ((ExecutorService) executor).shutdownNow();
+        }
+    }
+
+    /**
+     * A helper method to remove a closed stream,
+     *     removing the lecture as well if it was its last stream.
+     * @param subscriber the closed stream
+     */
+    private void unsubscribe(Subscriber subscriber) {
+        LectureStream stream = lectureStreams.get(subscriber.lid);
+        if (stream == null) {
+            return;
+        }
+        synchronized (stream) {
+            if (stream.subscribers.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+            if (stream.subscribers.isEmpty() && !stream.closed) {
+                stream.closed = true;
+                lectureStreams.remove(subscriber.lid, stream);
+            }
+        }
+    }
+
+    /**
+     * The open streams of one lecture. The object is also used as the lock
+     *     that keeps the events of the lecture in order.
+     */
+    private static class LectureStream {
+
+        private final Set<Subscriber> subscribers = new LinkedHashSet<>();
+
+        /**
+         * Set when the last stream is closed and the lecture is removed from the map.
+         */
+        private boolean closed;
+    }
+
+    /**
+     * One open stream with the events waiting to be written to it.
+     *     At most one thread writes to the stream at a time, so the events stay in order.
+     */
+    private class Subscriber implements Runnable {
+
+        private final UUID lid;
+
+        private final SseEmitter emitter;
+
+        private final Queue<SseEmitter.SseEventBuilder> events = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger queued = new AtomicInteger();
+
+        private final AtomicBoolean writing = new AtomicBoolean();
+
+        private Subscriber(UUID lid, SseEmitter emitter) {
+            this.lid = lid;
+            this.emitter = emitter;
+        }
+
+        /**
+         * Queues the event and makes sure a thread is writing the events.
+         * @param event the event to send
+         * @return false if the stream has too many events waiting already
+         */
+        private boolean offer(SseEmitter.SseEventBuilder event) {
+            if (queued.incrementAndGet() > maxQueuedEvents) {
+                return false;
+            }
+            events.add(event);
+            if (writing.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    //the application is shutting down
+                    writing.set(false);
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void run() {
+            do {
+                SseEmitter.SseEventBuilder event;
+                while ((event = events.poll()) != null) {
+                    queued.decrementAndGet();
+                    try {
+                        emitter.send(event);
+                    } catch (IOException | IllegalStateException e) {
+                        //the client has disconnected
+                        unsubscribe(this);
+                        return;
+                    }
+                }
+                writing.set(false);
+                //an event may have been queued after the queue was found empty
+            } while (!events.isEmpty() && writing.compareAndSet(false, true));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package nl.tudelft.oopp.livechat.services;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+import nl.tudelft.oopp.livechat.entities.LectureEntity;
+
+
+/**
+ * Changes the tag of a lecture whenever the lecture is saved or removed,
+ *     once the change is committed.
+ */
+public class LectureTagListener {
+
+    private final EntityTagService entityTagService;
+
+    /**
+     * Creates the listener (done by Hibernate through the Spring bean factory).
+     * @param entityTagService the entity tag service
+     */
+    public LectureTagListener(EntityTagService entityTagService) {
+        this.entityTagService = entityTagService;
+    }
+
+    /**
+     * Records the change of the lecture.
+     * @param lecture the saved or removed lecture
+     */
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void lectureChanged(LectureEntity lecture) {
+        TransactionHooks.afterCommit(() -> entityTagService.lectureChanged(lecture.getUuid()));
+    }
+}
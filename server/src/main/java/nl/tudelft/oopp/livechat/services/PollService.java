@@ -1,15 +1,14 @@
 package nl.tudelft.oopp.livechat.services;
 
-import nl.tudelft.oopp.livechat.entities.UserEntity;
+import nl.tudelft.oopp.livechat.entities.ActiveUser;
 import nl.tudelft.oopp.livechat.entities.poll.PollAndOptions;
 import nl.tudelft.oopp.livechat.entities.poll.PollEntity;
 import nl.tudelft.oopp.livechat.entities.poll.PollOptionEntity;
-import nl.tudelft.oopp.livechat.entities.poll.UserPollVoteTable;
 import nl.tudelft.oopp.livechat.exceptions.*;
 import nl.tudelft.oopp.livechat.repositories.*;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.List;
 import java.util.UUID;
 
 
@@ -20,32 +19,63 @@ public class PollService {
 
     private final PollRepository pollRepository;
 
-    private final UserPollVoteRepository userPollVoteRepository;
+    private final LectureCache lectureCache;
 
-    private final LectureRepository lectureRepository;
-
-    private final UserRepository userRepository;
+    private final ActiveUserCache activeUserCache;
 
     private final LectureService lectureService;
 
+    private final LectureStreamService lectureStreamService;
+
+    private final EntityTagService entityTagService;
+
+    private final PollVoteCounter pollVoteCounter;
+
+    private final PollTallyService pollTallyService;
+
+    private final CurrentPollCache currentPollCache;
+
+    private final PollViewCache pollViewCache;
+
+    /**
+     * The name of the stream event with the latest poll (as seen by the students).
+     */
+    public static final String POLL_EVENT = "poll";
+
     /**
      * Creates a new PollService object.
      * @param pollOptionRepository the pollOptionRepository
      * @param pollRepository the pollRepository
-     * @param userPollVoteRepository the userPollVoteRepository
-     * @param lectureRepository the lectureRepository
-     * @param userRepository the userRepository
+     * @param lectureService the lectureService
+     * @param lectureCache the lectureCache
+     * @param activeUserCache the activeUserCache
+     * @param lectureStreamService the lectureStreamService
+     * @param entityTagService the entityTagService
+     * @param pollVoteCounter the pollVoteCounter
+     * @param pollTallyService the pollTallyService
+     * @param currentPollCache the currentPollCache
+     * @param pollViewCache the pollViewCache
      */
     public PollService(PollOptionRepository pollOptionRepository, PollRepository pollRepository,
-                       UserPollVoteRepository userPollVoteRepository,
-                       LectureRepository lectureRepository,
-                       UserRepository userRepository) {
+                       LectureService lectureService, LectureCache lectureCache,
+                       ActiveUserCache activeUserCache,
+                       LectureStreamService lectureStreamService,
+                       EntityTagService entityTagService,
+                       PollVoteCounter pollVoteCounter,
+                       PollTallyService pollTallyService,
+                       CurrentPollCache currentPollCache,
+                       PollViewCache pollViewCache) {
         this.pollOptionRepository = pollOptionRepository;
         this.pollRepository = pollRepository;
-        this.userPollVoteRepository = userPollVoteRepository;
-        this.lectureRepository = lectureRepository;
-        this.userRepository = userRepository;
-        this.lectureService = new LectureService(lectureRepository);
+        this.lectureService = lectureService;
+        this.lectureCache = lectureCache;
+        this.activeUserCache = activeUserCache;
+        this.lectureStreamService = lectureStreamService;
+        this.entityTagService = entityTagService;
+        this.pollVoteCounter = pollVoteCounter;
+        this.pollTallyService = pollTallyService;
+        this.currentPollCache = currentPollCache;
+        this.pollViewCache = pollViewCache;
     }
 
     /**
@@ -62,6 +92,8 @@ public class PollService {
         lectureService.validateModerator(lectureId, modkey);
         PollEntity pollEntity = new PollEntity(lectureId, questionText);
         pollRepository.save(pollEntity);
+        streamPoll(lectureId);
+        pollTallyService.pollChanged(pollEntity.getId(), lectureId);
         return pollEntity;
     }
 
@@ -84,6 +116,8 @@ public class PollService {
 
         pollEntity.setOpen(!pollEntity.isOpen());
         pollRepository.save(pollEntity);
+        streamPoll(pollEntity.getLectureId());
+        pollTallyService.pollChanged(pollId, pollEntity.getLectureId());
         return 0;
     }
 
@@ -110,11 +144,14 @@ public class PollService {
         lectureService.validateModerator(pollEntity.getLectureId(), modkey);
         PollOptionEntity pollOptionEntity = new PollOptionEntity(pollId, optionText, 0, isCorrect);
         pollOptionRepository.save(pollOptionEntity);
+        streamPoll(pollEntity.getLectureId());
+        pollTallyService.pollChanged(pollId, pollEntity.getLectureId());
         return pollOptionEntity;
     }
 
     /**
-     * Votes on a poll.
+     * Votes on a poll. The vote is counted in memory
+     *     and written to the database later by the poll vote counter.
      * @param userId the id of the user
      * @param pollOptionId the id of the poll answer option
      * @return 0 if successful
@@ -123,52 +160,25 @@ public class PollService {
      */
     public int voteOnPoll(long userId, long pollOptionId)
             throws UserException, PollException {
-        //Check if user exists
-        UserEntity user = userRepository.getUserEntityByUid(userId);
+        //Check if user exists (in memory)
+        ActiveUser user = activeUserCache.get(userId);
         if (user == null) {
             throw new UserNotRegisteredException();
         }
 
-        //Check if poll option exists
-        PollOptionEntity pollOptionEntity = pollOptionRepository.findById(pollOptionId);
-        if (pollOptionEntity == null) {
-            throw new PollOptionNotFoundException();
-        }
-
-        //Check if the poll exists and is open
-        PollEntity poll = pollRepository.findById(pollOptionEntity.getPollId());
-        if (poll == null) {
-            throw new PollNotFoundException();
-        }
-        if (!poll.isOpen()) {
-            throw new PollNotOpenException();
-        }
-
-        //Check if user is in the lecture
-        if (!user.getLectureId().equals(poll.getLectureId())) {
-            throw new UserNotInLectureException();
-        }
-
-        //Check if user already voted
-        long pollId = poll.getId();
-        List<UserPollVoteTable> listOfUserVotes = userPollVoteRepository.findAllByUserId(userId);
-        for (UserPollVoteTable upvt : listOfUserVotes) {
-            if (upvt.getPollId() == pollId) {
-                throw new PollAlreadyVotedException();
-            }
-        }
-        pollOptionEntity.setVotes(pollOptionEntity.getVotes() + 1);
-        pollOptionRepository.save(pollOptionEntity);
-
-        poll.setVotes(poll.getVotes() + 1);
-        pollRepository.save(poll);
-
-        userPollVoteRepository.save(new UserPollVoteTable(userId, pollOptionId, pollId));
+        //Check the option, the poll and the vote in memory, the vote is written later
+        long pollId = pollVoteCounter.vote(userId, user.getLectureId(), pollOptionId);
+        //the poll is open, so the students see no votes: their view and tag stay the same
+        pollViewCache.invalidateModeratorView(user.getLectureId());
+        pollTallyService.pollChanged(pollId, user.getLectureId());
         return 0;
     }
 
     /**
      * Fetch the latest poll and all its options (without moderator key).
+     *     The votes (of the poll and of its options) and the correct options
+     *     are hidden while the poll is open.
+     *     The returned poll is shared with the other requests and must not be changed.
      * @param lectureId the id of the lecture
      * @return the poll and all its options if successful
      * @throws LectureNotFoundException when the lecture is not found
@@ -177,21 +187,19 @@ public class PollService {
     public PollAndOptions fetchPollAndOptionsStudent(UUID lectureId)
             throws LectureNotFoundException, PollNotFoundException {
         //Check if the lecture exists
-        if (lectureRepository.findLectureEntityByUuid(lectureId) == null) {
+        if (lectureCache.get(lectureId) == null) {
             throw new LectureNotFoundException();
         }
-        PollAndOptions pollAndOptions = fetchPollAndOptionsHelper(lectureId);
-        if (pollAndOptions.getPoll().isOpen()) {
-            for (PollOptionEntity option : pollAndOptions.getOptions()) {
-                option.setCorrect(false);
-                option.setVotes(0);
-            }
+        PollAndOptions pollAndOptions = pollViewCache.getStudentView(lectureId);
+        if (pollAndOptions == null) {
+            throw new PollNotFoundException();
         }
         return pollAndOptions;
     }
 
     /**
      * Fetch the latest poll and all its options (without moderator key).
+     *     The returned poll is shared with the other requests and must not be changed.
      * @param lectureId the id of the lecture
      * @param modkey the moderator key
      * @return the poll and all its options if successful
@@ -202,32 +210,30 @@ public class PollService {
     public PollAndOptions fetchPollAndOptionsLecturer(UUID lectureId, UUID modkey)
             throws LectureException, PollNotFoundException, InvalidModkeyException {
         lectureService.validateModerator(lectureId, modkey);
-        return fetchPollAndOptionsHelper(lectureId);
-
+        PollAndOptions pollAndOptions = pollViewCache.getModeratorView(lectureId);
+        if (pollAndOptions == null) {
+            throw new PollNotFoundException();
+        }
+        return pollAndOptions;
     }
 
     /**
-     * A helper method for fetching the latest poll and its options.
+     * Opens a stream of the votes on the polls of the lecture for the moderator.
+     *     The stream starts with the votes on the latest poll, and then sends them
+     *     (at most once per tally interval) every time they change.
      * @param lectureId the id of the lecture
-     * @return the poll and all its options if successful
-     * @throws PollNotFoundException when the poll is not found
+     * @param modkey the moderator key
+     * @return the stream of the votes
+     * @throws LectureException when the lecture is not found
+     * @throws InvalidModkeyException when the moderator key is incorrect
      */
-    private PollAndOptions fetchPollAndOptionsHelper(UUID lectureId)
-            throws PollNotFoundException {
-        //Find the latest poll in the lecture and check if it exists
-        List<PollEntity> polls = pollRepository.findAllByLectureIdOrderByTimeDesc(lectureId);
-        if (polls.size() == 0) {
-            throw new PollNotFoundException();
-        }
-
-        //Find all the options of the latest poll
-        PollEntity pollEntity = polls.get(0);
-        List<PollOptionEntity> pollOptions = pollOptionRepository
-                .findAllByPollId(pollEntity.getId());
-        return new PollAndOptions(pollEntity, pollOptions);
+    public SseEmitter openTallyStream(UUID lectureId, UUID modkey)
+            throws LectureException, InvalidModkeyException {
+        lectureService.validateModerator(lectureId, modkey);
+        PollEntity poll = currentPollCache.getCurrentPoll(lectureId);
+        return pollTallyService.subscribe(lectureId, poll == null ? null : poll.getId());
     }
 
-
     /**
      * Reset votes for a poll.
      * @param pollId the id of the poll
@@ -245,15 +251,30 @@ public class PollService {
         }
         lectureService.validateModerator(pollEntity.getLectureId(), modkey);
 
-        for (PollOptionEntity option : pollOptionRepository.findAllByPollId(pollId)) {
-            userPollVoteRepository.deleteAllByOptionId(option.getId());
-            option.setVotes(0);
-            pollOptionRepository.save(option);
-        }
-        pollEntity.setVotes(0);
-        pollRepository.save(pollEntity);
+        pollVoteCounter.reset(pollId);
+        pollViewCache.invalidate(pollEntity.getLectureId());
+        streamPoll(pollEntity.getLectureId());
+        pollTallyService.pollChanged(pollId, pollEntity.getLectureId());
         return 0;
     }
+
+    /**
+     * A helper method to change the tag of the polls of the lecture and to send
+     *     the latest poll (as seen by the students) to the open streams of the lecture.
+     *     The votes are not streamed while the poll is open,
+     *     since the students can not see them anyway.
+     * @param lectureId the id of the lecture
+     */
+    private void streamPoll(UUID lectureId) {
+        entityTagService.pollChanged(lectureId);
+        lectureStreamService.publish(lectureId, POLL_EVENT, () -> {
+            try {
+                return fetchPollAndOptionsStudent(lectureId);
+            } catch (LectureNotFoundException | PollNotFoundException e) {
+                return null;
+            }
+        });
+    }
 }
 
 
@@ -0,0 +1,118 @@
+package nl.tudelft.oopp.livechat.services;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+import nl.tudelft.oopp.livechat.entities.poll.PollEntity;
+import nl.tudelft.oopp.livechat.entities.poll.PollOptionEntity;
+import org.springframework.beans.factory.ObjectProvider;
+
+
+/**
+ * Unloads the votes of a poll counted in memory and drops the views of the poll
+ *     when the poll or one of its options is saved or removed, and keeps the latest poll
+ *     of every lecture up to date when a poll is created or removed,
+ *     once the change is committed.
+ */
+public class PollStoreListener {
+
+    /**
+     * Looked up lazily, since the poll vote counter needs the repositories,
+     *     which are created after the entity listeners.
+     */
+    private final ObjectProvider<PollVoteCounter> pollVoteCounter;
+
+    private final ObjectProvider<CurrentPollCache> currentPollCache;
+
+    private final ObjectProvider<PollViewCache> pollViewCache;
+
+    /**
+     * Creates the listener (done by Hibernate through the Spring bean factory).
+     * @param pollVoteCounter the provider of the poll vote counter
+     * @param currentPollCache the provider of the current poll cache
+     * @param pollViewCache the provider of the poll view cache
+     */
+    public PollStoreListener(ObjectProvider<PollVoteCounter> pollVoteCounter,
+                             ObjectProvider<CurrentPollCache> currentPollCache,
+                             ObjectProvider<PollViewCache> pollViewCache) {
+        this.pollVoteCounter = pollVoteCounter;
+        this.currentPollCache = currentPollCache;
+        this.pollViewCache = pollViewCache;
+    }
+
+    /**
+     * Points the lecture to the created poll,
+     *     or unloads the poll of the created option.
+     * @param entity the created poll or option
+     */
+    @PostPersist
+    public void pollCreated(Object entity) {
+        if (!(entity instanceof PollEntity)) {
+            pollSaved(entity);
+            return;
+        }
+        PollEntity poll = (PollEntity) entity;
+        TransactionHooks.afterCommit(() -> {
+            currentPollCache.getObject().pollCreated(poll);
+            pollViewCache.getObject().invalidate(poll.getLectureId());
+        });
+    }
+
+    /**
+     * Unloads the poll of the saved poll or option (it may have been opened or closed,
+     *     or an option may have been added).
+     * @param entity the saved poll or option
+     */
+    @PostUpdate
+    public void pollSaved(Object entity) {
+        long pollId = getPollId(entity);
+        TransactionHooks.afterCommit(() -> {
+            pollVoteCounter.getObject().evict(pollId);
+            invalidateViews(entity);
+        });
+    }
+
+    /**
+     * Unloads the poll of the removed poll or option, dropping the votes not written yet.
+     *     The latest poll of the lecture of a removed poll is looked up again.
+     * @param entity the removed poll or option
+     */
+    @PostRemove
+    public void pollRemoved(Object entity) {
+        long pollId = getPollId(entity);
+        TransactionHooks.afterCommit(() -> {
+            pollVoteCounter.getObject().discard(pollId);
+            if (entity instanceof PollEntity) {
+                currentPollCache.getObject().evict(((PollEntity) entity).getLectureId());
+            }
+            invalidateViews(entity);
+        });
+    }
+
+    /**
+     * A helper method to drop the views of the poll of the entity.
+     * @param entity the poll or the option
+     */
+    private void invalidateViews(Object entity) {
+        if (entity instanceof PollEntity) {
+            pollViewCache.getObject().invalidate(((PollEntity) entity).getLectureId());
+        } else {
+            pollViewCache.getObject().invalidatePoll(getPollId(entity));
+        }
+    }
+
+    /**
+     * A helper method to get the id of the poll of the entity.
+     *     JPA allows only one method per callback in a listener,
+     *     so the same methods are used for the polls and the options.
+     * @param entity the poll or the option
+     * @return the id of the poll
+     */
+    private static long getPollId(Object entity) {
+        if (entity instanceof PollOptionEntity) {
+            return ((PollOptionEntity) entity).getPollId();
+        }
+        return ((PollEntity) entity).getId();
+    }
+}
@@ -0,0 +1,117 @@
+package nl.tudelft.oopp.livechat.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import javax.annotation.PreDestroy;
+
+import nl.tudelft.oopp.livechat.entities.poll.PollTally;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+
+/**
+ * The live votes on the polls, streamed to the moderators of the lecture.
+ *     The votes of a poll are sent at most once per tally interval (poll.tally.interval),
+ *     however many votes are cast in the meantime, and only if they have changed.
+ */
+@Service
+public class PollTallyService {
+
+    /**
+     * The name of the stream event with the votes on a poll and on each of its options.
+     */
+    public static final String TALLY_EVENT = "tally";
+
+    private final PollVoteCounter pollVoteCounter;
+
+    /**
+     * The open moderator streams, kept apart from the lecture streams of the students,
+     *     since the votes on an open poll are only shown to the moderators.
+     */
+    private final LectureStreamService tallyStreams;
+
+    /**
+     * The lecture of every poll changed since the last tallies were sent.
+     */
+    private final Map<Long, UUID> changedPolls = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the poll tally service.
+     * @param pollVoteCounter the poll vote counter
+     * @param objectMapper the object mapper used to write the events
+     * @param threads the number of threads writing the events
+     */
+    @Autowired
+    public PollTallyService(PollVoteCounter pollVoteCounter, ObjectMapper objectMapper,
+                            @Value("${poll.tally.threads:2}") int threads) {
+        this.pollVoteCounter = pollVoteCounter;
+        this.tallyStreams = new LectureStreamService(objectMapper,
+                Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("poll-tally-")),
+                LectureStreamService.MAX_QUEUED_EVENTS);
+    }
+
+    /**
+     * Opens a new stream of the votes on the polls of the lecture.
+     *     The stream starts with the votes on the given poll (if any).
+     * @param lectureId the id of the lecture
+     * @param pollId the id of the latest poll of the lecture, null if there is no poll
+     * @return the stream of the votes
+     */
+    public SseEmitter subscribe(UUID lectureId, Long pollId) {
+        return tallyStreams.subscribe(lectureId, () -> {
+            List<SseEmitter.SseEventBuilder> events = new ArrayList<>();
+            PollTally tally = pollId == null ? null : pollVoteCounter.getTally(pollId);
+            if (tally != null) {
+                events.add(SseEmitter.event().name(TALLY_EVENT).data(tally));
+            }
+            return events;
+        });
+    }
+
+    /**
+     * Marks the votes on the poll as changed, they are sent with the next tallies.
+     * @param pollId the id of the poll
+     * @param lectureId the id of the lecture of the poll
+     */
+    public void pollChanged(long pollId, UUID lectureId) {
+        changedPolls.put(pollId, lectureId);
+    }
+
+    /**
+     * Gets the number of open streams of the votes of the lecture.
+     * @param lectureId the id of the lecture
+     * @return the number of open streams
+     */
+    public int getSubscriberCount(UUID lectureId) {
+        return tallyStreams.getSubscriberCount(lectureId);
+    }
+
+    /**
+     * Sends the votes on every poll changed since the last time to the streams
+     *     of its lecture. The votes are only counted if a moderator is listening.
+     */
+    @Scheduled(fixedDelayString = "${poll.tally.interval:500}")
+    public void publishTallies() {
+        for (Long pollId : new ArrayList<>(changedPolls.keySet())) {
+            UUID lectureId = changedPolls.remove(pollId);
+            if (lectureId != null) {
+                tallyStreams.publish(lectureId, TALLY_EVENT, () -> pollVoteCounter
+                        .getTally(pollId));
+            }
+        }
+    }
+
+    /**
+     * Stops the threads writing the votes.
+     */
+    @PreDestroy
+    public void shutdown() {
+        tallyStreams.shutdown();
+    }
+}
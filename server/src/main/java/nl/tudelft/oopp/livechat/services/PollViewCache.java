@@ -0,0 +1,196 @@
+package nl.tudelft.oopp.livechat.services;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import nl.tudelft.oopp.livechat.entities.poll.PollAndOptions;
+import nl.tudelft.oopp.livechat.entities.poll.PollEntity;
+import nl.tudelft.oopp.livechat.entities.poll.PollOptionEntity;
+import nl.tudelft.oopp.livechat.entities.poll.PollTally;
+import nl.tudelft.oopp.livechat.repositories.PollOptionRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+
+/**
+ * The latest poll of every lecture as seen by the students and by the moderators,
+ *     built once per version of the poll and shared by all the requests until it changes.
+ *     The views are detached copies of the poll and its options with unmodifiable lists,
+ *     they are never changed after they are built (a change builds new views).
+ *     The views of a lecture are dropped when its poll is reset (by the poll service)
+ *     or when a poll or an option is saved or removed (see PollStoreListener).
+ *     Since the students see no votes while the poll is open (and the poll can only be
+ *     voted on while open), a vote only drops the view of the moderators.
+ */
+@Service
+public class PollViewCache {
+
+    private final CurrentPollCache currentPollCache;
+
+    private final PollOptionRepository pollOptionRepository;
+
+    private final PollVoteCounter pollVoteCounter;
+
+    /**
+     * The views of the latest poll of every lecture asked for since its last change.
+     */
+    private final Map<UUID, PollViews> views = new ConcurrentHashMap<>();
+
+    /**
+     * The lecture of every poll with views, to find the views to drop
+     *     when an option of the poll changes.
+     */
+    private final Map<Long, UUID> pollLectures = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the poll view cache.
+     * @param currentPollCache the cache of the latest poll of every lecture
+     * @param pollOptionRepository poll option repository
+     * @param pollVoteCounter the counter of the votes on the polls
+     */
+    public PollViewCache(CurrentPollCache currentPollCache,
+                         PollOptionRepository pollOptionRepository,
+                         PollVoteCounter pollVoteCounter) {
+        this.currentPollCache = currentPollCache;
+        this.pollOptionRepository = pollOptionRepository;
+        this.pollVoteCounter = pollVoteCounter;
+    }
+
+    /**
+     * Gets the latest poll of the lecture as seen by the students:
+     *     the votes and the correct options are hidden while the poll is open.
+     * @param lectureId the id of the lecture
+     * @return the poll and its options, null if the lecture has no polls
+     */
+    public PollAndOptions getStudentView(UUID lectureId) {
+        return getViews(lectureId).student;
+    }
+
+    /**
+     * Gets the latest poll of the lecture as seen by the moderators, with all the votes.
+     * @param lectureId the id of the lecture
+     * @return the poll and its options, null if the lecture has no polls
+     */
+    public PollAndOptions getModeratorView(UUID lectureId) {
+        PollViews pollViews = getViews(lectureId);
+        if (pollViews.student != null && pollViews.moderator == null) {
+            //only the view of the moderators has been dropped, the students keep theirs
+            pollViews = views.compute(lectureId, (id, current) -> current == null
+                    || current.moderator == null ? build(id, current) : current);
+        }
+        return pollViews.moderator;
+    }
+
+    /**
+     * Drops the views of the lecture, they are built again the next time they are needed.
+     *     Must be called after the change of the poll.
+     * @param lectureId the id of the lecture
+     */
+    public void invalidate(UUID lectureId) {
+        views.remove(lectureId);
+    }
+
+    /**
+     * Drops the view of the moderators of the lecture, after a vote on its open poll.
+     *     The view of the students is kept, since it shows no votes.
+     * @param lectureId the id of the lecture
+     */
+    public void invalidateModeratorView(UUID lectureId) {
+        views.computeIfPresent(lectureId, (id, current) -> current.student == null
+                ? current : new PollViews(current.student, null));
+    }
+
+    /**
+     * Drops the views of the lecture of the poll, if there are any.
+     *     Must be called after the change of the poll.
+     * @param pollId the id of the poll
+     */
+    public void invalidatePoll(long pollId) {
+        UUID lectureId = pollLectures.get(pollId);
+        if (lectureId != null) {
+            invalidate(lectureId);
+        }
+    }
+
+    /**
+     * Drops the views that have not been asked for longer than
+     *     the idle timeout of the question store.
+     */
+    @Scheduled(fixedRate = QuestionStore.IDLE_TIMEOUT / 4)
+    public void evictIdleViews() {
+        long now = System.currentTimeMillis();
+        for (UUID lectureId : new ArrayList<>(views.keySet())) {
+            views.computeIfPresent(lectureId, (id, pollViews) -> {
+                if (now - pollViews.lastUsed <= QuestionStore.IDLE_TIMEOUT) {
+                    return pollViews;
+                }
+                pollLectures.values().removeIf(id::equals);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * A helper method to get the views of the lecture, building them if needed.
+     * @param lectureId the id of the lecture
+     * @return the views of the latest poll of the lecture
+     */
+    private PollViews getViews(UUID lectureId) {
+        PollViews pollViews = views.computeIfAbsent(lectureId, id -> build(id, null));
+        pollViews.lastUsed = System.currentTimeMillis();
+        return pollViews;
+    }
+
+    /**
+     * A helper method to build the views of the latest poll of the lecture.
+     *     The votes counted in memory are looked up before the options are read,
+     *     so that votes written in the meantime are never missed.
+     * @param lectureId the id of the lecture
+     * @param kept the views whose view of the students is still valid, null if none
+     * @return the views of the poll (empty if the lecture has no polls)
+     */
+    private PollViews build(UUID lectureId, PollViews kept) {
+        PollEntity poll = currentPollCache.getCurrentPoll(lectureId);
+        if (poll == null) {
+            return new PollViews(null, null);
+        }
+        pollLectures.put(poll.getId(), lectureId);
+        final PollTally tally = pollVoteCounter.peekTally(poll.getId());
+        List<PollOptionEntity> options = pollOptionRepository.findAllByPollId(poll.getId());
+
+        PollEntity moderatorPoll = new PollEntity(poll, tally == null
+                ? poll.getVotes() : tally.getVotes());
+        List<PollOptionEntity> moderatorOptions = new ArrayList<>();
+        List<PollOptionEntity> studentOptions = new ArrayList<>();
+        for (PollOptionEntity option : options) {
+            Long votes = tally == null ? null : tally.getOptionVotes().get(option.getId());
+            PollOptionEntity moderatorOption = new PollOptionEntity(option,
+                    votes == null ? option.getVotes() : votes, option.isCorrect());
+            moderatorOptions.add(moderatorOption);
+            studentOptions.add(poll.isOpen()
+                    ? new PollOptionEntity(option, 0, false) : moderatorOption);
+        }
+        PollAndOptions student = kept != null && kept.student != null ? kept.student
+                : new PollAndOptions(poll.isOpen() ? new PollEntity(poll, 0) : moderatorPoll,
+                        Collections.unmodifiableList(studentOptions));
+        return new PollViews(student,
+                new PollAndOptions(moderatorPoll, Collections.unmodifiableList(moderatorOptions)));
+    }
+
+    /**
+     * The views of the latest poll of a lecture.
+     */
+    private static class PollViews {
+
+        private final PollAndOptions student;
+
+        private final PollAndOptions moderator;
+
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        private PollViews(PollAndOptions student, PollAndOptions moderator) {
+            this.student = student;
+            this.moderator = moderator;
+        }
+    }
+}
@@ -0,0 +1,427 @@
+package nl.tudelft.oopp.livechat.services;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import javax.annotation.PreDestroy;
+
+import nl.tudelft.oopp.livechat.entities.poll.PollEntity;
+import nl.tudelft.oopp.livechat.entities.poll.PollOptionEntity;
+import nl.tudelft.oopp.livechat.entities.poll.PollTally;
+import nl.tudelft.oopp.livechat.entities.poll.UserPollVoteTable;
+import nl.tudelft.oopp.livechat.exceptions.*;
+import nl.tudelft.oopp.livechat.repositories.PollOptionRepository;
+import nl.tudelft.oopp.livechat.repositories.PollRepository;
+import nl.tudelft.oopp.livechat.repositories.UserPollVoteRepository;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+
+/**
+ * The votes on the polls, counted in memory and written to the database in batches
+ *     (write-behind). A poll is loaded the first time it is voted on, with its options
+ *     and the users that have voted; a vote then only checks and changes memory.
+ *     The database is updated every flush interval (poll.votes.flush-interval).
+ *     A poll saved or removed through the repositories is unloaded (see PollStoreListener).
+ */
+@Service
+public class PollVoteCounter {
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    private final PollRepository pollRepository;
+
+    private final PollOptionRepository pollOptionRepository;
+
+    private final UserPollVoteRepository userPollVoteRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * The votes of every loaded poll.
+     */
+    private final Map<Long, PollVotes> polls = new ConcurrentHashMap<>();
+
+    /**
+     * The id of the poll of every option of the loaded polls.
+     */
+    private final Map<Long, Long> optionPolls = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the poll vote counter.
+     * @param pollRepository poll repository
+     * @param pollOptionRepository poll option repository
+     * @param userPollVoteRepository user poll vote repository
+     * @param transactionManager the transaction manager running each flush in one transaction
+     */
+    public PollVoteCounter(PollRepository pollRepository,
+                           PollOptionRepository pollOptionRepository,
+                           UserPollVoteRepository userPollVoteRepository,
+                           PlatformTransactionManager transactionManager) {
+        this.pollRepository = pollRepository;
+        this.pollOptionRepository = pollOptionRepository;
+        this.userPollVoteRepository = userPollVoteRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        //a new transaction, since a flush can be triggered after another one has been committed
+        this.transactionTemplate.setPropagationBehavior(
+                TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Votes on the option for the user.
+     * @param userId the id of the user
+     * @param lectureId the id of the lecture the user is in
+     * @param optionId the id of the option
+     * @return the id of the poll voted on
+     * @throws UserException when the user is not in the lecture of the poll
+     * @throws PollException when the option or the poll is not found, the poll is closed
+     *          or the user has already voted on the poll
+     */
+    public long vote(long userId, UUID lectureId, long optionId)
+            throws UserException, PollException {
+        while (true) {
+            Long pollId = optionPolls.get(optionId);
+            if (pollId == null) {
+                PollOptionEntity option = pollOptionRepository.findById(optionId);
+                if (option == null) {
+                    throw new PollOptionNotFoundException();
+                }
+                pollId = option.getPollId();
+            }
+            PollVotes poll = load(pollId);
+            if (poll == null) {
+                throw new PollNotFoundException();
+            }
+            poll.lock.readLock().lock();
+            try {
+                //an unloaded poll is loaded again, with the votes it has written
+                if (!poll.evicted) {
+                    poll.vote(userId, lectureId, optionId);
+                    return poll.id;
+                }
+            } finally {
+                poll.lock.readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Gets the current votes on the poll and on each of its options (and if the poll is open),
+     *     loading the poll if needed.
+     * @param pollId the id of the poll
+     * @return the votes on the poll, null if the poll does not exist
+     */
+    public PollTally getTally(long pollId) {
+        while (true) {
+            PollVotes poll = load(pollId);
+            if (poll == null) {
+                return null;
+            }
+            PollTally tally = tally(poll);
+            if (tally != null) {
+                return tally;
+            }
+        }
+    }
+
+    /**
+     * Gets the votes on the poll counted in memory, without loading the poll.
+     * @param pollId the id of the poll
+     * @return the votes on the poll, null if the poll is not loaded
+     *          (its votes in the database are up to date then)
+     */
+    public PollTally peekTally(long pollId) {
+        PollVotes poll = polls.get(pollId);
+        return poll == null ? null : tally(poll);
+    }
+
+    /**
+     * Removes all the votes on the poll, in memory and in the database.
+     * @param pollId the id of the poll
+     */
+    public synchronized void reset(long pollId) {
+        polls.compute(pollId, (id, poll) -> {
+            if (poll != null) {
+                markEvicted(poll);
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                userPollVoteRepository.deleteAllByPollId(pollId);
+                pollOptionRepository.resetVotes(pollId);
+                pollRepository.resetVotes(pollId);
+            });
+            return null;
+        });
+    }
+
+    /**
+     * Writes the votes on the poll to the database and removes them from memory,
+     *     they are loaded again the next time the poll is voted on.
+     * @param pollId the id of the poll
+     */
+    public synchronized void evict(long pollId) {
+        polls.computeIfPresent(pollId, (id, poll) -> writeAndEvict(poll));
+    }
+
+    /**
+     * Removes the votes on the poll from memory without writing them
+     *     (used when the poll or one of its options has been removed).
+     * @param pollId the id of the poll
+     */
+    public synchronized void discard(long pollId) {
+        polls.computeIfPresent(pollId, (id, poll) -> markEvicted(poll));
+    }
+
+    /**
+     * Writes the pending votes on every poll to the database,
+     *     one transaction per poll. If a transaction fails, the failure is logged,
+     *     the votes are kept for the next flush and the other polls are still written.
+     */
+    @Scheduled(fixedDelayString = "${poll.votes.flush-interval:1000}")
+    @PreDestroy
+    public synchronized void flush() {
+        for (PollVotes poll : polls.values()) {
+            //a poll that can not be written must not hold up the others
+            try {
+                flushPoll(poll);
+            } catch (RuntimeException e) {
+                logger.warn("Votes of the poll " + poll.id
+                        + " not written, kept for the next flush", e);
+            }
+        }
+    }
+
+    /**
+     * Removes the polls that have not been voted on for longer than
+     *     the idle timeout of the question store from memory, writing them first.
+     */
+    @Scheduled(fixedRate = QuestionStore.IDLE_TIMEOUT / 4)
+    public synchronized void evictIdlePolls() {
+        long now = System.currentTimeMillis();
+        for (Long pollId : new ArrayList<>(polls.keySet())) {
+            polls.computeIfPresent(pollId, (id, poll) -> now - poll.lastUsed
+                    <= QuestionStore.IDLE_TIMEOUT ? poll : writeAndEvict(poll));
+        }
+    }
+
+    /**
+     * A helper method to get the votes on the poll, loading them if needed.
+     * @param pollId the id of the poll
+     * @return the votes on the poll, null if the poll does not exist
+     */
+    private PollVotes load(long pollId) {
+        PollVotes poll = polls.computeIfAbsent(pollId, id -> {
+            PollEntity entity = pollRepository.findById((long) id);
+            if (entity == null) {
+                return null;
+            }
+            PollVotes loaded = new PollVotes(entity);
+            for (PollOptionEntity option : pollOptionRepository.findAllByPollId(id)) {
+                LongAdder votes = new LongAdder();
+                votes.add(option.getVotes());
+                loaded.optionVotes.put(option.getId(), votes);
+                loaded.pendingOptionVotes.put(option.getId(), new LongAdder());
+                optionPolls.put(option.getId(), id);
+            }
+            for (UserPollVoteTable vote : userPollVoteRepository.findAllByPollId(id)) {
+                loaded.voters.add(vote.getUserId());
+            }
+            return loaded;
+        });
+        if (poll != null) {
+            poll.lastUsed = System.currentTimeMillis();
+        }
+        return poll;
+    }
+
+    /**
+     * A helper method to count the votes on the loaded poll.
+     * @param poll the poll
+     * @return the votes on the poll, null if the poll has been unloaded in the meantime
+     */
+    private PollTally tally(PollVotes poll) {
+        poll.lock.readLock().lock();
+        try {
+            if (poll.evicted) {
+                return null;
+            }
+            Map<Long, Long> optionVotes = new HashMap<>();
+            poll.optionVotes.forEach((optionId, votes) -> optionVotes.put(optionId, votes.sum()));
+            return new PollTally(poll.id, poll.open, poll.votes.sum(), optionVotes);
+        } finally {
+            poll.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * A helper method to mark the poll as unloaded, waiting for the votes being recorded.
+     * @param poll the poll
+     * @return null (to remove the poll from the map)
+     */
+    private PollVotes markEvicted(PollVotes poll) {
+        poll.lock.writeLock().lock();
+        poll.evicted = true;
+        poll.lock.writeLock().unlock();
+        return removeOptions(poll);
+    }
+
+    /**
+     * A helper method to write the votes on the poll and to mark it as unloaded.
+     * @param poll the poll
+     * @return null (to remove the poll from the map)
+     */
+    private PollVotes writeAndEvict(PollVotes poll) {
+        poll.lock.writeLock().lock();
+        try {
+            flushPoll(poll);
+            poll.evicted = true;
+        } finally {
+            poll.lock.writeLock().unlock();
+        }
+        return removeOptions(poll);
+    }
+
+    /**
+     * A helper method to forget the options of an unloaded poll.
+     * @param poll the poll
+     * @return null (to remove the poll from the map)
+     */
+    private PollVotes removeOptions(PollVotes poll) {
+        poll.optionVotes.keySet().forEach(optionId -> optionPolls.remove(optionId, poll.id));
+        return null;
+    }
+
+    /**
+     * A helper method to write the pending votes on the poll in one transaction.
+     * @param poll the poll
+     */
+    private void flushPoll(PollVotes poll) {
+        Map<Long, Long> optionVotes = new HashMap<>();
+        poll.pendingOptionVotes.forEach((optionId, pending) -> {
+            long delta = pending.sumThenReset();
+            if (delta != 0) {
+                optionVotes.put(optionId, delta);
+            }
+        });
+        long votes = poll.pendingVotes.sumThenReset();
+        List<UserPollVoteTable> voters = new ArrayList<>();
+        for (UserPollVoteTable voter = poll.pendingVoters.poll(); voter != null;
+                voter = poll.pendingVoters.poll()) {
+            voters.add(voter);
+        }
+        if (optionVotes.isEmpty() && votes == 0 && voters.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                optionVotes.forEach(pollOptionRepository::addVotes);
+                pollRepository.addVotes(poll.id, votes);
+                userPollVoteRepository.saveAll(voters);
+            });
+        } catch (RuntimeException e) {
+            optionVotes.forEach((optionId, delta) -> poll.pendingOptionVotes.get(optionId)
+                    .add(delta));
+            poll.pendingVotes.add(votes);
+            poll.pendingVoters.addAll(voters);
+            throw e;
+        }
+    }
+
+    /**
+     * The votes on a loaded poll.
+     */
+    private static class PollVotes {
+
+        private final long id;
+
+        private final UUID lectureId;
+
+        private final boolean open;
+
+        /**
+         * Held while voting, so that the poll can not be unloaded
+         *     in the middle of a vote (unloading takes the write lock).
+         */
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private final LongAdder votes = new LongAdder();
+
+        private final LongAdder pendingVotes = new LongAdder();
+
+        /**
+         * The votes on every option of the poll.
+         */
+        private final Map<Long, LongAdder> optionVotes = new HashMap<>();
+
+        /**
+         * The votes on every option of the poll not written to the database yet.
+         */
+        private final Map<Long, LongAdder> pendingOptionVotes = new HashMap<>();
+
+        /**
+         * The users that have voted on the poll.
+         */
+        private final Set<Long> voters = ConcurrentHashMap.newKeySet();
+
+        /**
+         * The votes of the users not written to the database yet.
+         */
+        private final Queue<UserPollVoteTable> pendingVoters = new ConcurrentLinkedQueue<>();
+
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        /**
+         * Set (under the write lock) once the poll has been removed from memory.
+         */
+        private boolean evicted;
+
+        /**
+         * Creates the votes on the poll from the counts in the database.
+         * @param poll the poll
+         */
+        private PollVotes(PollEntity poll) {
+            this.id = poll.getId();
+            this.lectureId = poll.getLectureId();
+            this.open = poll.isOpen();
+            this.votes.add(poll.getVotes());
+        }
+
+        /**
+         * Records the vote of the user on the option.
+         * @param userId the id of the user
+         * @param lectureId the id of the lecture the user is in
+         * @param optionId the id of the option
+         * @throws UserException when the user is not in the lecture of the poll
+         * @throws PollException when the option is not an option of the poll,
+         *          the poll is closed or the user has already voted on the poll
+         */
+        private void vote(long userId, UUID lectureId, long optionId)
+                throws UserException, PollException {
+            LongAdder option = optionVotes.get(optionId);
+            if (option == null) {
+                throw new PollOptionNotFoundException();
+            }
+            if (!open) {
+                throw new PollNotOpenException();
+            }
+            if (!this.lectureId.equals(lectureId)) {
+                throw new UserNotInLectureException();
+            }
+            if (!voters.add(userId)) {
+                throw new PollAlreadyVotedException();
+            }
+            option.increment();
+            pendingOptionVotes.get(optionId).increment();
+            votes.increment();
+            pendingVotes.increment();
+            pendingVoters.add(new UserPollVoteTable(userId, optionId, id));
+        }
+    }
+}
@@ -1,21 +1,37 @@
 package nl.tudelft.oopp.livechat.services;
 
 import java.sql.Timestamp;
-import java.time.OffsetDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 
-import nl.tudelft.oopp.livechat.entities.LectureEntity;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import nl.tudelft.oopp.livechat.entities.ActiveUser;
+import nl.tudelft.oopp.livechat.entities.LectureMetadata;
+import nl.tudelft.oopp.livechat.entities.QuestionChanges;
 import nl.tudelft.oopp.livechat.entities.QuestionEntity;
-import nl.tudelft.oopp.livechat.entities.UserEntity;
-import nl.tudelft.oopp.livechat.entities.UserQuestionTable;
 import nl.tudelft.oopp.livechat.exceptions.*;
-import nl.tudelft.oopp.livechat.repositories.LectureRepository;
 import nl.tudelft.oopp.livechat.repositories.QuestionRepository;
 import nl.tudelft.oopp.livechat.repositories.UserQuestionRepository;
 import nl.tudelft.oopp.livechat.repositories.UserRepository;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 
 @Service
@@ -23,41 +39,153 @@ public class QuestionService {
 
     private final QuestionRepository questionRepository;
 
-    private final LectureRepository lectureRepository;
+    private final LectureCache lectureCache;
 
     private final UserRepository userRepository;
 
+    private final ActiveUserCache activeUserCache;
+
     private final UserQuestionRepository userQuestionRepository;
 
+    private final LectureStreamService lectureStreamService;
+
+    private final QuestionStore questionStore;
+
+    private final QuestionVoteCounter voteCounter;
+
+    private final ObjectMapper objectMapper;
+
     private final TaskScheduler taskScheduler;
 
-    private final Set<UUID> lectureChanged = new HashSet<>();
+    private final TaskExecutor notificationExecutor;
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    /**
+     * The time (in milliseconds) during which the changes of a lecture are gathered
+     *     before the waiting clients and the open streams are notified once for all of them.
+     *     0 notifies them on every change.
+     */
+    @Value("${lecture.notification.window:0}")
+    private long notificationWindow;
+
+    /**
+     * The maximum number of clients waiting for the changes of one lecture,
+     *     parked or with an open stream.
+     */
+    @Value("${lecture.waiters.max-per-lecture:2000}")
+    private int maxWaitersPerLecture;
+
+    /**
+     * The maximum number of clients waiting for the changes of all the lectures,
+     *     parked or with an open stream.
+     */
+    @Value("${lecture.waiters.max-total:8000}")
+    private int maxWaiters;
+
+    /**
+     * The time (in seconds) after which a client turned away should fetch again.
+     */
+    @Value("${lecture.waiters.retry-after:5}")
+    private long retryAfter;
+
+    /**
+     * The name of the response header with the version of the lecture.
+     */
+    public static final String VERSION_HEADER = "X-Lecture-Version";
+
+    /**
+     * The name of the stream event with the changes of the questions.
+     */
+    public static final String QUESTIONS_EVENT = "questions";
+
+    /**
+     * The version and the changed questions of every lecture that has been changed or fetched.
+     */
+    private final Map<UUID, LectureChangeLog> changeLogs = new ConcurrentHashMap<>();
+
+    /**
+     * The latest questions of every lecture serialized to JSON, with the version they belong to.
+     *     The same bytes are sent to every client fetching that version.
+     */
+    private final Map<UUID, QuestionSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * Clients waiting for all the questions after the next change of a lecture,
+     *     grouped by lecture id, with the last version seen by each client.
+     */
+    private final Map<UUID, Map<DeferredResult<ResponseEntity<byte[]>>, Long>>
+            lectureWaiters = new ConcurrentHashMap<>();
+
+    /**
+     * Clients waiting for the changes of the questions after the next change of a lecture,
+     *     grouped by lecture id, with the last version seen by each client.
+     */
+    private final Map<UUID, Map<DeferredResult<ResponseEntity<byte[]>>, Long>>
+            changesWaiters = new ConcurrentHashMap<>();
+
+    /**
+     * The lectures whose clients are going to be notified at the end of the current window.
+     */
+    private final Set<UUID> pendingNotifications = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The number of clients waiting for the changes of all the lectures.
+     */
+    private final AtomicInteger waiterCount = new AtomicInteger();
+
+    /**
+     * The number of clients turned away because too many clients were waiting.
+     */
+    private final LongAdder rejectedWaiters = new LongAdder();
 
     /**
      * Constructor for the question service.
      * @param questionRepository question repository
-     * @param lectureRepository lecture repository
+     * @param lectureCache lecture cache
      * @param userRepository user repository
+     * @param activeUserCache active user cache
      * @param userQuestionRepository user-question repository
+     * @param lectureStreamService lecture stream service
+     * @param questionStore question store
+     * @param voteCounter question vote counter
+     * @param objectMapper the object mapper used to write the responses
+     * @param taskScheduler the task scheduler for the delayed notifications
+     * @param notificationExecutor the executor notifying the clients of the lectures
      */
     public QuestionService(QuestionRepository questionRepository,
-                           LectureRepository lectureRepository, UserRepository userRepository,
+                           LectureCache lectureCache, UserRepository userRepository,
+                           ActiveUserCache activeUserCache,
                            UserQuestionRepository userQuestionRepository,
-                           TaskScheduler taskScheduler) {
+                           LectureStreamService lectureStreamService,
+                           QuestionStore questionStore, QuestionVoteCounter voteCounter,
+                           ObjectMapper objectMapper,
+                           TaskScheduler taskScheduler,
+                           @Qualifier("lectureNotificationExecutor")
+                                   TaskExecutor notificationExecutor) {
         this.questionRepository = questionRepository;
-        this.lectureRepository = lectureRepository;
+        this.lectureCache = lectureCache;
         this.userRepository = userRepository;
+        this.activeUserCache = activeUserCache;
         this.userQuestionRepository = userQuestionRepository;
+        this.lectureStreamService = lectureStreamService;
+        this.questionStore = questionStore;
+        this.voteCounter = voteCounter;
+        this.objectMapper = objectMapper;
         this.taskScheduler = taskScheduler;
+        this.notificationExecutor = notificationExecutor;
     }
 
+
     /**
      * Gets questions by lecture id.
+     *     The questions are read from memory, the database is only queried
+     *     the first time the lecture is used.
      * @param lectureId the lecture id
      * @return the questions associated with the lecture id if found
      */
     public List<QuestionEntity> getQuestionsByLectureId(UUID lectureId) {
-        return questionRepository.findAllByLectureId(lectureId);
+        return questionStore.getQuestions(lectureId, this::loadQuestions);
     }
 
     /**
@@ -72,11 +200,11 @@ public class QuestionService {
     public long newQuestionEntity(QuestionEntity q)
             throws LectureException, QuestionException, UserException {
         //check if the question already exists
-        if (questionRepository.findById(q.getId()).isPresent()) {
+        if (findQuestion(q.getId()).isPresent()) {
             throw new QuestionAlreadyExistsException();
         }
         //check if the lecture exists and is open
-        LectureEntity lecture = lectureRepository.findLectureEntityByUuid(q.getLectureId());
+        LectureMetadata lecture = lectureCache.get(q.getLectureId());
         if (lecture == null) {
             throw new LectureNotFoundException();
         } else if (!lecture.isOpen()) {
@@ -93,15 +221,11 @@ public class QuestionService {
             throw new QuestionNotAskedException();
         }
 
-        Optional<UserEntity> user = userRepository.findById(q.getOwnerId());
-
-        //check if the owner is registered
-        if (user.isEmpty()) {
+        //check if the owner is registered (in memory)
+        ActiveUser userAsked = activeUserCache.get(q.getOwnerId());
+        if (userAsked == null) {
             throw new UserNotRegisteredException();
         }
-
-
-        UserEntity userAsked = userRepository.getUserEntityByUid(q.getOwnerId());
         if (!userAsked.isAllowed()) {
             throw new UserBannedException();
         }
@@ -112,11 +236,12 @@ public class QuestionService {
                 throw new QuestionFrequencyTooFastException("Wait for " + left + " seconds more");
             }
         }
-        userAsked.setLastQuestion(new Timestamp(System.currentTimeMillis() / 1000 * 1000));
+        Timestamp asked = new Timestamp(System.currentTimeMillis() / 1000 * 1000);
         q.setOwnerName(userAsked.getUserName());
         questionRepository.save(q);
-        userRepository.save(userAsked);
-        addLectureChanged(q.getLectureId());
+        userRepository.setLastQuestion(userAsked.getUid(), asked);
+        activeUserCache.questionAsked(userAsked.getUid(), asked);
+        addQuestionChanged(q.getLectureId(), q.getId());
         return q.getId();
     }
 
@@ -132,9 +257,9 @@ public class QuestionService {
      */
     public int deleteQuestion(long id, long personId)
             throws QuestionException, LectureException, UserException {
-        QuestionEntity q = questionRepository.findById(id).orElse(null);
+        QuestionEntity q = findQuestion(id).orElse(null);
         //check if the question and lecture exist
-        LectureEntity lecture = validateQuestionAndFindLecture(q);
+        LectureMetadata lecture = validateQuestionAndFindLecture(q);
         //check if the lecture is open
         if (!lecture.isOpen()) {
             throw new LectureClosedException();
@@ -144,12 +269,12 @@ public class QuestionService {
             throw new QuestionWrongOwnerIdException();
         }
         //check if the owner is registered
-        if (userRepository.findById(personId).isEmpty()) {
+        if (activeUserCache.get(personId) == null) {
             throw new UserNotRegisteredException();
         }
         questionRepository.deleteById(id);
         userQuestionRepository.deleteAllByQuestionId(id);
-        addLectureChanged(q.getLectureId());
+        addQuestionRemoved(q.getLectureId(), id);
         return 0;
     }
 
@@ -164,14 +289,14 @@ public class QuestionService {
      */
     public int deleteModeratorQuestion(long id, UUID modkey)
             throws QuestionException, LectureException, InvalidModkeyException {
-        QuestionEntity q = questionRepository.findById(id).orElse(null);
+        QuestionEntity q = findQuestion(id).orElse(null);
         //check if the question and lecture exist
-        LectureEntity lecture = validateQuestionAndFindLecture(q);
+        LectureMetadata lecture = validateQuestionAndFindLecture(q);
         //check if the modkey is correct
         if (lecture.getModkey().equals(modkey)) {
             questionRepository.deleteById(id);
             userQuestionRepository.deleteAllByQuestionId(id);
-            addLectureChanged(q.getLectureId());
+            addQuestionRemoved(q.getLectureId(), id);
             return 0;
         }
         throw new InvalidModkeyException();
@@ -191,9 +316,9 @@ public class QuestionService {
      */
     public int editQuestion(long id, UUID moderatorKey, String newText, long newOwnerId)
             throws QuestionException, LectureException, UserException, InvalidModkeyException {
-        QuestionEntity q = questionRepository.findById(id).orElse(null);
+        QuestionEntity q = findQuestion(id).orElse(null);
         //check if the question and lecture exist
-        LectureEntity lecture = validateQuestionAndFindLecture(q);
+        LectureMetadata lecture = validateQuestionAndFindLecture(q);
         //check if the modkey is correct
         if (lecture.getModkey().equals(moderatorKey)) {
             //check if the question text is not too long
@@ -201,7 +326,7 @@ public class QuestionService {
                 throw new QuestionNotModifiedException();
             }
             //check if the new owner is registered
-            UserEntity user = userRepository.findById(newOwnerId).orElse(null);
+            ActiveUser user = activeUserCache.get(newOwnerId);
             if (user == null) {
                 throw new UserNotRegisteredException();
             }
@@ -210,7 +335,7 @@ public class QuestionService {
             q.setOwnerName(user.getUserName());
             q.setEdited(true);
             questionRepository.save(q);
-            addLectureChanged(q.getLectureId());
+            addQuestionChanged(q.getLectureId(), q.getId());
             return 0;
         }
         throw new InvalidModkeyException();
@@ -227,31 +352,20 @@ public class QuestionService {
      */
     public int upvote(long id, long userId)
             throws QuestionException, LectureException, UserException {
-        QuestionEntity q = questionRepository.findById(id).orElse(null);
+        QuestionEntity q = findQuestion(id).orElse(null);
         //check if the question and lecture exist
-        LectureEntity lecture = validateQuestionAndFindLecture(q);
+        LectureMetadata lecture = validateQuestionAndFindLecture(q);
         //check if the lecture is open
         if (!lecture.isOpen()) {
             throw new LectureClosedException();
         }
         //check if the user is registered
-        if (userRepository.findById(userId).isEmpty()) {
+        if (activeUserCache.get(userId) == null) {
             throw new UserNotRegisteredException();
         }
-        List<UserQuestionTable> votersPair = userQuestionRepository.getAllByQuestionId(id);
-        List<Long> voters = votersPair.stream()
-                .map(UserQuestionTable::getUserId)
-                .collect(Collectors.toList());
-        //check if the user has already upvoted the question
-        if (!voters.contains(userId)) {
-            q.vote();
-            userQuestionRepository.save(new UserQuestionTable(userId, id));
-        } else {
-            q.unvote();
-            userQuestionRepository.deleteAllByQuestionIdAndUserId(id, userId);
-        }
-        questionRepository.save(q);
-        addLectureChanged(q.getLectureId());
+        //counted in memory, the votes are written to the database by the vote counter
+        voteCounter.toggle(q, userId);
+        addQuestionChanged(q.getLectureId(), q.getId());
         return 0;
     }
 
@@ -267,9 +381,9 @@ public class QuestionService {
      */
     public int answer(long id, UUID modkey, String answerText)
             throws QuestionException, LectureException, InvalidModkeyException {
-        QuestionEntity q = questionRepository.findById(id).orElse(null);
+        QuestionEntity q = findQuestion(id).orElse(null);
         //check if the question and lecture exist
-        LectureEntity lecture = validateQuestionAndFindLecture(q);
+        LectureMetadata lecture = validateQuestionAndFindLecture(q);
         //check if the answer text is not too long
         if (answerText.length() > 2000) {
             throw new QuestionNotModifiedException();
@@ -280,7 +394,7 @@ public class QuestionService {
             q.setAnswerTime(new Timestamp(System.currentTimeMillis() / 1000 * 1000));
             q.setAnswerText(answerText);
             questionRepository.save(q);
-            addLectureChanged(q.getLectureId());
+            addQuestionChanged(q.getLectureId(), q.getId());
             return 0;
         }
         throw new InvalidModkeyException();
@@ -299,8 +413,8 @@ public class QuestionService {
      */
     public int setStatus(String status, long qid, long uid, UUID modkey)
             throws LectureNotFoundException, QuestionException, InvalidModkeyException {
-        QuestionEntity q = questionRepository.findById(qid).orElse(null);
-        LectureEntity lecture = validateQuestionAndFindLecture(q);
+        QuestionEntity q = findQuestion(qid).orElse(null);
+        LectureMetadata lecture = validateQuestionAndFindLecture(q);
 
         if (q.getEditorId() != 0 && q.getEditorId() != uid) {
             throw new QuestionAlreadyBeingModifiedException();
@@ -313,12 +427,34 @@ public class QuestionService {
                 q.setEditorId(uid);
             }
             questionRepository.save(q);
-            addLectureChanged(q.getLectureId());
+            addQuestionChanged(q.getLectureId(), q.getId());
             return 0;
         }
         throw new InvalidModkeyException();
     }
 
+    /**
+     * A helper method to find a question, from memory if its lecture is loaded.
+     * @param qid the id of the question
+     * @return a copy of the question that can be modified and saved, if found
+     */
+    private Optional<QuestionEntity> findQuestion(long qid) {
+        return questionStore.getQuestion(qid, questionRepository::findById, this::loadQuestions);
+    }
+
+    /**
+     * A helper method to load the questions of a lecture from the database.
+     * @param lid the id of the lecture
+     * @return the questions of the lecture, null if the lecture does not exist
+     */
+    private List<QuestionEntity> loadQuestions(UUID lid) {
+        if (lectureCache.get(lid) == null) {
+            return null;
+        }
+        //with the votes that are not in the database yet
+        return voteCounter.load(() -> questionRepository.findAllByLectureId(lid));
+    }
+
     /**
      * A helper method to check if the question and the lecture exist in the database.
      * @param q the question to check
@@ -326,13 +462,13 @@ public class QuestionService {
      * @throws QuestionException when the question is not found
      * @throws LectureNotFoundException when the lecture is not found
      */
-    private LectureEntity validateQuestionAndFindLecture(QuestionEntity q)
+    private LectureMetadata validateQuestionAndFindLecture(QuestionEntity q)
             throws QuestionException, LectureNotFoundException {
         //check if the question exists
         if (q == null) {
             throw new QuestionNotFoundException();
         }
-        LectureEntity lecture = lectureRepository.findLectureEntityByUuid(q.getLectureId());
+        LectureMetadata lecture = lectureCache.get(q.getLectureId());
         //check if the lecture exists
         if (lecture == null) {
             throw new LectureNotFoundException();
@@ -341,51 +477,494 @@ public class QuestionService {
     }
 
     /**
-     * Checks if a lecture was changed
-     *     and removes its id from the changed lecture ids set if it is changed.
+     * Checks if a lecture was changed after the given version.
      * @param lid the id of the lecture
+     * @param version the last version of the lecture seen by the client
      * @return true if changed, false otherwise
      */
-    public boolean wasLectureChanged(UUID lid) {
-        if (lectureChanged.contains(lid)) {
-            removeLectureChanged(lid);
-            return true;
-        }
-        return false;
+    public boolean wasLectureChanged(UUID lid, long version) {
+        return getLectureVersion(lid) > version;
     }
 
     /**
-     * Checks if the lecture exists in the repository.
+     * Checks if the lecture exists. The lectures whose questions are in memory are known
+     *     to exist (they are evicted when removed), so only the other ones are looked up
+     *     in the lecture cache.
      * @param lid the id of the lecture to be checked
      * @return true if exists, false otherwise
      */
     public boolean lectureExists(UUID lid) {
-        return lectureRepository.findLectureEntityByUuid(lid) != null;
+        return questionStore.isLoaded(lid)
+                || lectureCache.get(lid) != null;
+    }
+
+    /**
+     * Gets the current version of the lecture. The version grows by at least 1 on every change.
+     *     The first version is based on the current time, so that versions seen
+     *     by the clients before a restart of the server are never ahead of the new ones.
+     * @param lid the id of the lecture
+     * @return the current version of the lecture
+     */
+    public long getLectureVersion(UUID lid) {
+        return getChangeLog(lid).getVersion();
+    }
+
+    /**
+     * Gets the questions of the lecture (as JSON) together with the version they belong to.
+     *     The version is read before the questions, so the questions are never older
+     *     than the version in the header. The questions are serialized only once per version.
+     * @param lid the id of the lecture
+     * @return the response with the questions and the version header
+     */
+    public ResponseEntity<byte[]> getVersionedQuestions(UUID lid) {
+        long version = getLectureVersion(lid);
+        QuestionSnapshot snapshot = snapshots.compute(lid, (id, cached) -> {
+            if (cached != null && cached.version >= version) {
+                return cached;
+            }
+            return new QuestionSnapshot(version, toJson(getQuestionsByLectureId(lid)));
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(VERSION_HEADER, Long.toString(snapshot.version))
+                .body(snapshot.json);
+    }
+
+    /**
+     * Gets the questions of the lecture created or modified after the given version,
+     *     and the ids of the questions removed after it (tombstones).
+     *     If the changes can not be computed (e.g. the version is from before a restart
+     *     of the server), all the questions of the lecture are returned instead.
+     * @param lid the id of the lecture
+     * @param since the last version of the lecture seen by the client
+     * @return the changes of the questions of the lecture
+     */
+    public QuestionChanges getQuestionChanges(UUID lid, long since) {
+        LectureChangeLog changeLog = getChangeLog(lid);
+        long version;
+        List<Long> changedIds;
+        List<Long> removedIds;
+        synchronized (changeLog) {
+            version = changeLog.getVersion();
+            if (!changeLog.canComputeChangesSince(since)) {
+                return new QuestionChanges(version, true,
+                        getQuestionsByLectureId(lid), new ArrayList<>());
+            }
+            changedIds = changeLog.getChangedSince(since);
+            removedIds = changeLog.getRemovedSince(since);
+        }
+        List<QuestionEntity> changed = new ArrayList<>();
+        for (long qid : changedIds) {
+            questionStore.getQuestion(lid, qid, this::loadQuestions).ifPresent(changed::add);
+        }
+        return new QuestionChanges(version, false, changed, removedIds);
+    }
+
+    /**
+     * Parks a client until the lecture changes after the given version.
+     *     If the lecture has already changed (and no notification is pending),
+     *     the client is completed immediately. If too many clients are waiting,
+     *     the client is completed at once with 503 and a Retry-After header.
+     * @param lid the id of the lecture
+     * @param version the last version of the lecture seen by the client
+     * @param waiter the deferred result to complete with all the questions of the lecture
+     */
+    public void addLectureWaiter(UUID lid, long version,
+                                 DeferredResult<ResponseEntity<byte[]>> waiter) {
+        Parking parking = parkWaiter(lectureWaiters, lid, version, waiter);
+        if (parking == Parking.CHANGED) {
+            waiter.setResult(getVersionedQuestions(lid));
+        } else if (parking == Parking.REJECTED) {
+            waiter.setResult(busyResponse());
+        }
+    }
+
+    /**
+     * Parks a client until the lecture changes after the given version.
+     *     If the lecture has already changed (and no notification is pending),
+     *     the client is completed immediately. If too many clients are waiting,
+     *     the client is completed at once with 503 and a Retry-After header.
+     * @param lid the id of the lecture
+     * @param since the last version of the lecture seen by the client
+     * @param waiter the deferred result to complete with the changes since that version (JSON)
+     */
+    public void addChangesWaiter(UUID lid, long since,
+                                 DeferredResult<ResponseEntity<byte[]>> waiter) {
+        Parking parking = parkWaiter(changesWaiters, lid, since, waiter);
+        if (parking == Parking.CHANGED) {
+            waiter.setResult(toJsonResponse(getQuestionChanges(lid, since)));
+        } else if (parking == Parking.REJECTED) {
+            waiter.setResult(busyResponse());
+        }
+    }
+
+    /**
+     * Removes a parked client (e.g. after it has timed out).
+     * @param lid the id of the lecture
+     * @param waiter the deferred result to remove
+     */
+    public void removeLectureWaiter(UUID lid, DeferredResult<?> waiter) {
+        unparkWaiter(lectureWaiters, lid, waiter);
+        unparkWaiter(changesWaiters, lid, waiter);
+    }
+
+    /**
+     * Gets the number of clients waiting for the next change of the lecture.
+     * @param lid the id of the lecture
+     * @return the number of parked clients
+     */
+    public int getLectureWaiterCount(UUID lid) {
+        return lectureWaiters.getOrDefault(lid, Collections.emptyMap()).size()
+                + changesWaiters.getOrDefault(lid, Collections.emptyMap()).size();
+    }
+
+    /**
+     * Gets the number of clients waiting for the next change of any lecture.
+     * @return the number of parked clients
+     */
+    public int getWaiterCount() {
+        return waiterCount.get();
+    }
+
+    /**
+     * Gets the number of clients turned away because too many clients were waiting.
+     * @return the number of rejected clients
+     */
+    public long getRejectedWaiterCount() {
+        return rejectedWaiters.sum();
+    }
+
+    /**
+     * Writes the number of waiting and rejected clients to the log.
+     */
+    @Scheduled(fixedDelayString = "${lecture.waiters.metrics-interval:60000}")
+    public void logWaiterMetrics() {
+        logger.info("Lecture waiters: waiting=" + getWaiterCount()
+                + ", streams=" + lectureStreamService.getSubscriberCount()
+                + ", rejected=" + getRejectedWaiterCount());
+    }
+
+    /**
+     * Removes everything kept in memory for the lecture (questions, serialized questions
+     *     and changes), e.g. when it is closed or removed.
+     *     The votes that are not in the database yet are written first. The clients still waiting
+     *     for the lecture are completed with its current questions.
+     * @param lid the id of the lecture
+     */
+    public void evictLecture(UUID lid) {
+        voteCounter.flush();
+        questionStore.evict(lid);
+        snapshots.remove(lid);
+        changeLogs.remove(lid);
+        notifyLectureWaiters(lid);
+    }
+
+    /**
+     * Removes the lectures that have not been used for longer than the idle timeout
+     *     from memory, together with the serialized questions and the changes
+     *     of every lecture that is not in memory anymore and has no clients waiting.
+     */
+    @Scheduled(fixedRate = QuestionStore.IDLE_TIMEOUT / 4)
+    public void evictIdleLectures() {
+        questionStore.evictIdleLectures();
+        for (UUID lid : new ArrayList<>(changeLogs.keySet())) {
+            if (!questionStore.isLoaded(lid) && getLectureWaiterCount(lid) == 0
+                    && lectureStreamService.getSubscriberCount(lid) == 0) {
+                snapshots.remove(lid);
+                changeLogs.remove(lid);
+            }
+        }
+        snapshots.keySet().removeIf(lid -> !changeLogs.containsKey(lid));
+    }
+
+    /**
+     * Records a change of the question in a new version of the lecture
+     *     and notifies the clients waiting for the lecture to change.
+     * @param lid the id of the lecture
+     * @param qid the id of the created or modified question
+     */
+    public void addQuestionChanged(UUID lid, long qid) {
+        addQuestionsChanged(lid, List.of(qid), List.of());
+    }
+
+    /**
+     * Records a removal of the question in a new version of the lecture
+     *     and notifies the clients waiting for the lecture to change.
+     * @param lid the id of the lecture
+     * @param qid the id of the removed question
+     */
+    public void addQuestionRemoved(UUID lid, long qid) {
+        addQuestionsChanged(lid, List.of(), List.of(qid));
     }
 
     /**
-     * Removes the lecture id from the changed lecture ids set.
+     * Records the changes of several questions in one new version of the lecture
+     *     and notifies the clients waiting for the lecture to change.
      * @param lid the id of the lecture
+     * @param changedIds the ids of the created or modified questions
+     * @param removedIds the ids of the removed questions
      */
-    public void removeLectureChanged(UUID lid) {
-        taskScheduler.schedule(() ->
-                lectureChanged.remove(lid),
-                new Date(OffsetDateTime.now().plusSeconds(1).toInstant().toEpochMilli())
-        );
+    public void addQuestionsChanged(UUID lid, Collection<Long> changedIds,
+                                    Collection<Long> removedIds) {
+        getChangeLog(lid).addChanges(changedIds, removedIds);
+        scheduleNotification(lid);
     }
 
     /**
-     * Add lecture id to the changed lecture ids set.
+     * Increments the version of the lecture
+     *     and notifies the clients waiting for the lecture to change.
+     *     Since it is not known which questions changed, the clients
+     *     asking for the changes since an older version get all the questions.
      * @param lid the id of the lecture
      */
     public void addLectureChanged(UUID lid) {
-        if (!lectureChanged.contains(lid)) {
-            lectureChanged.add(lid);
+        getChangeLog(lid).reset();
+        scheduleNotification(lid);
+    }
+
+    /**
+     * Opens a new stream of events of the lecture. The stream starts with all the questions
+     *     of the lecture, followed by the initial events of the other services.
+     *     Afterwards, only the changes of the questions are sent.
+     *     The streams count towards the same limits as the parked clients,
+     *     so the stream is not opened if too many clients are waiting already.
+     * @param lid the id of the lecture
+     * @param otherEvents the initial events of the other services
+     * @return the response with the stream of events of the lecture,
+     *          or 503 with a Retry-After header if too many clients are waiting
+     */
+    public ResponseEntity<SseEmitter> openLectureStream(
+            UUID lid, Supplier<List<SseEmitter.SseEventBuilder>> otherEvents) {
+        if (isWaiterLimitReached(lid)) {
+            rejectedWaiters.increment();
+            return busyResponse();
+        }
+        return ResponseEntity.ok(lectureStreamService.subscribe(lid, () -> {
+            List<SseEmitter.SseEventBuilder> events = new ArrayList<>();
+            long version = getLectureVersion(lid);
+            events.add(SseEmitter.event().name(QUESTIONS_EVENT).data(new QuestionChanges(
+                    version, true, getQuestionsByLectureId(lid), new ArrayList<>())));
+            events.addAll(otherEvents.get());
+            return events;
+        }));
+    }
+
+    /**
+     * A helper method to send the changes of the questions since the last streamed version
+     *     to the open streams of the lecture.
+     * @param lid the id of the lecture
+     */
+    private void streamQuestionChanges(UUID lid) {
+        LectureChangeLog changeLog = getChangeLog(lid);
+        long version = changeLog.getVersion();
+        boolean streamed = lectureStreamService.publish(lid, QUESTIONS_EVENT, () -> {
+            long since = changeLog.getStreamedVersion();
+            QuestionChanges changes = getQuestionChanges(lid, since);
+            if (!changes.isFull() && changes.getVersion() <= since) {
+                return null;
+            }
+            changeLog.setStreamedVersion(changes.getVersion());
+            return changes;
+        });
+        if (!streamed) {
+            //nobody is listening, so the next streams start with all the questions anyway
+            changeLog.setStreamedVersion(version);
+        }
+    }
+
+    /**
+     * A helper method to serialize an object to JSON.
+     * @param value the object to serialize
+     * @return the object as JSON
+     */
+    private byte[] toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize the questions", e);
+        }
+    }
+
+    /**
+     * A helper method to create a response with an object serialized to JSON.
+     * @param value the object to serialize
+     * @return the response with the object as JSON
+     */
+    private ResponseEntity<byte[]> toJsonResponse(Object value) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(toJson(value));
+    }
+
+    /**
+     * A helper method to create the response for a client turned away
+     *     because too many clients are waiting, telling it when to fetch again.
+     * @param <T> the type of the body of the response
+     * @return the response with 503 and a Retry-After header
+     */
+    private <T> ResponseEntity<T> busyResponse() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter)).build();
+    }
+
+    /**
+     * A helper method to get the change log of the lecture, creating it if needed.
+     * @param lid the id of the lecture
+     * @return the change log of the lecture
+     */
+    private LectureChangeLog getChangeLog(UUID lid) {
+        return changeLogs.computeIfAbsent(lid,
+            id -> new LectureChangeLog(System.currentTimeMillis()));
+    }
+
+    /**
+     * A helper method to park a client unless the lecture has changed after its version.
+     *     While a notification of the lecture is pending, the client is parked anyway,
+     *     so that it gets the changes of the whole window at once.
+     *     The client is not parked if as many clients as allowed are already waiting
+     *     for the lecture or for all the lectures.
+     * @param registry the parked clients of every lecture with their versions
+     * @param lid the id of the lecture
+     * @param version the last version of the lecture seen by the client
+     * @param waiter the deferred result of the client
+     * @param <T> the type of the result of the client
+     * @return whether the client is parked, rejected or the lecture has already changed
+     */
+    private <T> Parking parkWaiter(Map<UUID, Map<DeferredResult<T>, Long>> registry,
+                                   UUID lid, long version, DeferredResult<T> waiter) {
+        AtomicReference<Parking> parking = new AtomicReference<>(Parking.CHANGED);
+        registry.compute(lid, (id, waiters) -> {
+            if (wasLectureChanged(lid, version) && !pendingNotifications.contains(lid)) {
+                return waiters;
+            }
+            if (isWaiterLimitReached(lid)) {
+                rejectedWaiters.increment();
+                parking.set(Parking.REJECTED);
+                return waiters;
+            }
+            if (waiters == null) {
+                waiters = new ConcurrentHashMap<>();
+            }
+            if (waiters.put(waiter, version) == null) {
+                waiterCount.incrementAndGet();
+            }
+            parking.set(Parking.PARKED);
+            return waiters;
+        });
+        return parking.get();
+    }
+
+    /**
+     * A helper method to check if as many clients as allowed are already waiting
+     *     for the lecture or for all the lectures, counting both the parked clients
+     *     and the open streams (the limits may be exceeded slightly by clients
+     *     arriving at the same time).
+     * @param lid the id of the lecture
+     * @return true if no more clients can wait
+     */
+    private boolean isWaiterLimitReached(UUID lid) {
+        return getLectureWaiterCount(lid) + lectureStreamService.getSubscriberCount(lid)
+                >= maxWaitersPerLecture
+                || waiterCount.get() + lectureStreamService.getSubscriberCount() >= maxWaiters;
+    }
+
+    /**
+     * A helper method to remove a parked client.
+     * @param registry the parked clients of every lecture with their versions
+     * @param lid the id of the lecture
+     * @param waiter the deferred result of the client
+     * @param <T> the type of the result of the client
+     */
+    private <T> void unparkWaiter(Map<UUID, Map<DeferredResult<T>, Long>> registry,
+                                  UUID lid, DeferredResult<?> waiter) {
+        registry.computeIfPresent(lid, (id, waiters) -> {
+            if (waiters.remove(waiter) != null) {
+                waiterCount.decrementAndGet();
+            }
+            return waiters.isEmpty() ? null : waiters;
+        });
+    }
+
+    /**
+     * A helper method to notify the clients of the lecture about its changes.
+     *     Within the notification window, only the first change schedules a notification,
+     *     which sends all the changes made until the end of the window at once.
+     *     Until then, the clients coming back for more are parked as well,
+     *     so the questions are serialized at most once per window.
+     * @param lid the id of the lecture
+     */
+    private void scheduleNotification(UUID lid) {
+        long window = notificationWindow;
+        if (window <= 0) {
+            notifyLectureWaiters(lid);
             return;
         }
-        taskScheduler.schedule(() ->
-                lectureChanged.add(lid),
-                new Date(OffsetDateTime.now().plusSeconds(2).toInstant().toEpochMilli())
-        );
+        if (pendingNotifications.add(lid)) {
+            //handed over to the notification threads, so that a lecture with many clients
+            //does not hold up the scheduler (e.g. the unbanning of users)
+            taskScheduler.schedule(() -> notificationExecutor.execute(() -> {
+                //removed first, so that the changes made while notifying are not missed
+                pendingNotifications.remove(lid);
+                notifyLectureWaiters(lid);
+            }), new Date(System.currentTimeMillis() + window));
+        }
+    }
+
+    /**
+     * A helper method to complete all the clients waiting for the lecture to change
+     *     and to send the changes to the open streams of the lecture.
+     *     The questions are fetched and serialized once and the same bytes are sent
+     *     to all the waiters, and the changes are computed and serialized once
+     *     for every version the waiters have seen.
+     * @param lid the id of the lecture
+     */
+    private void notifyLectureWaiters(UUID lid) {
+        Map<DeferredResult<ResponseEntity<byte[]>>, Long> waiters = lectureWaiters.remove(lid);
+        if (waiters != null && !waiters.isEmpty()) {
+            waiterCount.addAndGet(-waiters.size());
+            ResponseEntity<byte[]> questions = getVersionedQuestions(lid);
+            waiters.keySet().forEach(waiter -> waiter.setResult(questions));
+        }
+        Map<DeferredResult<ResponseEntity<byte[]>>, Long> sinceWaiters =
+                changesWaiters.remove(lid);
+        if (sinceWaiters != null && !sinceWaiters.isEmpty()) {
+            waiterCount.addAndGet(-sinceWaiters.size());
+            Map<Long, ResponseEntity<byte[]>> changes = new HashMap<>();
+            sinceWaiters.forEach((waiter, since) -> waiter.setResult(changes.computeIfAbsent(
+                    since, s -> toJsonResponse(getQuestionChanges(lid, s)))));
+        }
+        streamQuestionChanges(lid);
+    }
+
+    /**
+     * The outcome of parking a client.
+     */
+    private enum Parking {
+        /**
+         * The client waits for the next change of the lecture.
+         */
+        PARKED,
+        /**
+         * The lecture has already changed after the version of the client.
+         */
+        CHANGED,
+        /**
+         * Too many clients are waiting already.
+         */
+        REJECTED
+    }
+
+    /**
+     * The questions of a lecture serialized to JSON, with the version they belong to.
+     *     The bytes are shared between the clients and must never be modified.
+     */
+    private static class QuestionSnapshot {
+
+        private final long version;
+
+        private final byte[] json;
+
+        private QuestionSnapshot(long version, byte[] json) {
+            this.version = version;
+            this.json = json;
+        }
     }
 }
@@ -0,0 +1,231 @@
+package nl.tudelft.oopp.livechat.services;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+import nl.tudelft.oopp.livechat.entities.QuestionEntity;
+import org.springframework.stereotype.Service;
+
+
+/**
+ * The questions of the active lectures kept in memory, so that the questions can be
+ *     read and validated without querying the database. The database stays the persistence
+ *     layer behind it: every question saved or removed through the question repository
+ *     is also saved or removed here (see QuestionStoreListener).
+ */
+@Service
+public class QuestionStore {
+
+    /**
+     * The time after which the questions of a lecture that has not been used
+     *     are removed from memory (1 hour).
+     */
+    public static final long IDLE_TIMEOUT = 60 * 60 * 1000L;
+
+    /**
+     * The questions of every loaded lecture.
+     */
+    private final Map<UUID, LectureQuestions> lectures = new ConcurrentHashMap<>();
+
+    /**
+     * The id of the lecture of every loaded question.
+     */
+    private final Map<Long, UUID> questionLectures = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the questions of the lecture, ordered by id.
+     *     The questions are loaded only the first time the lecture is used.
+     * @param lid the id of the lecture
+     * @param loader the function loading the questions from the database,
+     *               returning null if the lecture does not exist
+     * @return the questions of the lecture, empty if the lecture does not exist
+     */
+    public List<QuestionEntity> getQuestions(UUID lid,
+                                             Function<UUID, List<QuestionEntity>> loader) {
+        LectureQuestions lecture = getLecture(lid, loader);
+        if (lecture == null) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(lecture.questions.values());
+    }
+
+    /**
+     * Gets a copy of the question, which can be modified and saved.
+     *     If the question is not loaded yet, it is looked up in the database
+     *     and the questions of its lecture are loaded (if the lecture exists).
+     * @param qid the id of the question
+     * @param finder the function finding the question in the database
+     * @param loader the function loading the questions of a lecture from the database
+     * @return the copy of the question if found
+     */
+    public Optional<QuestionEntity> getQuestion(long qid,
+                                                LongFunction<Optional<QuestionEntity>> finder,
+                                                Function<UUID, List<QuestionEntity>> loader) {
+        UUID lid = questionLectures.get(qid);
+        if (lid != null) {
+            return getQuestion(lid, qid, loader);
+        }
+        Optional<QuestionEntity> found = finder.apply(qid);
+        if (found.isEmpty()) {
+            return found;
+        }
+        Optional<QuestionEntity> loaded = getQuestion(found.get().getLectureId(), qid, loader);
+        //the lecture of the question may not exist anymore
+        return loaded.isPresent() ? loaded : Optional.of(new QuestionEntity(found.get()));
+    }
+
+    /**
+     * Gets a copy of the question of the lecture.
+     * @param lid the id of the lecture
+     * @param qid the id of the question
+     * @param loader the function loading the questions of the lecture from the database
+     * @return the copy of the question if it belongs to the lecture
+     */
+    public Optional<QuestionEntity> getQuestion(UUID lid, long qid,
+                                                Function<UUID, List<QuestionEntity>> loader) {
+        LectureQuestions lecture = getLecture(lid, loader);
+        if (lecture == null) {
+            return Optional.empty();
+        }
+        QuestionEntity q = lecture.questions.get(qid);
+        return q == null ? Optional.empty() : Optional.of(new QuestionEntity(q));
+    }
+
+    /**
+     * Saves the question if its lecture is loaded, moving it if its lecture has changed.
+     *     The votes are only changed through addVotes, so the votes in memory are kept.
+     * @param q the saved question, which must not be modified afterwards
+     */
+    public void put(QuestionEntity q) {
+        UUID previous = questionLectures.get(q.getId());
+        if (previous != null && !previous.equals(q.getLectureId())) {
+            remove(q.getId());
+        }
+        if (q.getLectureId() == null) {
+            return;
+        }
+        lectures.computeIfPresent(q.getLectureId(), (id, lecture) -> {
+            lecture.questions.compute(q.getId(), (qid, current) -> {
+                if (current != null) {
+                    q.setVotes(current.getVotes());
+                }
+                return q;
+            });
+            questionLectures.put(q.getId(), id);
+            return lecture;
+        });
+    }
+
+    /**
+     * Adds votes to the question in memory.
+     * @param lid the id of the lecture of the question
+     * @param qid the id of the question
+     * @param delta the number of votes to add (negative to remove votes)
+     */
+    public void addVotes(UUID lid, long qid, int delta) {
+        LectureQuestions lecture = lectures.get(lid);
+        if (lecture == null) {
+            return;
+        }
+        lecture.questions.computeIfPresent(qid, (id, q) -> {
+            QuestionEntity voted = new QuestionEntity(q);
+            voted.setVotes(q.getVotes() + delta);
+            return voted;
+        });
+    }
+
+    /**
+     * Removes the question.
+     * @param qid the id of the removed question
+     */
+    public void remove(long qid) {
+        UUID lid = questionLectures.remove(qid);
+        if (lid == null) {
+            return;
+        }
+        lectures.computeIfPresent(lid, (id, lecture) -> {
+            lecture.questions.remove(qid);
+            return lecture;
+        });
+    }
+
+    /**
+     * Checks if the questions of the lecture are loaded.
+     * @param lid the id of the lecture
+     * @return true if the questions are in memory, false otherwise
+     */
+    public boolean isLoaded(UUID lid) {
+        return lectures.containsKey(lid);
+    }
+
+    /**
+     * Removes the questions of the lecture from memory,
+     *     they are loaded again the next time the lecture is used.
+     * @param lid the id of the lecture
+     */
+    public void evict(UUID lid) {
+        LectureQuestions lecture = lectures.remove(lid);
+        if (lecture != null) {
+            lecture.questions.keySet().forEach(qid -> questionLectures.remove(qid, lid));
+        }
+    }
+
+    /**
+     * Removes the questions of the lectures that have not been used
+     *     for longer than the idle timeout from memory
+     *     (called periodically by the question service).
+     */
+    public void evictIdleLectures() {
+        long now = System.currentTimeMillis();
+        for (UUID lid : new ArrayList<>(lectures.keySet())) {
+            lectures.computeIfPresent(lid, (id, lecture) -> {
+                if (now - lecture.lastUsed <= IDLE_TIMEOUT) {
+                    return lecture;
+                }
+                lecture.questions.keySet().forEach(questionLectures::remove);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * A helper method to get the questions of the lecture, loading them if needed.
+     *     The questions saved while the lecture is being loaded wait for the loading
+     *     to finish, so they are never lost.
+     * @param lid the id of the lecture
+     * @param loader the function loading the questions of the lecture from the database
+     * @return the questions of the lecture, null if the lecture does not exist
+     */
+    private LectureQuestions getLecture(UUID lid, Function<UUID, List<QuestionEntity>> loader) {
+        LectureQuestions lecture = lectures.computeIfAbsent(lid, id -> {
+            List<QuestionEntity> loaded = loader.apply(id);
+            if (loaded == null) {
+                return null;
+            }
+            LectureQuestions questions = new LectureQuestions();
+            for (QuestionEntity q : loaded) {
+                //copied, so that the persistence context never modifies the questions in memory
+                questions.questions.put(q.getId(), new QuestionEntity(q));
+                questionLectures.put(q.getId(), id);
+            }
+            return questions;
+        });
+        if (lecture != null) {
+            lecture.lastUsed = System.currentTimeMillis();
+        }
+        return lecture;
+    }
+
+    /**
+     * The questions of one lecture, ordered by id.
+     */
+    private static class LectureQuestions {
+
+        private final Map<Long, QuestionEntity> questions = new ConcurrentSkipListMap<>();
+
+        private volatile long lastUsed = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,60 @@
+package nl.tudelft.oopp.livechat.services;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+import nl.tudelft.oopp.livechat.entities.QuestionEntity;
+import org.springframework.beans.factory.ObjectProvider;
+
+
+/**
+ * Keeps the question store up to date with every question saved
+ *     or removed through the question repository.
+ *     The changes are applied to the store after they are committed.
+ */
+public class QuestionStoreListener {
+
+    private final QuestionStore questionStore;
+
+    /**
+     * Looked up lazily, since the vote counter needs the repositories,
+     *     which are created after the entity listeners.
+     */
+    private final ObjectProvider<QuestionVoteCounter> voteCounter;
+
+    /**
+     * Creates the listener (done by Hibernate through the Spring bean factory).
+     * @param questionStore the question store
+     * @param voteCounter the provider of the question vote counter
+     */
+    public QuestionStoreListener(QuestionStore questionStore,
+                                 ObjectProvider<QuestionVoteCounter> voteCounter) {
+        this.questionStore = questionStore;
+        this.voteCounter = voteCounter;
+    }
+
+    /**
+     * Saves a copy of the question in the store after it has been created or modified.
+     * @param q the saved question
+     */
+    @PostPersist
+    @PostUpdate
+    public void questionSaved(QuestionEntity q) {
+        QuestionEntity saved = new QuestionEntity(q);
+        TransactionHooks.afterCommit(() -> questionStore.put(saved));
+    }
+
+    /**
+     * Removes the question from the store and forgets its votes after it has been removed.
+     * @param q the removed question
+     */
+    @PostRemove
+    public void questionRemoved(QuestionEntity q) {
+        long qid = q.getId();
+        TransactionHooks.afterCommit(() -> {
+            questionStore.remove(qid);
+            voteCounter.getObject().discard(qid);
+        });
+    }
+}
@@ -0,0 +1,166 @@
+package nl.tudelft.oopp.livechat.services;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import javax.annotation.PreDestroy;
+
+import nl.tudelft.oopp.livechat.entities.QuestionEntity;
+import nl.tudelft.oopp.livechat.entities.UserQuestionPairId;
+import nl.tudelft.oopp.livechat.entities.UserQuestionTable;
+import nl.tudelft.oopp.livechat.repositories.QuestionRepository;
+import nl.tudelft.oopp.livechat.repositories.UserQuestionRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+
+/**
+ * The votes of the questions, counted in memory and written to the database in batches
+ *     (write-behind). A vote only changes the count of the question in the question store
+ *     and records the voter; the database is updated every flush interval
+ *     (question.votes.flush-interval) and when a lecture is closed.
+ */
+@Service
+public class QuestionVoteCounter {
+
+    private final QuestionRepository questionRepository;
+
+    private final UserQuestionRepository userQuestionRepository;
+
+    private final QuestionStore questionStore;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * The votes of every question not written to the database yet.
+     *     The counters are striped, so that the voters of a question do not contend.
+     */
+    private final Map<Long, LongAdder> pendingVotes = new ConcurrentHashMap<>();
+
+    /**
+     * The voters not written to the database yet: true if the user has voted
+     *     for the question, false if the user has taken the vote back.
+     */
+    private final Map<UserQuestionPairId, Boolean> pendingVoters = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the question vote counter.
+     * @param questionRepository question repository
+     * @param userQuestionRepository user-question repository
+     * @param questionStore question store
+     * @param transactionManager the transaction manager running each flush in one transaction
+     */
+    public QuestionVoteCounter(QuestionRepository questionRepository,
+                               UserQuestionRepository userQuestionRepository,
+                               QuestionStore questionStore,
+                               PlatformTransactionManager transactionManager) {
+        this.questionRepository = questionRepository;
+        this.userQuestionRepository = userQuestionRepository;
+        this.questionStore = questionStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        //a new transaction, since a flush can be triggered after another one has been committed
+        this.transactionTemplate.setPropagationBehavior(
+                TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Adds the vote of the user to the question, or takes it back if the user
+     *     has already voted. The database is only read if the vote of the user
+     *     is not known yet (a primary key lookup).
+     * @param q the question, which must be loaded in the question store
+     * @param uid the id of the user
+     * @return true if the user has voted, false if the vote has been taken back
+     */
+    public boolean toggle(QuestionEntity q, long uid) {
+        UserQuestionPairId pair = new UserQuestionPairId(uid, q.getId());
+        boolean voted = pendingVoters.compute(pair, (id, pending) -> pending == null
+                ? !userQuestionRepository.existsById(id) : !pending);
+        int delta = voted ? 1 : -1;
+        pendingVotes.computeIfAbsent(q.getId(), id -> new LongAdder()).add(delta);
+        questionStore.addVotes(q.getLectureId(), q.getId(), delta);
+        return voted;
+    }
+
+    /**
+     * Loads questions from the database, adding the votes not written to it yet.
+     * @param loader the function loading the questions, returning null if there are none
+     * @return copies of the loaded questions with all their votes
+     */
+    public synchronized List<QuestionEntity> load(Supplier<List<QuestionEntity>> loader) {
+        List<QuestionEntity> loaded = loader.get();
+        if (loaded == null) {
+            return null;
+        }
+        List<QuestionEntity> questions = new ArrayList<>(loaded.size());
+        for (QuestionEntity q : loaded) {
+            QuestionEntity copy = new QuestionEntity(q);
+            LongAdder pending = pendingVotes.get(q.getId());
+            if (pending != null) {
+                copy.setVotes(copy.getVotes() + pending.intValue());
+            }
+            questions.add(copy);
+        }
+        return questions;
+    }
+
+    /**
+     * Forgets the votes of a removed question.
+     * @param qid the id of the removed question
+     */
+    public void discard(long qid) {
+        pendingVotes.remove(qid);
+        pendingVoters.keySet().removeIf(pair -> pair.getQuestionId() == qid);
+    }
+
+    /**
+     * Writes the pending votes and voters to the database in one transaction.
+     *     If the transaction fails, they are kept for the next flush.
+     */
+    @Scheduled(fixedDelayString = "${question.votes.flush-interval:1000}")
+    @PreDestroy
+    public synchronized void flush() {
+        Map<Long, Integer> votes = new HashMap<>();
+        pendingVotes.forEach((qid, pending) -> {
+            int delta = (int) pending.sumThenReset();
+            if (delta != 0) {
+                votes.put(qid, delta);
+            }
+        });
+        Map<UserQuestionPairId, Boolean> voters = new HashMap<>(pendingVoters);
+        if (votes.isEmpty() && voters.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(votes, voters));
+        } catch (RuntimeException e) {
+            votes.forEach((qid, delta) -> pendingVotes
+                    .computeIfAbsent(qid, id -> new LongAdder()).add(delta));
+            throw e;
+        }
+        //only the voters that have not voted again in the meantime are written
+        voters.forEach(pendingVoters::remove);
+    }
+
+    /**
+     * A helper method to write the votes and the voters.
+     * @param votes the votes to add to each question
+     * @param voters the voters to add (true) or remove (false)
+     */
+    private void write(Map<Long, Integer> votes, Map<UserQuestionPairId, Boolean> voters) {
+        votes.forEach(questionRepository::addVotes);
+        List<UserQuestionTable> added = new ArrayList<>();
+        voters.forEach((pair, voted) -> {
+            if (voted) {
+                added.add(new UserQuestionTable(pair.getUserId(), pair.getQuestionId()));
+            } else {
+                userQuestionRepository.deleteAllByQuestionIdAndUserId(pair.getQuestionId(),
+                        pair.getUserId());
+            }
+        });
+        userQuestionRepository.saveAll(added);
+    }
+}
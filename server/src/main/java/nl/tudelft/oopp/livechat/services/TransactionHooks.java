@@ -0,0 +1,34 @@
+package nl.tudelft.oopp.livechat.services;
+
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+
+/**
+ * Helper methods to run code once the changes of the current transaction are visible.
+ */
+final class TransactionHooks {
+
+    private TransactionHooks() {
+
+    }
+
+    /**
+     * Runs the action after the current transaction is committed,
+     *     or immediately if there is no transaction.
+     * @param action the action to run
+     */
+    static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+    }
+}
@@ -1,10 +1,9 @@
 package nl.tudelft.oopp.livechat.services;
 
-import nl.tudelft.oopp.livechat.entities.LectureEntity;
+import nl.tudelft.oopp.livechat.entities.LectureMetadata;
 import nl.tudelft.oopp.livechat.entities.QuestionEntity;
 import nl.tudelft.oopp.livechat.entities.UserEntity;
 import nl.tudelft.oopp.livechat.exceptions.*;
-import nl.tudelft.oopp.livechat.repositories.LectureRepository;
 import nl.tudelft.oopp.livechat.repositories.QuestionRepository;
 import nl.tudelft.oopp.livechat.repositories.UserQuestionRepository;
 import nl.tudelft.oopp.livechat.repositories.UserRepository;
@@ -25,7 +24,7 @@ public class UserService {
 
     private final UserRepository userRepository;
 
-    private final LectureRepository lectureRepository;
+    private final LectureCache lectureCache;
 
     private final QuestionRepository questionRepository;
 
@@ -38,17 +37,17 @@ public class UserService {
     /**
      * Creates new UserService object.
      * @param userRepository the user repository
-     * @param lectureRepository the lecture repository
+     * @param lectureCache the lecture cache
      * @param questionRepository the question repository
      * @param userQuestionRepository the user question repository
      * @param taskScheduler the task scheduler for banning
      */
-    public UserService(UserRepository userRepository, LectureRepository lectureRepository,
+    public UserService(UserRepository userRepository, LectureCache lectureCache,
                        QuestionRepository questionRepository,
                        UserQuestionRepository userQuestionRepository,
                        TaskScheduler taskScheduler, QuestionService questionService) {
         this.userRepository = userRepository;
-        this.lectureRepository = lectureRepository;
+        this.lectureCache = lectureCache;
         this.questionRepository = questionRepository;
         this.userQuestionRepository = userQuestionRepository;
         this.taskScheduler = taskScheduler;
@@ -133,7 +132,7 @@ public class UserService {
         if (toBan == null) {
             throw new UserNotRegisteredException();
         }
-        LectureEntity lectureIsIn = lectureRepository.findLectureEntityByUuid(toBan.getLectureId());
+        LectureMetadata lectureIsIn = lectureCache.get(toBan.getLectureId());
         if (lectureIsIn == null) {
             throw new LectureNotFoundException();
         } else if (!lectureIsIn.isOpen()) {
@@ -171,9 +170,9 @@ public class UserService {
             throw new UserNotRegisteredException();
         }
         List<UserEntity> toBan = userRepository.findAllByIp(user.getIp());
-        List<LectureEntity> lectureIn = toBan.stream()
-                .map((u) -> lectureRepository.findLectureEntityByUuid(u.getLectureId()))
-                .filter(LectureEntity::isOpen)
+        List<LectureMetadata> lectureIn = toBan.stream()
+                .map((u) -> lectureCache.get(u.getLectureId()))
+                .filter(LectureMetadata::isOpen)
                 .filter((l) -> l.getModkey().equals(modkey))
                 .collect(Collectors.toList());
         if (lectureIn.size() == 0) {
@@ -236,7 +235,6 @@ public class UserService {
     private void editRepositoryAfterBanning(long qid, long uid) {
         Optional<QuestionEntity> question = questionRepository.findById(qid);
         if (question.isPresent()) {
-            questionService.addLectureChanged(question.get().getLectureId());
             questionRepository.deleteById(qid);
         }
         if (!userQuestionRepository.getAllByQuestionId(qid).isEmpty()) {
@@ -245,6 +243,9 @@ public class UserService {
         List<QuestionEntity> qs = questionRepository.findAllByOwnerId(uid);
         qs.forEach(q -> q.setOwnerName(q.getOwnerName() + " (banned)"));
         questionRepository.saveAll(qs);
+        //notify the waiting clients only after all the changes are saved
+        question.ifPresent(q -> questionService.addQuestionRemoved(q.getLectureId(), qid));
+        notifyOwnerNameChanged(qs);
     }
 
     /**
@@ -257,6 +258,18 @@ public class UserService {
         qs.forEach(q -> q.setOwnerName(q.getOwnerName()
                 .substring(0, q.getOwnerName().length() - 9)));
         questionRepository.saveAll(qs);
+        notifyOwnerNameChanged(qs);
+    }
+
+    /**
+     * A helper method to notify the clients of the lectures
+     *      in which the owner name of the questions has changed.
+     * @param qs the questions with the changed owner name
+     */
+    private void notifyOwnerNameChanged(List<QuestionEntity> qs) {
+        qs.stream().collect(Collectors.groupingBy(QuestionEntity::getLectureId,
+                Collectors.mapping(QuestionEntity::getId, Collectors.toList())))
+                .forEach((lid, ids) -> questionService.addQuestionsChanged(lid, ids, List.of()));
     }
 
 }
@@ -0,0 +1,42 @@
+package nl.tudelft.oopp.livechat.services;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+import nl.tudelft.oopp.livechat.entities.UserEntity;
+import org.springframework.beans.factory.ObjectProvider;
+
+
+/**
+ * Drops a user kept in memory by the active user cache whenever the user is saved
+ *     (registered, banned or unbanned) or removed, once the change is committed.
+ */
+public class UserStoreListener {
+
+    /**
+     * Looked up lazily, since the cache needs the repositories,
+     *     which are created after the entity listeners.
+     */
+    private final ObjectProvider<ActiveUserCache> activeUserCache;
+
+    /**
+     * Creates the listener (done by Hibernate through the Spring bean factory).
+     * @param activeUserCache the provider of the active user cache
+     */
+    public UserStoreListener(ObjectProvider<ActiveUserCache> activeUserCache) {
+        this.activeUserCache = activeUserCache;
+    }
+
+    /**
+     * Drops the user, so that the change is seen by the next action of the user.
+     * @param user the saved or removed user
+     */
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void userChanged(UserEntity user) {
+        long uid = user.getUid();
+        TransactionHooks.afterCommit(() -> activeUserCache.getObject().invalidate(uid));
+    }
+}
@@ -0,0 +1,116 @@
+package nl.tudelft.oopp.livechat.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ConnectionPoolMetricsTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ConnectionPoolMetrics connectionPoolMetrics;
+
+    /**
+     * A helper method to create statistics of a pool with the specified connections.
+     * @param active the number of active connections
+     * @param idle the number of idle connections
+     * @param pending the number of waiting threads
+     * @return the statistics of the pool
+     */
+    private static PoolStats poolStats(int active, int idle, int pending) {
+        return new PoolStats(0) {
+            @Override
+            protected void update() {
+                activeConnections = active;
+                idleConnections = idle;
+                totalConnections = active + idle;
+                pendingThreads = pending;
+            }
+        };
+    }
+
+    @Test
+    void notStartedTest() {
+        ConnectionPoolMetrics metrics = new ConnectionPoolMetrics();
+        assertEquals(0, metrics.getActiveConnections());
+        assertEquals(0, metrics.getIdleConnections());
+        assertEquals(0, metrics.getTotalConnections());
+        assertEquals(0, metrics.getPendingThreads());
+        assertArrayEquals(new long[ConnectionPoolMetrics.WAIT_BUCKETS.length + 1],
+                metrics.getWaitHistogram());
+    }
+
+    @Test
+    void poolStatsTest() {
+        ConnectionPoolMetrics metrics = new ConnectionPoolMetrics();
+        metrics.create("test", poolStats(3, 2, 1));
+
+        assertEquals(3, metrics.getActiveConnections());
+        assertEquals(2, metrics.getIdleConnections());
+        assertEquals(5, metrics.getTotalConnections());
+        assertEquals(1, metrics.getPendingThreads());
+    }
+
+    @Test
+    void waitHistogramTest() {
+        ConnectionPoolMetrics metrics = new ConnectionPoolMetrics();
+        IMetricsTracker tracker = metrics.create("test", poolStats(0, 0, 0));
+        tracker.recordConnectionAcquiredNanos(TimeUnit.MICROSECONDS.toNanos(200));
+        tracker.recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        tracker.recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(7));
+        tracker.recordConnectionAcquiredNanos(TimeUnit.SECONDS.toNanos(10));
+
+        long[] histogram = metrics.getWaitHistogram();
+        assertEquals(2, histogram[0]);
+        assertEquals(0, histogram[1]);
+        assertEquals(1, histogram[2]);
+        assertEquals(1, histogram[ConnectionPoolMetrics.WAIT_BUCKETS.length]);
+    }
+
+    @Test
+    void timeoutsTest() {
+        ConnectionPoolMetrics metrics = new ConnectionPoolMetrics();
+        IMetricsTracker tracker = metrics.create("test", poolStats(0, 0, 0));
+        tracker.recordConnectionTimeout();
+        tracker.recordConnectionTimeout();
+
+        assertEquals(2, metrics.getTimeouts());
+    }
+
+    @Test
+    void pooledDataSourceTest() throws Exception {
+        assertTrue(dataSource instanceof HikariDataSource);
+        assertEquals(10, ((HikariDataSource) dataSource).getMaximumPoolSize());
+
+        long borrowed = sum(connectionPoolMetrics.getWaitHistogram());
+        try (Connection connection = dataSource.getConnection()) {
+            assertTrue(connection.isValid(1));
+        }
+        assertTrue(sum(connectionPoolMetrics.getWaitHistogram()) > borrowed);
+    }
+
+    /**
+     * A helper method to sum the buckets of a histogram.
+     * @param histogram the histogram
+     * @return the number of values in the histogram
+     */
+    private static long sum(long[] histogram) {
+        long sum = 0;
+        for (long count : histogram) {
+            sum += count;
+        }
+        return sum;
+    }
+}
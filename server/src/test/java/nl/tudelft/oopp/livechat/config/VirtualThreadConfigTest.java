@@ -0,0 +1,67 @@
+package nl.tudelft.oopp.livechat.config;
+
+import org.apache.catalina.connector.Connector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs only on Java 21 or newer, the server does not start in this mode otherwise.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "threads.virtual=true")
+class VirtualThreadConfigTest {
+
+    @Autowired
+    private ServletWebServerApplicationContext context;
+
+    @Autowired
+    private ThreadPoolTaskScheduler taskScheduler;
+
+    @Autowired
+    private ThreadPoolTaskExecutor lectureNotificationExecutor;
+
+    @BeforeAll
+    static void checkJavaVersion() {
+        assumeTrue(VirtualThreads.isSupported());
+    }
+
+    /**
+     * A helper method to check that an executor runs its tasks on virtual threads.
+     * @param executor the executor
+     */
+    private static void assertVirtual(Executor executor) throws Exception {
+        CompletableFuture<Boolean> virtual = new CompletableFuture<>();
+        executor.execute(() -> virtual.complete(VirtualThreads.isVirtual(Thread.currentThread())));
+        assertTrue(virtual.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void requestsOnVirtualThreadsTest() throws Exception {
+        Connector connector = ((TomcatWebServer) context.getWebServer()).getTomcat()
+                .getConnector();
+        assertVirtual(connector.getProtocolHandler().getExecutor());
+    }
+
+    @Test
+    void schedulerOnVirtualThreadsTest() throws Exception {
+        assertVirtual(taskScheduler);
+    }
+
+    @Test
+    void notificationsOnVirtualThreadsTest() throws Exception {
+        assertVirtual(lectureNotificationExecutor);
+    }
+}
@@ -0,0 +1,32 @@
+package nl.tudelft.oopp.livechat.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ThreadFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadsTest {
+
+    @Test
+    void factoryTest() {
+        if (Runtime.version().feature() < 21) {
+            assertFalse(VirtualThreads.isSupported());
+            assertThrows(IllegalStateException.class, () -> VirtualThreads.factory("test-"));
+            return;
+        }
+        assertTrue(VirtualThreads.isSupported());
+        ThreadFactory factory = VirtualThreads.factory("test-");
+        Thread first = factory.newThread(() -> { });
+        Thread second = factory.newThread(() -> { });
+
+        assertTrue(VirtualThreads.isVirtual(first));
+        assertEquals("test-0", first.getName());
+        assertEquals("test-1", second.getName());
+    }
+
+    @Test
+    void isVirtualPlatformThreadTest() {
+        assertFalse(VirtualThreads.isVirtual(Thread.currentThread()));
+    }
+}
@@ -19,6 +19,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
@@ -195,6 +196,41 @@ class LectureControllerTest {
         assertNull(gotBack.getModkey());
     }
 
+    @Test
+    void getLecturesByIDNotModifiedTest() throws Exception {
+        String json = createLecture("/api/newLecture?name=test", createJson("Etag", time, 60));
+        String uuid = objectMapper.readValue(json, LectureEntity.class).getUuid().toString();
+
+        String etag = this.mockMvc.perform(get("/api/get/" + uuid))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(etag);
+
+        String body = this.mockMvc.perform(get("/api/get/" + uuid).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andReturn().getResponse().getContentAsString();
+        assertEquals("", body);
+    }
+
+    @Test
+    void getLecturesByIDModifiedTest() throws Exception {
+        String json = createLecture("/api/newLecture?name=test", createJson("Etag", time, 60));
+        LectureEntity lectureEntity = objectMapper.readValue(json, LectureEntity.class);
+        String uuid = lectureEntity.getUuid().toString();
+
+        String etag = this.mockMvc.perform(get("/api/get/" + uuid))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        closeLecture("/api/close/" + uuid + "/" + lectureEntity.getModkey());
+
+        String newEtag = this.mockMvc.perform(get("/api/get/" + uuid)
+                .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etag, newEtag);
+    }
+
     @Test
     void getLecturesByIDUnsuccessfulTest() throws Exception {
         createLecture("/api/newLecture?name=test", createJson("mops", time, 60));
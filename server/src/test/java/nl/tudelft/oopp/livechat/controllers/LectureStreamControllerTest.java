@@ -0,0 +1,239 @@
+package nl.tudelft.oopp.livechat.controllers;
+
+import nl.tudelft.oopp.livechat.entities.LectureEntity;
+import nl.tudelft.oopp.livechat.entities.UserEntity;
+import nl.tudelft.oopp.livechat.entities.poll.PollEntity;
+import nl.tudelft.oopp.livechat.entities.poll.PollOptionEntity;
+import nl.tudelft.oopp.livechat.repositories.LectureRepository;
+import nl.tudelft.oopp.livechat.repositories.PollOptionRepository;
+import nl.tudelft.oopp.livechat.repositories.PollRepository;
+import nl.tudelft.oopp.livechat.repositories.UserLectureSpeedRepository;
+import nl.tudelft.oopp.livechat.repositories.UserPollVoteRepository;
+import nl.tudelft.oopp.livechat.repositories.UserRepository;
+import nl.tudelft.oopp.livechat.services.LectureStreamService;
+import nl.tudelft.oopp.livechat.services.PollTallyService;
+import nl.tudelft.oopp.livechat.services.QuestionService;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+
+/**
+ * Class for Lecture Stream Controller tests.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class LectureStreamControllerTest {
+
+    @Autowired
+    private LectureRepository lectureRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserLectureSpeedRepository speedRepository;
+
+    @Autowired
+    private QuestionService questionService;
+
+    @Autowired
+    private LectureStreamService lectureStreamService;
+
+    @Autowired
+    private PollRepository pollRepository;
+
+    @Autowired
+    private PollOptionRepository pollOptionRepository;
+
+    @Autowired
+    private UserPollVoteRepository userPollVoteRepository;
+
+    @Autowired
+    private PollTallyService pollTallyService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private static LectureEntity lecture;
+    private static final long uid = 3687326832764872L;
+    private static UserEntity user;
+
+    @BeforeAll
+    static void setup() {
+        lecture = new LectureEntity();
+        user = new UserEntity(uid, "Annibale",
+                new Timestamp(System.currentTimeMillis()), true, "Hidden", lecture.getUuid());
+    }
+
+    @BeforeEach
+    void setUp() {
+        lectureRepository.save(lecture);
+        userRepository.save(user);
+        speedRepository.deleteAllByLectureId(lecture.getUuid());
+    }
+
+    @AfterEach
+    void clear() {
+        speedRepository.deleteAllByLectureId(lecture.getUuid());
+        userRepository.deleteById(uid);
+        lectureRepository.deleteById(lecture.getUuid());
+    }
+
+    /**
+     * A helper method to open a stream of the lecture.
+     * @return the result of the request
+     * @throws Exception if something goes wrong
+     */
+    private MvcResult openStream() throws Exception {
+        return mockMvc.perform(get("/api/stream/" + lecture.getUuid()))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+    }
+
+    /**
+     * A helper method to create an open poll with two options in the lecture.
+     * @return the first option of the poll
+     */
+    private PollOptionEntity createPoll() {
+        PollEntity poll = new PollEntity(lecture.getUuid(), "Ketchup or mayonnaise?",
+                new Timestamp(System.currentTimeMillis()), 0, true);
+        pollRepository.save(poll);
+        PollOptionEntity option = new PollOptionEntity(poll.getId(), "Ketchup", 0, false);
+        pollOptionRepository.save(option);
+        pollOptionRepository.save(new PollOptionEntity(poll.getId(), "Mayonnaise", 0, true));
+        return option;
+    }
+
+    /**
+     * A helper method to remove the polls of the lecture.
+     */
+    private void removePolls() {
+        for (PollEntity poll : pollRepository.findAllByLectureIdOrderByTimeDesc(
+                lecture.getUuid())) {
+            userPollVoteRepository.deleteAllByPollId(poll.getId());
+            pollOptionRepository.deleteAll(pollOptionRepository.findAllByPollId(poll.getId()));
+            pollRepository.delete(poll);
+        }
+    }
+
+    /**
+     * A helper method to wait until the events written to the stream contain the text.
+     * @param result the result of the request opening the stream
+     * @param expected the expected text
+     * @return the events written to the stream
+     * @throws Exception if something goes wrong
+     */
+    private static String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = result.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            content = result.getResponse().getContentAsString();
+        }
+        return content;
+    }
+
+    @Test
+    void openStreamInitialStateTest() throws Exception {
+        final int subscribers = lectureStreamService.getSubscriberCount(lecture.getUuid());
+        String content = openStream().getResponse().getContentAsString();
+
+        assertTrue(content.contains("event:questions"));
+        assertTrue(content.contains("\"full\":true"));
+        assertTrue(content.contains("event:speed\ndata:[0,0]"));
+        assertFalse(content.contains("event:poll"));
+        assertEquals(subscribers + 1, lectureStreamService.getSubscriberCount(lecture.getUuid()));
+    }
+
+    @Test
+    void openStreamSpeedVoteTest() throws Exception {
+        MvcResult result = openStream();
+        mockMvc.perform(put("/api/vote/lectureSpeed?uid=" + uid + "&uuid=" + lecture.getUuid())
+                .content("faster")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        assertTrue(awaitContent(result, "event:speed\ndata:[1,0]")
+                .contains("event:speed\ndata:[1,0]"));
+    }
+
+    @Test
+    void openStreamQuestionChangesTest() throws Exception {
+        MvcResult result = openStream();
+        questionService.addQuestionRemoved(lecture.getUuid(), 42);
+
+        String content = awaitContent(result, "\"removed\":[42]");
+        assertTrue(content.contains("\"full\":false"));
+        assertTrue(content.contains("\"removed\":[42]"));
+    }
+
+    @Test
+    void openStreamNoLectureTest() throws Exception {
+        String result = mockMvc.perform(get("/api/stream/" + UUID.randomUUID()))
+                .andExpect(status().isNotFound())
+                .andReturn().getResponse().getErrorMessage();
+        assertEquals("Lecture not found", result);
+    }
+
+    @Test
+    void openTallyStreamVoteTest() throws Exception {
+        PollOptionEntity option = createPoll();
+        try {
+            MvcResult result = mockMvc.perform(get("/api/stream/poll/" + lecture.getUuid()
+                    + "/" + lecture.getModkey()))
+                    .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                    .andReturn();
+            assertTrue(result.getResponse().getContentAsString()
+                    .contains("event:tally\ndata:{\"pollId\":" + option.getPollId()
+                            + ",\"open\":true,\"votes\":0"));
+
+            mockMvc.perform(put("/api/poll/vote/" + uid + "/" + option.getId()))
+                    .andExpect(status().isOk());
+            pollTallyService.publishTallies();
+
+            String expected = "\"votes\":1,\"optionVotes\":{";
+            String content = awaitContent(result, expected);
+            assertTrue(content.contains(expected));
+            assertTrue(content.contains("\"" + option.getId() + "\":1"));
+        } finally {
+            removePolls();
+        }
+    }
+
+    @Test
+    void openTallyStreamNoPollTest() throws Exception {
+        final int subscribers = pollTallyService.getSubscriberCount(lecture.getUuid());
+        String content = mockMvc.perform(get("/api/stream/poll/" + lecture.getUuid()
+                + "/" + lecture.getModkey()))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn().getResponse().getContentAsString();
+
+        assertFalse(content.contains("event:tally"));
+        assertEquals(subscribers + 1, pollTallyService.getSubscriberCount(lecture.getUuid()));
+    }
+
+    @Test
+    void openTallyStreamWrongModkeyTest() throws Exception {
+        mockMvc.perform(get("/api/stream/poll/" + lecture.getUuid() + "/" + UUID.randomUUID()))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void openStreamInvalidUuidTest() throws Exception {
+        mockMvc.perform(get("/api/stream/" + "not-a-uuid"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,112 @@
+package nl.tudelft.oopp.livechat.controllers;
+
+import nl.tudelft.oopp.livechat.entities.LectureEntity;
+import nl.tudelft.oopp.livechat.repositories.LectureRepository;
+import nl.tudelft.oopp.livechat.services.LectureStreamService;
+import nl.tudelft.oopp.livechat.services.QuestionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.sql.Timestamp;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+
+/**
+ * Class for the tests of the lecture streams counting towards the limits
+ *     of the clients waiting for the changes of the lectures.
+ */
+@SpringBootTest(properties = {"lecture.waiters.max-per-lecture=1",
+    "lecture.waiters.max-total=2", "lecture.waiters.retry-after=7"})
+@AutoConfigureMockMvc
+class LectureStreamLimitTest {
+
+    @Autowired
+    private LectureRepository lectureRepository;
+
+    @Autowired
+    private QuestionService questionService;
+
+    @Autowired
+    private LectureStreamService lectureStreamService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private LectureEntity lecture1;
+
+    private LectureEntity lecture2;
+
+    private LectureEntity lecture3;
+
+    @BeforeEach
+    void setUp() {
+        lecture1 = lectureRepository.save(new LectureEntity("One", "Sebastian", new Timestamp(0)));
+        lecture2 = lectureRepository.save(new LectureEntity("Two", "Sebastian", new Timestamp(0)));
+        lecture3 = lectureRepository.save(
+                new LectureEntity("Three", "Sebastian", new Timestamp(0)));
+    }
+
+    @AfterEach
+    void clean() {
+        lectureRepository.deleteById(lecture1.getUuid());
+        lectureRepository.deleteById(lecture2.getUuid());
+        lectureRepository.deleteById(lecture3.getUuid());
+    }
+
+    @Test
+    void streamsCountTowardsLimitsTest() throws Exception {
+        final long rejected = questionService.getRejectedWaiterCount();
+        mockMvc.perform(get("/api/stream/" + lecture1.getUuid()))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted());
+
+        //the lecture already has as many clients as allowed
+        mockMvc.perform(get("/api/stream/" + lecture1.getUuid()))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "7"));
+        DeferredResult<ResponseEntity<byte[]>> waiter = new DeferredResult<>();
+        questionService.addLectureWaiter(lecture1.getUuid(),
+                questionService.getLectureVersion(lecture1.getUuid()), waiter);
+        assertBusy(waiter);
+
+        mockMvc.perform(get("/api/stream/" + lecture2.getUuid()))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted());
+        assertEquals(2, lectureStreamService.getSubscriberCount());
+
+        //all the lectures together already have as many clients as allowed
+        mockMvc.perform(get("/api/stream/" + lecture3.getUuid()))
+                .andExpect(status().isServiceUnavailable());
+        DeferredResult<ResponseEntity<byte[]>> other = new DeferredResult<>();
+        questionService.addLectureWaiter(lecture3.getUuid(),
+                questionService.getLectureVersion(lecture3.getUuid()), other);
+        assertBusy(other);
+
+        assertEquals(0, lectureStreamService.getSubscriberCount(lecture3.getUuid()));
+        assertEquals(0, questionService.getWaiterCount());
+        assertEquals(rejected + 4, questionService.getRejectedWaiterCount());
+    }
+
+    /**
+     * A helper method to check that a client has been turned away.
+     * @param waiter the deferred result of the client
+     */
+    private static void assertBusy(DeferredResult<ResponseEntity<byte[]>> waiter) {
+        assertTrue(waiter.hasResult());
+        ResponseEntity<?> response = (ResponseEntity<?>) waiter.getResult();
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("7", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+}
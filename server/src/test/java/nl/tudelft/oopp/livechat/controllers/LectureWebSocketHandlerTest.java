@@ -0,0 +1,199 @@
+package nl.tudelft.oopp.livechat.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import nl.tudelft.oopp.livechat.entities.LectureEntity;
+import nl.tudelft.oopp.livechat.entities.QuestionEntity;
+import nl.tudelft.oopp.livechat.entities.UserEntity;
+import nl.tudelft.oopp.livechat.repositories.LectureRepository;
+import nl.tudelft.oopp.livechat.repositories.QuestionRepository;
+import nl.tudelft.oopp.livechat.repositories.UserLectureSpeedRepository;
+import nl.tudelft.oopp.livechat.repositories.UserQuestionRepository;
+import nl.tudelft.oopp.livechat.repositories.UserRepository;
+import nl.tudelft.oopp.livechat.services.LectureSpeedAggregator;
+import nl.tudelft.oopp.livechat.services.QuestionVoteCounter;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Class for Lecture WebSocket Handler tests.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class LectureWebSocketHandlerTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private LectureRepository lectureRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private UserQuestionRepository userQuestionRepository;
+
+    @Autowired
+    private UserLectureSpeedRepository speedRepository;
+
+    @Autowired
+    private QuestionVoteCounter voteCounter;
+
+    @Autowired
+    private LectureSpeedAggregator speedAggregator;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static LectureEntity lecture;
+    private static UserEntity user;
+    private static QuestionEntity question;
+    private static final long uid = 7329832749823749L;
+
+    private WebSocketSession session;
+    private final BlockingQueue<String> acks = new LinkedBlockingQueue<>();
+
+    @BeforeAll
+    static void setup() {
+        lecture = new LectureEntity("WebSockets", "Sebastian", new Timestamp(0));
+        user = new UserEntity(uid, "Mauricio",
+                new Timestamp(System.currentTimeMillis()), true, "Hidden", lecture.getUuid());
+        question = new QuestionEntity(lecture.getUuid(), "Are we there yet?",
+                new Timestamp(System.currentTimeMillis()), uid);
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        lectureRepository.save(lecture);
+        userRepository.save(user);
+        questionRepository.save(question);
+        session = new StandardWebSocketClient().doHandshake(new TextWebSocketHandler() {
+            @Override
+            protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+                acks.add(message.getPayload());
+            }
+        }, "ws://localhost:" + port + "/api/ws").get(5, TimeUnit.SECONDS);
+    }
+
+    @AfterEach
+    void clear() throws Exception {
+        session.close();
+        userQuestionRepository.deleteAllByQuestionId(question.getId());
+        speedRepository.deleteAllByLectureId(lecture.getUuid());
+        questionRepository.deleteById(question.getId());
+        userRepository.deleteById(uid);
+        lectureRepository.deleteById(lecture.getUuid());
+    }
+
+    /**
+     * A helper method to send a message and wait for its acknowledgement.
+     * @param message the message to send
+     * @return the acknowledgement
+     * @throws Exception if something goes wrong
+     */
+    private JsonNode send(String message) throws Exception {
+        session.sendMessage(new TextMessage(message));
+        String ack = acks.poll(5, TimeUnit.SECONDS);
+        assertNotNull(ack);
+        return objectMapper.readTree(ack);
+    }
+
+    @Test
+    void upvoteSuccessfulTest() throws Exception {
+        JsonNode ack = send("{\"id\":1,\"action\":\"upvote\",\"qid\":" + question.getId()
+                + ",\"uid\":" + uid + "}");
+
+        assertEquals(1, ack.get("id").asLong());
+        assertEquals(0, ack.get("result").asInt());
+        voteCounter.flush();
+        assertEquals(1, questionRepository.findById(question.getId()).orElseThrow().getVotes());
+    }
+
+    @Test
+    void upvoteQuestionNotFoundTest() throws Exception {
+        JsonNode ack = send("{\"id\":2,\"action\":\"upvote\",\"qid\":1,\"uid\":" + uid + "}");
+
+        assertEquals(2, ack.get("id").asLong());
+        assertEquals(404, ack.get("status").asInt());
+        assertEquals("Question not found", ack.get("error").asText());
+    }
+
+    @Test
+    void speedSuccessfulTest() throws Exception {
+        JsonNode ack = send("{\"id\":3,\"action\":\"speed\",\"uid\":" + uid
+                + ",\"uuid\":\"" + lecture.getUuid() + "\",\"speed\":\"faster\"}");
+
+        assertEquals(0, ack.get("result").asInt());
+        speedAggregator.flush();
+        assertEquals(1, lectureRepository.findLectureEntityByUuid(lecture.getUuid())
+                .getFasterCount());
+    }
+
+    @Test
+    void statusSuccessfulTest() throws Exception {
+        JsonNode ack = send("{\"id\":4,\"action\":\"status\",\"status\":\"editing\",\"qid\":"
+                + question.getId() + ",\"uid\":" + uid + ",\"modkey\":\""
+                + lecture.getModkey() + "\"}");
+
+        assertEquals(0, ack.get("result").asInt());
+        assertEquals("editing",
+                questionRepository.findById(question.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void pollVoteNotFoundTest() throws Exception {
+        JsonNode ack = send("{\"id\":5,\"action\":\"pollVote\",\"uid\":" + uid
+                + ",\"optionId\":1}");
+
+        assertEquals(404, ack.get("status").asInt());
+    }
+
+    @Test
+    void unknownActionTest() throws Exception {
+        JsonNode ack = send("{\"id\":6,\"action\":\"dance\"}");
+
+        assertEquals(6, ack.get("id").asLong());
+        assertEquals(400, ack.get("status").asInt());
+    }
+
+    @Test
+    void invalidJsonTest() throws Exception {
+        JsonNode ack = send("not json");
+
+        assertEquals(400, ack.get("status").asInt());
+        assertEquals("Invalid request", ack.get("error").asText());
+    }
+
+    @Test
+    void invalidUuidTest() throws Exception {
+        JsonNode ack = send("{\"id\":7,\"action\":\"speed\",\"uid\":" + uid
+                + ",\"uuid\":\"nope\",\"speed\":\"faster\"}");
+
+        assertEquals(7, ack.get("id").asLong());
+        assertEquals(400, ack.get("status").asInt());
+    }
+
+    @Test
+    void missingParameterTest() throws Exception {
+        JsonNode ack = send("{\"id\":8,\"action\":\"upvote\",\"uid\":" + uid + "}");
+
+        assertEquals(400, ack.get("status").asInt());
+    }
+}
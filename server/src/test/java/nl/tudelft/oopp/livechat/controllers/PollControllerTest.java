@@ -12,6 +12,7 @@ import nl.tudelft.oopp.livechat.entities.poll.PollOptionEntity;
 import nl.tudelft.oopp.livechat.entities.poll.UserPollVoteTable;
 import nl.tudelft.oopp.livechat.repositories.*;
 import nl.tudelft.oopp.livechat.services.PollService;
+import nl.tudelft.oopp.livechat.services.PollVoteCounter;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -63,6 +64,9 @@ public class PollControllerTest {
     @Autowired
     private UserPollVoteRepository userPollVoteRepository;
 
+    @Autowired
+    private PollVoteCounter pollVoteCounter;
+
     @Autowired
     private LectureRepository lectureRepository;
 
@@ -275,6 +279,27 @@ public class PollControllerTest {
         });
     }
 
+    @Test
+    public void fetchPollAndOptionsStudentNotModifiedTest() throws Exception {
+        String etag = this.mockMvc
+                .perform(get("/api/poll/fetchStudent/" + lecture1.getUuid()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(etag);
+        this.mockMvc.perform(get("/api/poll/fetchStudent/" + lecture1.getUuid())
+                .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        this.mockMvc.perform(put("/api/poll/toggle/" + poll1.getId()
+                + "/" + lecture1.getModkey())).andExpect(status().isOk());
+
+        String newEtag = this.mockMvc.perform(get("/api/poll/fetchStudent/"
+                + lecture1.getUuid()).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etag, newEtag);
+    }
+
     @Test
     public void fetchPollAndOptionsStudentNoLectureTest() throws Exception {
         String result = this.mockMvc
@@ -355,11 +380,29 @@ public class PollControllerTest {
                 .andExpect(status().isOk())
                 .andReturn().getResponse().getContentAsString();
         assertEquals("0", result);
+        pollVoteCounter.flush();
         PollOptionEntity o = pollOptionRepository.findById(option1.getId());
         assertNotNull(o);
         assertEquals(option1.getVotes() + 1, o.getVotes());
     }
 
+    @Test
+    public void voteOnPollStudentNotModifiedTest() throws Exception {
+        String etag = this.mockMvc
+                .perform(get("/api/poll/fetchStudent/" + lecture1.getUuid()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        this.mockMvc.perform(put("/api/poll/vote/" + user1.getUid() + "/" + option1.getId()))
+                .andExpect(status().isOk());
+
+        //the votes are hidden from the students while the poll is open
+        this.mockMvc.perform(get("/api/poll/fetchStudent/" + lecture1.getUuid())
+                .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        pollVoteCounter.flush();
+    }
+
     @Test
     public void voteOnPollNotRegisteredTest() throws Exception {
         String result = this.mockMvc
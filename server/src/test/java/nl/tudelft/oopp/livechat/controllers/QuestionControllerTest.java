@@ -14,6 +14,7 @@ import nl.tudelft.oopp.livechat.repositories.UserQuestionRepository;
 import nl.tudelft.oopp.livechat.repositories.UserRepository;
 import nl.tudelft.oopp.livechat.services.LectureService;
 import nl.tudelft.oopp.livechat.services.QuestionService;
+import nl.tudelft.oopp.livechat.services.QuestionVoteCounter;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -30,13 +31,13 @@ import javax.servlet.AsyncContext;
 import javax.servlet.AsyncListener;
 import java.sql.Timestamp;
 import java.util.List;
-import java.util.Objects;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
@@ -71,6 +72,9 @@ class QuestionControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private QuestionVoteCounter voteCounter;
+
     private static final Timestamp time = new Timestamp(System.currentTimeMillis());
     private static final long uid1 = 1268346912741204312L;
     private static final long uid2 = 8976889685345625524L;
@@ -382,7 +386,101 @@ class QuestionControllerTest {
     }
 
     @Test
-    void fetchQuestionsTooMuchTimeThreadKilledTest() throws Exception {
+    void fetchQuestionsNotFirstTimeWaitsForChangeTest() throws Exception {
+        final MvcResult mvcResult = mockMvc.perform(get("/api/question/fetch?lid="
+                + lectureEntity1.getUuid() + "&firstTime=false"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        assertEquals(1, questionService.getLectureWaiterCount(lectureEntity1.getUuid()));
+
+        questionService.addLectureChanged(lectureEntity1.getUuid());
+        assertEquals(0, questionService.getLectureWaiterCount(lectureEntity1.getUuid()));
+
+        String result = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertTrue(result.contains(q1.getText()));
+    }
+
+    @Test
+    void fetchQuestionsOldVersionReturnsImmediatelyTest() throws Exception {
+        long version = questionService.getLectureVersion(lectureEntity1.getUuid());
+        questionService.addLectureChanged(lectureEntity1.getUuid());
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/question/fetch?lid="
+                + lectureEntity1.getUuid() + "&firstTime=false&version=" + version))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        assertEquals(0, questionService.getLectureWaiterCount(lectureEntity1.getUuid()));
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string(QuestionService.VERSION_HEADER,
+                        Long.toString(version + 1)));
+    }
+
+    @Test
+    void fetchQuestionsCurrentVersionWaitsTest() throws Exception {
+        long version = questionService.getLectureVersion(lectureEntity1.getUuid());
+
+        final MvcResult mvcResult = mockMvc.perform(get("/api/question/fetch?lid="
+                + lectureEntity1.getUuid() + "&firstTime=false&version=" + version))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        assertEquals(1, questionService.getLectureWaiterCount(lectureEntity1.getUuid()));
+
+        questionService.addLectureChanged(lectureEntity1.getUuid());
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string(QuestionService.VERSION_HEADER,
+                        Long.toString(version + 1)));
+    }
+
+    @Test
+    void fetchQuestionChangesWaitsForChangeTest() throws Exception {
+        long version = questionService.getLectureVersion(lectureEntity1.getUuid());
+
+        final MvcResult mvcResult = mockMvc.perform(get("/api/question/fetch?lid="
+                + lectureEntity1.getUuid() + "&since=" + version))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        assertEquals(1, questionService.getLectureWaiterCount(lectureEntity1.getUuid()));
+
+        questionService.addQuestionRemoved(lectureEntity1.getUuid(), q1.getId());
+        String result = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode changes = objectMapper.readTree(result);
+        assertEquals(version + 1, changes.get("version").asLong());
+        assertFalse(changes.get("full").asBoolean());
+        assertEquals(0, changes.get("questions").size());
+        assertEquals(q1.getId(), changes.get("removed").get(0).asLong());
+    }
+
+    @Test
+    void fetchQuestionChangesNoLectureTest() throws Exception {
+        String result = this.mockMvc.perform(get("/api/question/fetch?lid="
+                + UUID.randomUUID() + "&since=" + 1)).andExpect(status().isNotFound())
+                .andReturn().getResponse().getErrorMessage();
+        assertEquals("Lecture not found", result);
+    }
+
+    @Test
+    void fetchQuestionsFirstTimeVersionHeaderTest() throws Exception {
+        long version = questionService.getLectureVersion(lectureEntity1.getUuid());
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/question/fetch?lid="
+                + lectureEntity1.getUuid() + "&firstTime=true"))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string(QuestionService.VERSION_HEADER,
+                        Long.toString(version)));
+    }
+
+    @Test
+    void fetchQuestionsTimeoutRemovesWaiterTest() throws Exception {
         LectureEntity lectureEntity = new LectureEntity();
         lectureRepository.save(lectureEntity);
 
@@ -390,17 +488,21 @@ class QuestionControllerTest {
                 + lectureEntity.getUuid() + "&firstTime=false"))
                 .andExpect(MockMvcResultMatchers.request().asyncStarted())
                 .andReturn();
+        assertEquals(1, questionService.getLectureWaiterCount(lectureEntity.getUuid()));
 
-        Objects.requireNonNull(mvcResult.getRequest().getAsyncContext()).setTimeout(40000);
-
-        mockMvc.perform(asyncDispatch(mvcResult))
-                .andExpect(status().isGone())
-                .andExpect(content().string("Thread killed himself for too much time passing"));
+        MockAsyncContext ctx = (MockAsyncContext) mvcResult.getRequest().getAsyncContext();
+        assert ctx != null;
+        for (AsyncListener listener : ctx.getListeners()) {
+            listener.onTimeout(null);
+        }
+        for (AsyncListener listener : ctx.getListeners()) {
+            listener.onComplete(null);
+        }
+        assertEquals(0, questionService.getLectureWaiterCount(lectureEntity.getUuid()));
 
         lectureRepository.deleteById(lectureEntity.getUuid());
     }
 
-
     @Test
     void fetchQuestionsFakeIdTest() throws Exception {
         this.mockMvc.perform(get("/api/question/fetch?lid=" + "something_wrong"))
@@ -420,8 +522,16 @@ class QuestionControllerTest {
         questionRepository.deleteById(q1.getId());
         questionRepository.deleteById(q2.getId());
 
-        List<QuestionEntity> listLecture = getQuestions(lectureEntity1.getUuid().toString(), false);
-        assertEquals(0, listLecture.size());
+        MvcResult mvcResult = mockMvc.perform(get("/api/question/fetch?lid="
+                + lectureEntity1.getUuid() + "&firstTime=false"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        questionService.addLectureChanged(lectureEntity1.getUuid());
+
+        String listLecture = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals("[]", listLecture);
     }
 
     @Test
@@ -485,6 +595,7 @@ class QuestionControllerTest {
         int result = upvote(q1.getId(), q1.getOwnerId());
         assertEquals(0, result);
 
+        voteCounter.flush();
         listLecture = questionRepository.findAllByLectureId(lectureEntity1.getUuid());
 
         int newVotes = listLecture.get(0).getVotes();
@@ -503,6 +614,7 @@ class QuestionControllerTest {
         int result = upvote(q1.getId(), q1.getOwnerId());
         assertEquals(0, result);
 
+        voteCounter.flush();
         listLecture = questionRepository.findAllByLectureId(lectureEntity1.getUuid());
 
         int newVotes = listLecture.get(0).getVotes();
@@ -543,7 +655,7 @@ class QuestionControllerTest {
         assertEquals(0, result);
 
         QuestionEntity question1after = getQuestions(lectureEntity1.getUuid()
-                .toString(), false).get(0);
+                .toString(), true).get(0);
 
         assertNotNull(question1after);
         assertEquals(question1after.getText(), "this is the new text");
@@ -0,0 +1,161 @@
+package nl.tudelft.oopp.livechat.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import nl.tudelft.oopp.livechat.entities.LectureEntity;
+import nl.tudelft.oopp.livechat.repositories.LectureRepository;
+import nl.tudelft.oopp.livechat.services.QuestionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import reactor.netty.DisposableServer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Class for the tests of the fetch endpoints of the reactive server.
+ */
+@SpringBootTest(properties = {"reactive.enabled=true", "reactive.port=0"})
+class ReactiveFetchHandlerTest {
+
+    @Autowired
+    private DisposableServer reactiveFetchServer;
+
+    @Autowired
+    private LectureRepository lectureRepository;
+
+    @Autowired
+    private QuestionService questionService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private LectureEntity lecture;
+
+    @BeforeEach
+    void setUp() {
+        lecture = lectureRepository.save(
+                new LectureEntity("Reactive", "Sebastian", new Timestamp(0)));
+    }
+
+    @AfterEach
+    void clean() {
+        lectureRepository.deleteById(lecture.getUuid());
+    }
+
+    /**
+     * A helper method to send a GET request to the reactive server.
+     * @param path the path and query of the request
+     * @param etag the ETag seen by the client, null if none
+     * @return the pending response
+     */
+    private CompletableFuture<HttpResponse<String>> get(String path, String etag) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + reactiveFetchServer.port() + path));
+        if (etag != null) {
+            request.header("If-None-Match", etag);
+        }
+        return client.sendAsync(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * A helper method to send a GET request to the reactive server and wait for the response.
+     * @param path the path and query of the request
+     * @return the response
+     */
+    private HttpResponse<String> get(String path) throws Exception {
+        return get(path, null).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void fetchQuestionsFirstTimeTest() throws Exception {
+        HttpResponse<String> response = get("/api/question/fetch?lid="
+                + lecture.getUuid() + "&firstTime=true");
+
+        assertEquals(200, response.statusCode());
+        assertEquals("[]", response.body());
+        assertEquals(Long.toString(questionService.getLectureVersion(lecture.getUuid())),
+                response.headers().firstValue(QuestionService.VERSION_HEADER).orElseThrow());
+    }
+
+    @Test
+    void fetchQuestionsWaitsForChangeTest() throws Exception {
+        UUID lid = lecture.getUuid();
+        long version = questionService.getLectureVersion(lid);
+        CompletableFuture<HttpResponse<String>> pending =
+                get("/api/question/fetch?lid=" + lid + "&since=" + version, null);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (questionService.getLectureWaiterCount(lid) == 0
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, questionService.getLectureWaiterCount(lid));
+        assertFalse(pending.isDone());
+
+        questionService.addLectureChanged(lid);
+
+        HttpResponse<String> response = pending.get(5, TimeUnit.SECONDS);
+        assertEquals(200, response.statusCode());
+        JsonNode changes = objectMapper.readTree(response.body());
+        assertEquals(version + 1, changes.get("version").asLong());
+        assertEquals(0, questionService.getLectureWaiterCount(lid));
+    }
+
+    @Test
+    void fetchQuestionsLectureNotFoundTest() throws Exception {
+        assertEquals(404, get("/api/question/fetch?lid=" + UUID.randomUUID()
+                + "&firstTime=true").statusCode());
+    }
+
+    @Test
+    void fetchQuestionsBadParameterTest() throws Exception {
+        assertEquals(400, get("/api/question/fetch?lid=notauuid&firstTime=true").statusCode());
+        assertEquals(400, get("/api/question/fetch?firstTime=true").statusCode());
+    }
+
+    @Test
+    void getLectureSpeedNotModifiedTest() throws Exception {
+        HttpResponse<String> response = get("/api/vote/getLectureSpeed/" + lecture.getUuid());
+        assertEquals(200, response.statusCode());
+        assertEquals("[0,0]", response.body());
+        String etag = response.headers().firstValue("ETag").orElseThrow();
+
+        HttpResponse<String> again = get("/api/vote/getLectureSpeed/" + lecture.getUuid(), etag)
+                .get(5, TimeUnit.SECONDS);
+        assertEquals(304, again.statusCode());
+    }
+
+    @Test
+    void fetchPollStudentNotFoundTest() throws Exception {
+        assertEquals(404, get("/api/poll/fetchStudent/" + lecture.getUuid()).statusCode());
+    }
+
+    @Test
+    void getLectureTest() throws Exception {
+        HttpResponse<String> response = get("/api/get/" + lecture.getUuid());
+
+        assertEquals(200, response.statusCode());
+        JsonNode json = objectMapper.readTree(response.body());
+        assertEquals(lecture.getUuid().toString(), json.get("uuid").asText());
+        assertEquals("Reactive", json.get("name").asText());
+        assertTrue(json.get("modkey").isNull());
+    }
+
+    @Test
+    void getLectureNotFoundTest() throws Exception {
+        assertEquals(404, get("/api/get/" + UUID.randomUUID()).statusCode());
+    }
+}
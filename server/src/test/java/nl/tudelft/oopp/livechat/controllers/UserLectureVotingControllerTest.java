@@ -3,12 +3,14 @@ package nl.tudelft.oopp.livechat.controllers;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import nl.tudelft.oopp.livechat.entities.LectureEntity;
+import nl.tudelft.oopp.livechat.entities.LectureSpeedPoint;
 import nl.tudelft.oopp.livechat.entities.UserEntity;
 
 import static org.junit.jupiter.api.Assertions.*;
 import nl.tudelft.oopp.livechat.repositories.LectureRepository;
 import nl.tudelft.oopp.livechat.repositories.UserLectureSpeedRepository;
 import nl.tudelft.oopp.livechat.repositories.UserRepository;
+import nl.tudelft.oopp.livechat.services.LectureSpeedAggregator;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -40,6 +42,9 @@ class UserLectureVotingControllerTest {
     @Autowired
     private UserLectureSpeedRepository speedRepository;
 
+    @Autowired
+    private LectureSpeedAggregator speedAggregator;
+
     private static UUID uuid;
     private static final long uid1 = 526613476247652L;
     private static final long uid2 = 47687683243663L;
@@ -85,7 +90,7 @@ class UserLectureVotingControllerTest {
         userRepository.save(user1);
         userRepository.save(user2);
 
-        speedRepository.deleteAllByLectureId(lecture.getUuid());
+        speedAggregator.reset(lecture.getUuid());
     }
 
     @AfterEach
@@ -100,6 +105,7 @@ class UserLectureVotingControllerTest {
         String result = vote("/api/vote/lectureSpeed?uid="
                     + uid1 + "&uuid=" + uuid, "slower");
         assertEquals("0", result);
+        speedAggregator.flush();
         assertFalse(speedRepository.findAllByLectureId(uuid).isEmpty());
     }
 
@@ -108,6 +114,7 @@ class UserLectureVotingControllerTest {
         String result = vote("/api/vote/lectureSpeed?uid="
                 + uid1 + "&uuid=" + uuid, "faster");
         assertEquals("0", result);
+        speedAggregator.flush();
         assertFalse(speedRepository.findAllByLectureId(uuid).isEmpty());
     }
 
@@ -118,6 +125,7 @@ class UserLectureVotingControllerTest {
         String result = vote("/api/vote/lectureSpeed?uid="
                 + uid1 + "&uuid=" + uuid, "faster");
         assertEquals("0", result);
+        speedAggregator.flush();
         assertTrue(speedRepository.findAllByLectureId(uuid).isEmpty());
     }
 
@@ -128,6 +136,7 @@ class UserLectureVotingControllerTest {
         String result = vote("/api/vote/lectureSpeed?uid="
                 + uid1 + "&uuid=" + uuid, "slower");
         assertEquals("0", result);
+        speedAggregator.flush();
         assertFalse(speedRepository.findAllByLectureId(uuid).isEmpty());
     }
 
@@ -140,6 +149,7 @@ class UserLectureVotingControllerTest {
                 .andExpect(status().isForbidden())
                 .andReturn().getResponse().getErrorMessage();
         assertEquals("This user is not in the specified lecture", result);
+        speedAggregator.flush();
         assertTrue(speedRepository.findAllByLectureId(uuid).isEmpty());
     }
 
@@ -152,6 +162,7 @@ class UserLectureVotingControllerTest {
                 .andExpect(status().isBadRequest())
                 .andReturn().getResponse().getContentAsString();
         assertEquals("UUID is not in the correct format", result);
+        speedAggregator.flush();
         assertTrue(speedRepository.findAllByLectureId(uuid).isEmpty());
     }
 
@@ -167,6 +178,7 @@ class UserLectureVotingControllerTest {
                 .andExpect(status().isOk())
                 .andReturn().getResponse().getContentAsString();
         assertEquals("0", result);
+        speedAggregator.flush();
         assertTrue(speedRepository.findAllByLectureId(uuid).isEmpty());
     }
 
@@ -182,6 +194,7 @@ class UserLectureVotingControllerTest {
                 .andExpect(status().isUnauthorized())
                 .andReturn().getResponse().getErrorMessage();
         assertEquals("Wrong modkey, don't do this", result);
+        speedAggregator.flush();
         assertFalse(speedRepository.findAllByLectureId(uuid).isEmpty());
     }
 
@@ -197,6 +210,7 @@ class UserLectureVotingControllerTest {
                 .andExpect(status().isBadRequest())
                 .andReturn().getResponse().getContentAsString();
         assertEquals("UUID is not in the correct format", result);
+        speedAggregator.flush();
         assertFalse(speedRepository.findAllByLectureId(uuid).isEmpty());
     }
 
@@ -217,6 +231,48 @@ class UserLectureVotingControllerTest {
         assertEquals(List.of(1,1), list);
     }
 
+    @Test
+    public void getVotesNotModifiedTest() throws Exception {
+        String etag = mockMvc.perform(get("/api/vote/getLectureSpeed/" + uuid))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(etag);
+        mockMvc.perform(get("/api/vote/getLectureSpeed/" + uuid).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        vote("/api/vote/lectureSpeed?uid="
+                + uid1 + "&uuid=" + uuid, "faster");
+
+        String result = mockMvc.perform(get("/api/vote/getLectureSpeed/" + uuid)
+                .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals("[1,0]", result);
+    }
+
+    @Test
+    public void getHistorySuccessfulTest() throws Exception {
+        vote("/api/vote/lectureSpeed?uid="
+                + uid1 + "&uuid=" + uuid, "faster");
+
+        String result = mockMvc.perform(get("/api/vote/getLectureSpeedHistory/"
+                + uuid + "/" + lecture.getModkey() + "?window=60000"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<LectureSpeedPoint> history = new ObjectMapper().readValue(result,
+                new TypeReference<List<LectureSpeedPoint>>() {});
+        LectureSpeedPoint current = history.get(history.size() - 1);
+        assertEquals(1, current.getFaster());
+        assertEquals(0, current.getSlower());
+        assertTrue(current.getVotes() > 0);
+    }
+
+    @Test
+    public void getHistoryWrongModKeyTest() throws Exception {
+        mockMvc.perform(get("/api/vote/getLectureSpeedHistory/" + uuid + "/" + uuid))
+                .andExpect(status().isUnauthorized());
+    }
+
     @Test
     public void getVotesUnsuccessfulTest() throws Exception {
         lectureRepository.deleteById(uuid);
@@ -0,0 +1,88 @@
+package nl.tudelft.oopp.livechat.entities;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActiveUserTest {
+    private static final UUID lid = UUID.randomUUID();
+    private static final Timestamp lastTime = new Timestamp(60000);
+    private static UserEntity userEntity;
+    private static ActiveUser user;
+
+    @BeforeAll
+    static void setUp() {
+        userEntity = new UserEntity(42, "root", lastTime, true, "192.168.1.1", lid);
+        user = new ActiveUser(userEntity);
+    }
+
+    @Test
+    void getUidTest() {
+        assertEquals(42, user.getUid());
+    }
+
+    @Test
+    void getUserNameTest() {
+        assertEquals("root", user.getUserName());
+    }
+
+    @Test
+    void getLectureIdTest() {
+        assertEquals(lid, user.getLectureId());
+    }
+
+    @Test
+    void isAllowedTest() {
+        assertTrue(user.isAllowed());
+    }
+
+    @Test
+    void isAllowedBannedTest() {
+        UserEntity banned = new UserEntity(43, "root", lastTime, false, "192.168.1.1", lid);
+        assertFalse(new ActiveUser(banned).isAllowed());
+    }
+
+    @Test
+    void getLastQuestionTest() {
+        assertEquals(lastTime, user.getLastQuestion());
+    }
+
+    @Test
+    void getLastQuestionNullTest() {
+        UserEntity noQuestion = new UserEntity(44, "root", null, true, "192.168.1.1", lid);
+        assertNull(new ActiveUser(noQuestion).getLastQuestion());
+    }
+
+    @Test
+    void getLastQuestionCopyTest() {
+        user.getLastQuestion().setTime(120000);
+        assertEquals(lastTime, user.getLastQuestion());
+    }
+
+    @Test
+    void withLastQuestionTest() {
+        ActiveUser asked = user.withLastQuestion(new Timestamp(120000));
+        assertEquals(new Timestamp(120000), asked.getLastQuestion());
+        assertEquals(user.getUid(), asked.getUid());
+        assertEquals(user.getUserName(), asked.getUserName());
+        assertEquals(user.getLectureId(), asked.getLectureId());
+        assertEquals(user.isAllowed(), asked.isAllowed());
+
+        assertEquals(lastTime, user.getLastQuestion());
+    }
+
+    @Test
+    void unchangedByUserTest() {
+        UserEntity changed = new UserEntity(45, "root", lastTime, true, "192.168.1.1", lid);
+        ActiveUser u = new ActiveUser(changed);
+        changed.setAllowed(false);
+        changed.setUserName("admin");
+
+        assertTrue(u.isAllowed());
+        assertEquals("root", u.getUserName());
+    }
+}
@@ -0,0 +1,74 @@
+package nl.tudelft.oopp.livechat.entities;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LectureMetadataTest {
+    private static LectureEntity lecture;
+    private static LectureMetadata metadata;
+
+    @BeforeAll
+    static void setUp() {
+        lecture = new LectureEntity("Names", "Jegor", new Timestamp(60000));
+        lecture.setFrequency(30);
+        metadata = new LectureMetadata(lecture);
+    }
+
+    @Test
+    void getUuidTest() {
+        assertEquals(lecture.getUuid(), metadata.getUuid());
+    }
+
+    @Test
+    void getModkeyTest() {
+        assertEquals(lecture.getModkey(), metadata.getModkey());
+    }
+
+    @Test
+    void isOpenTest() {
+        assertTrue(metadata.isOpen());
+    }
+
+    @Test
+    void isOpenClosedTest() {
+        LectureEntity closed = new LectureEntity("Names", "Jegor", new Timestamp(60000));
+        closed.close();
+        assertFalse(new LectureMetadata(closed).isOpen());
+    }
+
+    @Test
+    void getStartTimeTest() {
+        assertEquals(new Timestamp(60000), metadata.getStartTime());
+    }
+
+    @Test
+    void getStartTimeCopyTest() {
+        metadata.getStartTime().setTime(120000);
+        assertEquals(new Timestamp(60000), metadata.getStartTime());
+    }
+
+    @Test
+    void getStartTimeNullTest() {
+        assertNull(new LectureMetadata(new LectureEntity()).getStartTime());
+    }
+
+    @Test
+    void getFrequencyTest() {
+        assertEquals(30, metadata.getFrequency());
+    }
+
+    @Test
+    void unchangedByLectureTest() {
+        LectureEntity changed = new LectureEntity("Names", "Jegor", new Timestamp(60000));
+        LectureMetadata m = new LectureMetadata(changed);
+        changed.setFrequency(5);
+        changed.close();
+
+        assertEquals(60, m.getFrequency());
+        assertTrue(m.isOpen());
+    }
+}
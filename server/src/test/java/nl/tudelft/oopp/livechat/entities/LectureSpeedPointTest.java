@@ -0,0 +1,100 @@
+package nl.tudelft.oopp.livechat.entities;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LectureSpeedPointTest {
+    private static LectureSpeedPoint point;
+
+    @BeforeAll
+    static void setUp() {
+        point = new LectureSpeedPoint(60000, 3, 1, 5);
+    }
+
+    @Test
+    void emptyConstructorTest() {
+        LectureSpeedPoint p = new LectureSpeedPoint();
+        assertNotNull(p);
+    }
+
+    @Test
+    void getTimeTest() {
+        assertEquals(60000, point.getTime());
+    }
+
+    @Test
+    void setTimeTest() {
+        point.setTime(120000);
+        assertEquals(120000, point.getTime());
+
+        point.setTime(60000);
+    }
+
+    @Test
+    void getFasterTest() {
+        assertEquals(3, point.getFaster());
+    }
+
+    @Test
+    void setFasterTest() {
+        point.setFaster(4);
+        assertEquals(4, point.getFaster());
+
+        point.setFaster(3);
+    }
+
+    @Test
+    void getSlowerTest() {
+        assertEquals(1, point.getSlower());
+    }
+
+    @Test
+    void setSlowerTest() {
+        point.setSlower(2);
+        assertEquals(2, point.getSlower());
+
+        point.setSlower(1);
+    }
+
+    @Test
+    void getVotesTest() {
+        assertEquals(5, point.getVotes());
+    }
+
+    @Test
+    void setVotesTest() {
+        point.setVotes(6);
+        assertEquals(6, point.getVotes());
+
+        point.setVotes(5);
+    }
+
+    @Test
+    void equalsSameTest() {
+        assertEquals(point, point);
+    }
+
+    @Test
+    void equalsEqualTest() {
+        assertEquals(new LectureSpeedPoint(60000, 3, 1, 5), point);
+    }
+
+    @Test
+    void equalsDifferentTest() {
+        assertNotEquals(new LectureSpeedPoint(60000, 3, 2, 5), point);
+    }
+
+    @Test
+    void equalsDifferentClassTest() {
+        assertNotEquals(point, "point");
+    }
+
+    @Test
+    void hashCodeTest() {
+        assertEquals(Objects.hash(60000L, 3, 1, 5), point.hashCode());
+    }
+}
@@ -0,0 +1,123 @@
+package nl.tudelft.oopp.livechat.entities;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuestionChangesTest {
+    private static QuestionEntity question;
+    private static QuestionChanges changes;
+    private static final UUID lid = UUID.randomUUID();
+    private static final Timestamp time = new Timestamp(System.currentTimeMillis());
+
+    @BeforeAll
+    static void setUp() {
+        question = new QuestionEntity(lid, "Is there a lecture next week?", time, 42);
+        changes = new QuestionChanges(7, false, List.of(question), List.of(3L));
+    }
+
+    @Test
+    void emptyConstructorTest() {
+        QuestionChanges c = new QuestionChanges();
+        assertNotNull(c);
+    }
+
+    @Test
+    void constructorTest() {
+        assertNotNull(changes);
+    }
+
+    @Test
+    void getVersionTest() {
+        assertEquals(7, changes.getVersion());
+    }
+
+    @Test
+    void setVersionTest() {
+        changes.setVersion(8);
+        assertEquals(8, changes.getVersion());
+
+        changes.setVersion(7);
+    }
+
+    @Test
+    void isFullTest() {
+        assertFalse(changes.isFull());
+    }
+
+    @Test
+    void setFullTest() {
+        changes.setFull(true);
+        assertTrue(changes.isFull());
+
+        changes.setFull(false);
+    }
+
+    @Test
+    void getQuestionsTest() {
+        assertEquals(List.of(question), changes.getQuestions());
+    }
+
+    @Test
+    void setQuestionsTest() {
+        QuestionEntity q = new QuestionEntity(lid, "Will it be recorded?", time, 43);
+        changes.setQuestions(List.of(q));
+        assertEquals(List.of(q), changes.getQuestions());
+
+        changes.setQuestions(List.of(question));
+    }
+
+    @Test
+    void getRemovedTest() {
+        assertEquals(List.of(3L), changes.getRemoved());
+    }
+
+    @Test
+    void setRemovedTest() {
+        changes.setRemoved(List.of(4L, 5L));
+        assertEquals(List.of(4L, 5L), changes.getRemoved());
+
+        changes.setRemoved(List.of(3L));
+    }
+
+    @Test
+    void equalsNullTest() {
+        assertNotEquals(changes, null);
+    }
+
+    @Test
+    void equalsSameTest() {
+        assertEquals(changes, changes);
+    }
+
+    @Test
+    void equalsEqualTest() {
+        QuestionChanges c = new QuestionChanges(7, false, List.of(question), List.of(3L));
+        assertEquals(changes, c);
+    }
+
+    @Test
+    void equalsDifferentVersionTest() {
+        QuestionChanges c = new QuestionChanges(6, false, List.of(question), List.of(3L));
+        assertNotEquals(changes, c);
+    }
+
+    @Test
+    void equalsDifferentRemovedTest() {
+        QuestionChanges c = new QuestionChanges(7, false, List.of(question), List.of());
+        assertNotEquals(changes, c);
+    }
+
+    @Test
+    void hashCodeTest() {
+        int hash = Objects.hash(changes.getVersion(), changes.isFull(),
+                changes.getQuestions(), changes.getRemoved());
+        assertEquals(hash, changes.hashCode());
+    }
+}
@@ -50,6 +50,17 @@ class QuestionEntityTest {
         assertNotNull(question);
     }
 
+    @Test
+    void copyConstructorTest() {
+        QuestionEntity copy = new QuestionEntity(questionEntity);
+        assertEquals(questionEntity, copy);
+        assertNotSame(questionEntity, copy);
+        assertEquals(questionEntity.getText(), copy.getText());
+        assertEquals(questionEntity.getOwnerName(), copy.getOwnerName());
+        assertEquals(questionEntity.getEditorId(), copy.getEditorId());
+        assertEquals(questionEntity.getAnswerTime(), copy.getAnswerTime());
+    }
+
     @Test
     void getIdTest() {
         assertEquals(14512412354553456L, questionEntity.getId());
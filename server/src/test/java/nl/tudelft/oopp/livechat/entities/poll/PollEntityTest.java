@@ -31,6 +31,15 @@ class PollEntityTest {
         assertNotNull(pollEntity);
     }
 
+    @Test
+    void copyConstructorTest() {
+        PollEntity p = new PollEntity(pollEntity, 14);
+        assertEquals(pollEntity.getId(), p.getId());
+        assertEquals(pollEntity.getQuestionText(), p.getQuestionText());
+        assertEquals(pollEntity.isOpen(), p.isOpen());
+        assertEquals(14, p.getVotes());
+    }
+
     @Test
     void partialConstructorTest() {
         PollEntity p = new PollEntity(lid, "What would you do if a seagull entered in your house?");
@@ -26,6 +26,16 @@ class PollOptionEntityTest {
         assertNotNull(pollOptionEntity);
     }
 
+    @Test
+    void copyConstructorTest() {
+        PollOptionEntity p = new PollOptionEntity(pollOptionEntity, 0, false);
+        assertEquals(pollOptionEntity.getId(), p.getId());
+        assertEquals(pollOptionEntity.getPollId(), p.getPollId());
+        assertEquals(pollOptionEntity.getOptionText(), p.getOptionText());
+        assertEquals(0, p.getVotes());
+        assertFalse(p.isCorrect());
+    }
+
     @Test
     void getIdTest() {
         assertTrue(pollOptionEntity.getId() >= 0);
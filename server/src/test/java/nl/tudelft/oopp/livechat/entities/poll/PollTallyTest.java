@@ -0,0 +1,101 @@
+package nl.tudelft.oopp.livechat.entities.poll;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PollTallyTest {
+    private static PollTally tally;
+
+    @BeforeAll
+    static void setUp() {
+        tally = new PollTally(42, true, 10, Map.of(1L, 3L, 2L, 7L));
+    }
+
+    @Test
+    void emptyConstructorTest() {
+        PollTally t = new PollTally();
+        assertNotNull(t);
+    }
+
+    @Test
+    void getPollIdTest() {
+        assertEquals(42, tally.getPollId());
+    }
+
+    @Test
+    void setPollIdTest() {
+        tally.setPollId(43);
+        assertEquals(43, tally.getPollId());
+
+        tally.setPollId(42);
+    }
+
+    @Test
+    void isOpenTest() {
+        assertTrue(tally.isOpen());
+    }
+
+    @Test
+    void setOpenTest() {
+        tally.setOpen(false);
+        assertFalse(tally.isOpen());
+
+        tally.setOpen(true);
+    }
+
+    @Test
+    void getVotesTest() {
+        assertEquals(10, tally.getVotes());
+    }
+
+    @Test
+    void setVotesTest() {
+        tally.setVotes(11);
+        assertEquals(11, tally.getVotes());
+
+        tally.setVotes(10);
+    }
+
+    @Test
+    void getOptionVotesTest() {
+        assertEquals(Map.of(1L, 3L, 2L, 7L), tally.getOptionVotes());
+    }
+
+    @Test
+    void setOptionVotesTest() {
+        tally.setOptionVotes(Map.of(1L, 4L));
+        assertEquals(Map.of(1L, 4L), tally.getOptionVotes());
+
+        tally.setOptionVotes(Map.of(1L, 3L, 2L, 7L));
+    }
+
+    @Test
+    void equalsSameTest() {
+        assertEquals(tally, tally);
+    }
+
+    @Test
+    void equalsEqualTest() {
+        assertEquals(new PollTally(42, true, 10, Map.of(1L, 3L, 2L, 7L)), tally);
+    }
+
+    @Test
+    void equalsDifferentTest() {
+        assertNotEquals(new PollTally(42, true, 10, Map.of(1L, 4L, 2L, 6L)), tally);
+    }
+
+    @Test
+    void equalsDifferentClassTest() {
+        assertNotEquals(tally, "tally");
+    }
+
+    @Test
+    void hashCodeTest() {
+        assertEquals(Objects.hash(42L, true, 10L, Map.of(1L, 3L, 2L, 7L)), tally.hashCode());
+    }
+}
@@ -0,0 +1,112 @@
+package nl.tudelft.oopp.livechat.repositories;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.UUID;
+
+import static java.util.Map.entry;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the queries of the repositories which filter on other columns than the id
+ *     are answered by an index, by looking at the plans of the database.
+ *     The queries are the SQL equivalents of the derived queries.
+ *     The Postgres check runs only if LIVECHAT_POSTGRES_URL (and LIVECHAT_POSTGRES_USER,
+ *     LIVECHAT_POSTGRES_PASS) point to a database whose schema has been created by the server.
+ */
+@SpringBootTest
+class QueryIndexTest {
+
+    private static final UUID LECTURE_ID = UUID.randomUUID();
+
+    /**
+     * The queries (with the value of their parameter), one for every derived query
+     *     filtering on a column other than the id.
+     */
+    private static final Map<String, Object> QUERIES = Map.ofEntries(
+            //QuestionRepository.findAllByLectureId
+            entry("SELECT * FROM questions WHERE lecture_id = ?", LECTURE_ID),
+            //QuestionRepository.findAllByOwnerId
+            entry("SELECT * FROM questions WHERE owner_id = ?", 1L),
+            //UserRepository.countAllByIp
+            entry("SELECT COUNT(*) FROM users WHERE ip = ?", "127.0.0.1"),
+            //UserRepository.findAllByIp
+            entry("SELECT * FROM users WHERE ip = ?", "127.0.0.1"),
+            //UserPollVoteRepository.findAllByUserId
+            entry("SELECT * FROM user_poll_vote WHERE user_id = ?", 1L),
+            //UserPollVoteRepository.findAllByPollId and deleteAllByPollId
+            entry("SELECT * FROM user_poll_vote WHERE poll_id = ?", 1L),
+            //UserPollVoteRepository.deleteAllByOptionId
+            entry("SELECT * FROM user_poll_vote WHERE option_id = ?", 1L),
+            //PollRepository.findAllByLectureIdOrderByTimeDesc and findFirstByLectureId...
+            entry("SELECT * FROM polls WHERE lecture_id = ? ORDER BY time DESC", LECTURE_ID),
+            //PollOptionRepository.findAllByPollId and resetVotes
+            entry("SELECT * FROM poll_options WHERE poll_id = ?", 1L),
+            //UserLectureSpeedRepository.findAllByLectureId and deleteAllByLectureId
+            entry("SELECT * FROM user_lecture_speed_table WHERE lecture_id = ?", LECTURE_ID),
+            //UserQuestionRepository.getAllByQuestionId and deleteAllByQuestionId
+            entry("SELECT * FROM userquestion WHERE question_id = ?", 1L));
+
+    @Autowired
+    private DataSource dataSource;
+
+    /**
+     * A helper method to get the plan of the query.
+     * @param connection the connection to the database
+     * @param query the query
+     * @param parameter the value of the parameter of the query
+     * @return the plan of the query (all the lines)
+     * @throws SQLException if the query can not be explained
+     */
+    private static String explain(Connection connection, String query, Object parameter)
+            throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + query)) {
+            statement.setObject(1, parameter);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+            }
+        }
+        return plan.toString();
+    }
+
+    @Test
+    void h2IndexTest() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            for (Map.Entry<String, Object> query : QUERIES.entrySet()) {
+                String plan = explain(connection, query.getKey(), query.getValue());
+                assertFalse(plan.contains("tableScan"), query.getKey() + "\n" + plan);
+            }
+        }
+    }
+
+    @Test
+    @EnabledIfEnvironmentVariable(named = "LIVECHAT_POSTGRES_URL", matches = ".+")
+    void postgresIndexTest() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(
+                System.getenv("LIVECHAT_POSTGRES_URL"), System.getenv("LIVECHAT_POSTGRES_USER"),
+                System.getenv("LIVECHAT_POSTGRES_PASS"))) {
+            //the tables are small, so a sequential scan is only used if no index fits
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET enable_seqscan = off");
+            }
+            for (Map.Entry<String, Object> query : QUERIES.entrySet()) {
+                String plan = explain(connection, query.getKey(), query.getValue());
+                assertFalse(plan.contains("Seq Scan"), query.getKey() + "\n" + plan);
+            }
+        }
+    }
+}
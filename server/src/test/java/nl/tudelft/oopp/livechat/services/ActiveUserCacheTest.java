@@ -0,0 +1,129 @@
+package nl.tudelft.oopp.livechat.services;
+
+import nl.tudelft.oopp.livechat.entities.ActiveUser;
+import nl.tudelft.oopp.livechat.entities.LectureEntity;
+import nl.tudelft.oopp.livechat.entities.UserEntity;
+import nl.tudelft.oopp.livechat.repositories.LectureRepository;
+import nl.tudelft.oopp.livechat.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.sql.Timestamp;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ActiveUserCacheTest {
+    private static final long uid = 4242424242L;
+    private static final Timestamp time = new Timestamp(System.currentTimeMillis());
+
+    @Autowired
+    private ActiveUserCache activeUserCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LectureRepository lectureRepository;
+
+    private LectureEntity lecture;
+
+    @BeforeEach
+    void setUp() {
+        lecture = lectureRepository.save(new LectureEntity("Names", "Jegor", time));
+        userRepository.save(new UserEntity(uid, "root", null, true, "0.0.0.0",
+                lecture.getUuid()));
+    }
+
+    @AfterEach
+    void clean() {
+        if (userRepository.findById(uid).isPresent()) {
+            userRepository.deleteById(uid);
+        }
+        if (lectureRepository.findLectureEntityByUuid(lecture.getUuid()) != null) {
+            lectureRepository.deleteById(lecture.getUuid());
+        }
+    }
+
+    @Test
+    void getTest() {
+        ActiveUser user = activeUserCache.get(uid);
+        assertEquals(uid, user.getUid());
+        assertEquals("root", user.getUserName());
+        assertEquals(lecture.getUuid(), user.getLectureId());
+        assertTrue(user.isAllowed());
+        assertNull(user.getLastQuestion());
+    }
+
+    @Test
+    void getSharedTest() {
+        assertSame(activeUserCache.get(uid), activeUserCache.get(uid));
+    }
+
+    @Test
+    void getNotRegisteredTest() {
+        assertNull(activeUserCache.get(uid + 1));
+    }
+
+    @Test
+    void getAfterSaveTest() {
+        assertTrue(activeUserCache.get(uid).isAllowed());
+        UserEntity user = userRepository.getUserEntityByUid(uid);
+        user.setAllowed(false);
+        userRepository.save(user);
+
+        assertFalse(activeUserCache.get(uid).isAllowed());
+    }
+
+    @Test
+    void getAfterRemoveTest() {
+        assertNotNull(activeUserCache.get(uid));
+        userRepository.deleteById(uid);
+
+        assertNull(activeUserCache.get(uid));
+    }
+
+    @Test
+    void questionAskedTest() {
+        activeUserCache.get(uid);
+        Timestamp asked = new Timestamp(60000);
+        activeUserCache.questionAsked(uid, asked);
+
+        assertEquals(asked, activeUserCache.get(uid).getLastQuestion());
+    }
+
+    @Test
+    void questionAskedNotKeptTest() {
+        activeUserCache.questionAsked(uid, new Timestamp(60000));
+
+        assertNull(activeUserCache.get(uid).getLastQuestion());
+    }
+
+    @Test
+    void evictLectureTest() {
+        ActiveUser user = activeUserCache.get(uid);
+        activeUserCache.evictLecture(lecture.getUuid());
+
+        assertNotSame(user, activeUserCache.get(uid));
+    }
+
+    @Test
+    void evictLectureClosedTest() {
+        ActiveUser user = activeUserCache.get(uid);
+        lecture.close();
+        lectureRepository.save(lecture);
+
+        assertNotSame(user, activeUserCache.get(uid));
+    }
+
+    @Test
+    void evictIdleUsersTest() {
+        ActiveUser user = activeUserCache.get(uid);
+        activeUserCache.evictIdleUsers();
+
+        assertSame(user, activeUserCache.get(uid));
+    }
+}
@@ -0,0 +1,79 @@
+package nl.tudelft.oopp.livechat.services;
+
+import nl.tudelft.oopp.livechat.entities.poll.PollEntity;
+import nl.tudelft.oopp.livechat.repositories.PollRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CurrentPollCacheTest {
+    private static final UUID lid = UUID.randomUUID();
+    private static final long now = System.currentTimeMillis();
+
+    @Autowired
+    private CurrentPollCache currentPollCache;
+
+    @Autowired
+    private PollRepository pollRepository;
+
+    @AfterEach
+    void clean() {
+        pollRepository.deleteAll(pollRepository.findAllByLectureIdOrderByTimeDesc(lid));
+    }
+
+    /**
+     * A helper method to save a poll of the lecture created at the specified time.
+     * @param time the time of the poll
+     * @return the saved poll
+     */
+    private PollEntity savePoll(long time) {
+        return pollRepository.save(new PollEntity(lid, "Why?", new Timestamp(time), 0, false));
+    }
+
+    @Test
+    void getCurrentPollNoPollTest() {
+        assertNull(currentPollCache.getCurrentPoll(lid));
+    }
+
+    @Test
+    void getCurrentPollCreatedTest() {
+        assertNull(currentPollCache.getCurrentPoll(lid));
+        PollEntity poll = savePoll(now);
+
+        assertEquals(poll.getId(), currentPollCache.getCurrentPoll(lid).getId());
+    }
+
+    @Test
+    void getCurrentPollOlderCreatedTest() {
+        PollEntity poll = savePoll(now);
+        assertEquals(poll.getId(), currentPollCache.getCurrentPoll(lid).getId());
+
+        savePoll(now - 1000);
+        assertEquals(poll.getId(), currentPollCache.getCurrentPoll(lid).getId());
+    }
+
+    @Test
+    void getCurrentPollRemovedTest() {
+        PollEntity older = savePoll(now - 1000);
+        PollEntity newer = savePoll(now);
+        assertEquals(newer.getId(), currentPollCache.getCurrentPoll(lid).getId());
+
+        pollRepository.delete(newer);
+        assertEquals(older.getId(), currentPollCache.getCurrentPoll(lid).getId());
+    }
+
+    @Test
+    void getCurrentPollEvictTest() {
+        PollEntity poll = savePoll(now);
+        currentPollCache.evict(lid);
+
+        assertEquals(poll.getId(), currentPollCache.getCurrentPoll(lid).getId());
+    }
+}
@@ -0,0 +1,129 @@
+package nl.tudelft.oopp.livechat.services;
+
+import nl.tudelft.oopp.livechat.entities.LectureEntity;
+import nl.tudelft.oopp.livechat.entities.LectureMetadata;
+import nl.tudelft.oopp.livechat.repositories.LectureRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class LectureCacheTest {
+    private static final Timestamp time = new Timestamp(System.currentTimeMillis());
+
+    @Autowired
+    private LectureCache lectureCache;
+
+    @Autowired
+    private LectureService lectureService;
+
+    @Autowired
+    private LectureRepository lectureRepository;
+
+    private LectureEntity lecture;
+
+    @BeforeEach
+    void setUp() {
+        lecture = lectureRepository.save(new LectureEntity("Names", "Jegor", time));
+    }
+
+    @AfterEach
+    void clean() {
+        if (lectureRepository.findLectureEntityByUuid(lecture.getUuid()) != null) {
+            lectureRepository.deleteById(lecture.getUuid());
+        }
+    }
+
+    @Test
+    void getTest() {
+        LectureMetadata metadata = lectureCache.get(lecture.getUuid());
+        assertEquals(lecture.getUuid(), metadata.getUuid());
+        assertEquals(lecture.getModkey(), metadata.getModkey());
+        assertTrue(metadata.isOpen());
+        assertEquals(time, metadata.getStartTime());
+        assertEquals(60, metadata.getFrequency());
+    }
+
+    @Test
+    void getSharedTest() {
+        assertSame(lectureCache.get(lecture.getUuid()), lectureCache.get(lecture.getUuid()));
+    }
+
+    @Test
+    void getNotFoundTest() {
+        assertNull(lectureCache.get(UUID.randomUUID()));
+    }
+
+    @Test
+    void getCreatedTest() {
+        LectureEntity created = new LectureEntity("Names", "Jegor", time);
+        assertNull(lectureCache.get(created.getUuid()));
+        lectureRepository.save(created);
+
+        assertNotNull(lectureCache.get(created.getUuid()));
+        lectureRepository.deleteById(created.getUuid());
+    }
+
+    @Test
+    void getAfterCloseTest() throws Exception {
+        assertTrue(lectureCache.get(lecture.getUuid()).isOpen());
+        lectureService.close(lecture.getUuid(), lecture.getModkey());
+
+        assertFalse(lectureCache.get(lecture.getUuid()).isOpen());
+    }
+
+    @Test
+    void getAfterSetFrequencyTest() throws Exception {
+        assertEquals(60, lectureCache.get(lecture.getUuid()).getFrequency());
+        lectureService.setFrequency(lecture.getUuid(), lecture.getModkey(), 5);
+
+        assertEquals(5, lectureCache.get(lecture.getUuid()).getFrequency());
+    }
+
+    @Test
+    void getAfterDeleteTest() throws Exception {
+        assertNotNull(lectureCache.get(lecture.getUuid()));
+        lectureService.delete(lecture.getUuid(), lecture.getModkey());
+
+        assertNull(lectureCache.get(lecture.getUuid()));
+    }
+
+    @Test
+    void getAfterSaveTest() {
+        assertNotNull(lectureCache.get(lecture.getUuid()));
+        lecture.close();
+        lectureRepository.save(lecture);
+        assertFalse(lectureCache.get(lecture.getUuid()).isOpen());
+
+        lecture.reOpen();
+        lectureRepository.save(lecture);
+        assertTrue(lectureCache.get(lecture.getUuid()).isOpen());
+    }
+
+    @Test
+    void invalidateTest() {
+        LectureMetadata metadata = lectureCache.get(lecture.getUuid());
+        lectureCache.invalidate(lecture.getUuid());
+
+        assertNotSame(metadata, lectureCache.get(lecture.getUuid()));
+    }
+
+    @Test
+    void boundedTest() {
+        LectureCache bounded = new LectureCache(lectureRepository, 1);
+        LectureEntity other = lectureRepository.save(new LectureEntity("Names", "Jegor", time));
+        LectureMetadata first = bounded.get(lecture.getUuid());
+        assertSame(first, bounded.get(lecture.getUuid()));
+
+        assertNotNull(bounded.get(other.getUuid()));
+        assertNotSame(first, bounded.get(lecture.getUuid()));
+        lectureRepository.deleteById(other.getUuid());
+    }
+}
@@ -0,0 +1,90 @@
+package nl.tudelft.oopp.livechat.services;
+
+import nl.tudelft.oopp.livechat.entities.LectureSpeedPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LectureSpeedHistoryTest {
+    private LectureSpeedHistory history;
+    private final UUID uuid = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        history = new LectureSpeedHistory(1000, 5);
+    }
+
+    @Test
+    void noVotesTest() {
+        assertTrue(history.getTimeline(uuid, 5000).isEmpty());
+    }
+
+    @Test
+    void votesInOneBucketTest() {
+        history.record(uuid, 1, 0, 10500);
+        history.record(uuid, 1, 1, 10900);
+
+        assertEquals(List.of(new LectureSpeedPoint(10000, 1, 1, 2)),
+                history.getTimeline(uuid, 5000, 10999));
+    }
+
+    @Test
+    void emptyBucketsCarryCountsTest() {
+        history.record(uuid, 1, 0, 10000);
+        history.record(uuid, 2, 0, 12000);
+
+        assertEquals(List.of(new LectureSpeedPoint(10000, 1, 0, 1),
+                new LectureSpeedPoint(11000, 1, 0, 0),
+                new LectureSpeedPoint(12000, 2, 0, 1),
+                new LectureSpeedPoint(13000, 2, 0, 0)),
+                history.getTimeline(uuid, 5000, 13000));
+    }
+
+    @Test
+    void windowTest() {
+        history.record(uuid, 1, 0, 10000);
+        history.record(uuid, 0, 1, 12000);
+
+        assertEquals(List.of(new LectureSpeedPoint(12000, 0, 1, 1),
+                new LectureSpeedPoint(13000, 0, 1, 0)),
+                history.getTimeline(uuid, 2000, 13000));
+    }
+
+    @Test
+    void bufferBoundedTest() {
+        for (int i = 0; i < 20; i++) {
+            history.record(uuid, i, 0, i * 1000L);
+        }
+        List<LectureSpeedPoint> timeline = history.getTimeline(uuid, 60000, 19000);
+
+        assertEquals(5, timeline.size());
+        assertEquals(new LectureSpeedPoint(15000, 15, 0, 1), timeline.get(0));
+        assertEquals(new LectureSpeedPoint(19000, 19, 0, 1), timeline.get(4));
+    }
+
+    @Test
+    void longGapTest() {
+        history.record(uuid, 3, 0, 1000);
+        history.record(uuid, 0, 0, 30000);
+
+        assertEquals(List.of(new LectureSpeedPoint(26000, 3, 0, 0),
+                new LectureSpeedPoint(27000, 3, 0, 0),
+                new LectureSpeedPoint(28000, 3, 0, 0),
+                new LectureSpeedPoint(29000, 3, 0, 0),
+                new LectureSpeedPoint(30000, 0, 0, 1)),
+                history.getTimeline(uuid, 5000, 30000));
+    }
+
+    @Test
+    void lateVoteIgnoredTest() {
+        history.record(uuid, 2, 0, 12000);
+        history.record(uuid, 1, 0, 11000);
+
+        assertEquals(List.of(new LectureSpeedPoint(12000, 2, 0, 1)),
+                history.getTimeline(uuid, 5000, 12000));
+    }
+}
@@ -11,7 +11,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -33,6 +37,9 @@ public class LectureSpeedServiceTest {
     @Autowired
     UserLectureSpeedRepository userLectureSpeedRepository;
 
+    @Autowired
+    LectureSpeedAggregator speedAggregator;
+
     @Autowired
     UserRepository userRepository;
 
@@ -139,6 +146,7 @@ public class LectureSpeedServiceTest {
     void setUserLectureSpeedVoteFasterTest() throws LectureException, UserException {
         assertEquals(0, lectureSpeedService.setUserLectureSpeedVote(uid1,
                 l1.getUuid(), "faster"));
+        speedAggregator.flush();
         UserLectureSpeedTable table = userLectureSpeedRepository.findByUserIdAndLectureId(uid1,
                                                 l1.getUuid());
         assertNotNull(table);
@@ -151,6 +159,7 @@ public class LectureSpeedServiceTest {
     void setUserLectureSpeedVoteSlowerTest() throws LectureException, UserException {
         assertEquals(0, lectureSpeedService.setUserLectureSpeedVote(uid1,
                 l1.getUuid(), "slower"));
+        speedAggregator.flush();
         UserLectureSpeedTable table = userLectureSpeedRepository.findByUserIdAndLectureId(uid1,
                 l1.getUuid());
         assertNotNull(table);
@@ -189,6 +198,7 @@ public class LectureSpeedServiceTest {
 
         assertEquals(0, lectureSpeedService.setUserLectureSpeedVote(uid1,
                 l1.getUuid(), "slower"));
+        speedAggregator.flush();
         UserLectureSpeedTable table = userLectureSpeedRepository.findByUserIdAndLectureId(uid1,
                 l1.getUuid());
         assertNotNull(table);
@@ -202,6 +212,7 @@ public class LectureSpeedServiceTest {
         lectureSpeedService.setUserLectureSpeedVote(uid1, l1.getUuid(), "slower");
         assertEquals(0, lectureSpeedService.setUserLectureSpeedVote(uid1,
                 l1.getUuid(), "faster"));
+        speedAggregator.flush();
         UserLectureSpeedTable table = userLectureSpeedRepository.findByUserIdAndLectureId(uid1,
                 l1.getUuid());
         assertNotNull(table);
@@ -218,6 +229,7 @@ public class LectureSpeedServiceTest {
         lectureRepository.save(l2);
         userRepository.save(user2);
         lectureSpeedService.setUserLectureSpeedVote(uid2, l2.getUuid(), "slower");
+        speedAggregator.flush();
         lectureRepository.deleteById(l2.getUuid());
 
         assertThrows(LectureNotFoundException.class,
@@ -232,6 +244,7 @@ public class LectureSpeedServiceTest {
     @Test
     void resetLectureSpeedWrongModKeyTest() throws LectureException, UserException {
         lectureSpeedService.setUserLectureSpeedVote(uid1, l1.getUuid(), "faster");
+        speedAggregator.flush();
 
         assertThrows(InvalidModkeyException.class,
             () -> lectureSpeedService.resetLectureSpeed(l1.getUuid(), l2.getModkey()));
@@ -292,4 +305,69 @@ public class LectureSpeedServiceTest {
         user2.setLectureId(l2.getUuid());
         userLectureSpeedRepository.deleteAllByLectureId(l1.getUuid());
     }
+
+    @Test
+    void setUserLectureSpeedVoteToggleCountsTest() throws LectureException, UserException {
+        lectureSpeedService.setUserLectureSpeedVote(uid1, l1.getUuid(), "faster");
+        lectureSpeedService.setUserLectureSpeedVote(uid1, l1.getUuid(), "slower");
+        assertEquals(List.of(0, 1), lectureSpeedService.getVotes(l1.getUuid()));
+
+        lectureSpeedService.setUserLectureSpeedVote(uid1, l1.getUuid(), "slower");
+        assertEquals(List.of(0, 0), lectureSpeedService.getVotes(l1.getUuid()));
+    }
+
+    @Test
+    void setUserLectureSpeedVoteConcurrentTest() throws Exception {
+        List<UserEntity> users = new ArrayList<>();
+        for (int i = 1; i <= 16; i++) {
+            users.add(new UserEntity(uid1 + i, "Biff", time, false,
+                    "192.168.1.2", l1.getUuid()));
+        }
+        userRepository.saveAll(users);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> votes = new ArrayList<>();
+        for (UserEntity user : users) {
+            votes.add(executor.submit(() -> lectureSpeedService
+                    .setUserLectureSpeedVote(user.getUid(), l1.getUuid(), "faster")));
+        }
+        for (Future<Integer> vote : votes) {
+            assertEquals(0, vote.get());
+        }
+        executor.shutdown();
+
+        assertEquals(List.of(16, 0), lectureSpeedService.getVotes(l1.getUuid()));
+
+        userRepository.deleteAll(users);
+        userLectureSpeedRepository.deleteAllByLectureId(l1.getUuid());
+    }
+
+    @Test
+    void getVotesBeforeFlushTest() throws LectureException, UserException {
+        lectureSpeedService.setUserLectureSpeedVote(uid1, l1.getUuid(), "slower");
+        assertEquals(List.of(0, 1), lectureSpeedService.getVotes(l1.getUuid()));
+        assertNull(userLectureSpeedRepository.findByUserIdAndLectureId(uid1, l1.getUuid()));
+
+        speedAggregator.flush();
+        LectureEntity lecture = lectureRepository.findLectureEntityByUuid(l1.getUuid());
+        assertEquals(0, lecture.getFasterCount());
+        assertEquals(1, lecture.getSlowerCount());
+        assertNotNull(userLectureSpeedRepository.findByUserIdAndLectureId(uid1, l1.getUuid()));
+
+        userLectureSpeedRepository.deleteAllByLectureId(l1.getUuid());
+    }
+
+    @Test
+    void closeLectureWritesVotesTest() throws LectureException, UserException {
+        lectureSpeedService.setUserLectureSpeedVote(uid1, l1.getUuid(), "faster");
+        LectureEntity lecture = lectureRepository.findLectureEntityByUuid(l1.getUuid());
+        lecture.close();
+        lectureRepository.save(lecture);
+
+        assertEquals(1, lectureRepository.findLectureEntityByUuid(l1.getUuid()).getFasterCount());
+        assertThrows(LectureClosedException.class, () -> lectureSpeedService
+                .setUserLectureSpeedVote(uid1, l1.getUuid(), "faster"));
+
+        userLectureSpeedRepository.deleteAllByLectureId(l1.getUuid());
+    }
 }
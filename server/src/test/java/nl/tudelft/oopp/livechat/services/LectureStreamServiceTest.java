@@ -0,0 +1,99 @@
+package nl.tudelft.oopp.livechat.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+
+/**
+ * Class for Lecture stream service tests.
+ */
+@SpringBootTest
+class LectureStreamServiceTest {
+
+    @Autowired
+    LectureStreamService lectureStreamService;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Test
+    void publishNoSubscribersTest() {
+        AtomicInteger computed = new AtomicInteger();
+        assertFalse(lectureStreamService.publish(UUID.randomUUID(), "speed",
+            computed::incrementAndGet));
+        assertEquals(0, computed.get());
+    }
+
+    @Test
+    void subscribeTest() {
+        UUID lid = UUID.randomUUID();
+        SseEmitter emitter = lectureStreamService.subscribe(lid, ArrayList::new);
+
+        assertNotNull(emitter);
+        assertEquals(1, lectureStreamService.getSubscriberCount(lid));
+        assertEquals(0, lectureStreamService.getSubscriberCount(UUID.randomUUID()));
+    }
+
+    @Test
+    void publishWithSubscribersTest() {
+        UUID lid = UUID.randomUUID();
+        lectureStreamService.subscribe(lid, () -> List.of(SseEmitter.event().data("hi")));
+
+        AtomicInteger computed = new AtomicInteger();
+        assertTrue(lectureStreamService.publish(lid, "speed", computed::incrementAndGet));
+        assertEquals(1, computed.get());
+    }
+
+    @Test
+    void publishNullDataTest() {
+        UUID lid = UUID.randomUUID();
+        lectureStreamService.subscribe(lid, ArrayList::new);
+
+        assertTrue(lectureStreamService.publish(lid, "speed", () -> null));
+    }
+
+    @Test
+    void slowSubscriberDroppedTest() {
+        //an executor that never gets to write the events, like a stalled client
+        LectureStreamService service = new LectureStreamService(objectMapper, task -> { }, 2);
+        UUID lid = UUID.randomUUID();
+        service.subscribe(lid, ArrayList::new);
+
+        assertTrue(service.publish(lid, "speed", () -> 1));
+        assertTrue(service.publish(lid, "speed", () -> 2));
+        assertEquals(1, service.getSubscriberCount(lid));
+        assertTrue(service.publish(lid, "speed", () -> 3));
+        assertEquals(0, service.getSubscriberCount(lid));
+        assertFalse(service.publish(lid, "speed", () -> 4));
+
+        service.subscribe(lid, ArrayList::new);
+        assertEquals(1, service.getSubscriberCount(lid));
+    }
+
+    @Test
+    void publishDoesNotWaitForWritingTest() {
+        List<Runnable> tasks = new ArrayList<>();
+        LectureStreamService service = new LectureStreamService(objectMapper, tasks::add, 2);
+        UUID lid = UUID.randomUUID();
+        service.subscribe(lid, ArrayList::new);
+
+        assertTrue(service.publish(lid, "speed", () -> 1));
+        assertTrue(service.publish(lid, "speed", () -> 2));
+        //one writer for both events
+        assertEquals(1, tasks.size());
+
+        tasks.get(0).run();
+        assertTrue(service.publish(lid, "speed", () -> 3));
+        assertEquals(2, tasks.size());
+        assertEquals(1, service.getSubscriberCount(lid));
+    }
+}
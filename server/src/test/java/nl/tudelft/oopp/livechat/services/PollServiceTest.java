@@ -16,7 +16,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -59,6 +64,9 @@ public class PollServiceTest {
     @Autowired
     private LectureService lectureService;
 
+    @Autowired
+    private PollVoteCounter pollVoteCounter;
+
 
     /**
      * Setup for the tests.
@@ -319,11 +327,14 @@ public class PollServiceTest {
 
     @Test
     public void voteOnPollSuccessfulTest() throws Exception {
-        long oldVotes = pollOptionRepository.findById(option1.getId()).getVotes();
-        int size = userPollVoteRepository.findAllByUserId(user1.getUid()).size();
+        final long oldVotes = pollOptionRepository.findById(option1.getId()).getVotes();
+        final long oldPollVotes = pollRepository.findById(poll1.getId()).getVotes();
+        final int size = userPollVoteRepository.findAllByUserId(user1.getUid()).size();
 
         assertEquals(0, pollService.voteOnPoll(user1.getUid(), option1.getId()));
+        pollVoteCounter.flush();
         assertEquals(oldVotes + 1, pollOptionRepository.findById(option1.getId()).getVotes());
+        assertEquals(oldPollVotes + 1, pollRepository.findById(poll1.getId()).getVotes());
         assertEquals(size + 1, userPollVoteRepository.findAllByUserId(user1.getUid()).size());
 
         userPollVoteRepository.deleteAllByOptionId(option1.getId());
@@ -331,12 +342,13 @@ public class PollServiceTest {
 
     @Test
     public void voteOnPollSuccessfulAnotherPollTest() throws Exception {
-        long oldVotes = pollOptionRepository.findById(option1.getId()).getVotes();
+        final long oldVotes = pollOptionRepository.findById(option1.getId()).getVotes();
         userPollVoteRepository.save(new UserPollVoteTable(user1.getUid(),
                 option2.getId(), poll2.getId()));
-        int size = userPollVoteRepository.findAllByUserId(user1.getUid()).size();
+        final int size = userPollVoteRepository.findAllByUserId(user1.getUid()).size();
 
         assertEquals(0, pollService.voteOnPoll(user1.getUid(), option1.getId()));
+        pollVoteCounter.flush();
         assertEquals(oldVotes + 1, pollOptionRepository.findById(option1.getId()).getVotes());
         assertEquals(size + 1, userPollVoteRepository.findAllByUserId(user1.getUid()).size());
 
@@ -344,6 +356,45 @@ public class PollServiceTest {
         userPollVoteRepository.deleteAllByOptionId(option2.getId());
     }
 
+    @Test
+    public void voteOnPollBurstTest() throws Exception {
+        final long oldVotes = pollOptionRepository.findById(option1.getId()).getVotes();
+        List<UserEntity> users = new ArrayList<>();
+        for (int i = 1; i <= 200; i++) {
+            users.add(new UserEntity(uid1 + i, "Alien", time, false,
+                    "192.168.1.2", l1.getUuid()));
+        }
+        userRepository.saveAll(users);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> votes = new ArrayList<>();
+        for (UserEntity user : users) {
+            votes.add(executor.submit(() -> pollService.voteOnPoll(user.getUid(),
+                    option1.getId())));
+            votes.add(executor.submit(() -> pollService.voteOnPoll(user.getUid(),
+                    option2.getId())));
+        }
+        int voted = 0;
+        for (Future<Integer> vote : votes) {
+            try {
+                voted += vote.get() == 0 ? 1 : 0;
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof PollAlreadyVotedException);
+            }
+        }
+        executor.shutdown();
+        assertEquals(200, voted);
+
+        pollVoteCounter.flush();
+        long optionVotes = pollOptionRepository.findById(option1.getId()).getVotes() - oldVotes
+                + pollOptionRepository.findById(option2.getId()).getVotes() - option2.getVotes();
+        assertEquals(200, optionVotes);
+        assertEquals(poll1.getVotes() + 200, pollRepository.findById(poll1.getId()).getVotes());
+
+        userPollVoteRepository.deleteAllByPollId(poll1.getId());
+        userRepository.deleteAll(users);
+    }
+
     /**
      * Tests for fetchPollAndOptions for student.
      */
@@ -393,6 +444,16 @@ public class PollServiceTest {
         });
     }
 
+    @Test
+    public void fetchPollAndOptionsStudentSharedTest() throws Exception {
+        PollAndOptions pollAndOptions = pollService.fetchPollAndOptionsStudent(l1.getUuid());
+        assertSame(pollAndOptions, pollService.fetchPollAndOptionsStudent(l1.getUuid()));
+
+        //the entities are not changed to hide the votes
+        assertEquals(2, pollOptionRepository.findById(option1.getId()).getVotes());
+        assertTrue(pollOptionRepository.findById(option2.getId()).isCorrect());
+    }
+
     /**
      * Tests for fetchPollAndOptions for lecturer.
      */
@@ -430,6 +491,29 @@ public class PollServiceTest {
         pollAndOptions.getOptions().forEach(o -> assertNotEquals(0, o.getVotes()));
     }
 
+    @Test
+    public void fetchPollAndOptionsLecturerAfterVoteTest() throws Exception {
+        final PollAndOptions before =
+                pollService.fetchPollAndOptionsLecturer(l1.getUuid(), l1.getModkey());
+        final PollAndOptions studentBefore = pollService.fetchPollAndOptionsStudent(l1.getUuid());
+        pollService.voteOnPoll(user1.getUid(), option1.getId());
+
+        PollAndOptions after =
+                pollService.fetchPollAndOptionsLecturer(l1.getUuid(), l1.getModkey());
+        assertNotSame(before, after);
+        assertEquals(before.getPoll().getVotes() + 1, after.getPoll().getVotes());
+        for (PollOptionEntity option : after.getOptions()) {
+            assertEquals(option.getId() == option1.getId() ? 3 : 1, option.getVotes());
+        }
+        //the poll is open, so the students still share the view without votes
+        assertSame(studentBefore, pollService.fetchPollAndOptionsStudent(l1.getUuid()));
+        assertEquals(0, studentBefore.getPoll().getVotes());
+        studentBefore.getOptions().forEach(o -> assertEquals(0, o.getVotes()));
+
+        pollVoteCounter.flush();
+        userPollVoteRepository.deleteAllByOptionId(option1.getId());
+    }
+
     /**
      * Tests for reset votes.
      */
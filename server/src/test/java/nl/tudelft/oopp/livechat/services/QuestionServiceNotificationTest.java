@@ -0,0 +1,92 @@
+package nl.tudelft.oopp.livechat.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+
+
+/**
+ * Class for the tests of the question service notifying the clients
+ *     once per notification window.
+ */
+@SpringBootTest(properties = "lecture.notification.window=200")
+class QuestionServiceNotificationTest {
+
+    @Autowired
+    QuestionService questionService;
+
+    @Test
+    void lectureWaiterNotifiedOnceInWindowTest() throws InterruptedException {
+        UUID lid = UUID.randomUUID();
+        long version = questionService.getLectureVersion(lid);
+        DeferredResult<ResponseEntity<byte[]>> waiter = new DeferredResult<>();
+        final CountDownLatch notified = completion(waiter);
+        questionService.addLectureWaiter(lid, version, waiter);
+
+        questionService.addLectureChanged(lid);
+        questionService.addLectureChanged(lid);
+        questionService.addLectureChanged(lid);
+        assertFalse(waiter.hasResult());
+
+        assertTrue(notified.await(5, TimeUnit.SECONDS));
+        ResponseEntity<?> response = (ResponseEntity<?>) waiter.getResult();
+        assertEquals(Long.toString(version + 3),
+                response.getHeaders().getFirst(QuestionService.VERSION_HEADER));
+        assertEquals(0, questionService.getLectureWaiterCount(lid));
+    }
+
+    @Test
+    void lectureWaiterBehindParkedWhilePendingTest() throws InterruptedException {
+        UUID lid = UUID.randomUUID();
+        long version = questionService.getLectureVersion(lid);
+        questionService.addLectureChanged(lid);
+
+        DeferredResult<ResponseEntity<byte[]>> waiter = new DeferredResult<>();
+        CountDownLatch notified = completion(waiter);
+        questionService.addChangesWaiter(lid, version, waiter);
+        assertFalse(waiter.hasResult());
+        assertTrue(notified.await(5, TimeUnit.SECONDS));
+
+        //after the window, the clients that are behind are answered at once
+        DeferredResult<ResponseEntity<byte[]>> late = new DeferredResult<>();
+        questionService.addLectureWaiter(lid, version, late);
+        assertTrue(late.hasResult());
+    }
+
+    @Test
+    void lectureWaiterNotifiedByNotificationThreadTest() throws InterruptedException {
+        UUID lid = UUID.randomUUID();
+        DeferredResult<ResponseEntity<byte[]>> waiter = new DeferredResult<>();
+        AtomicReference<String> thread = new AtomicReference<>();
+        CountDownLatch notified = new CountDownLatch(1);
+        waiter.setResultHandler(result -> {
+            thread.set(Thread.currentThread().getName());
+            notified.countDown();
+        });
+        questionService.addLectureWaiter(lid, questionService.getLectureVersion(lid), waiter);
+
+        questionService.addLectureChanged(lid);
+
+        assertTrue(notified.await(5, TimeUnit.SECONDS));
+        assertTrue(thread.get().startsWith("lecture-notify-"));
+    }
+
+    /**
+     * A helper method to wait for a deferred result to be completed.
+     * @param waiter the deferred result
+     * @return the latch released when the result is set
+     */
+    private static CountDownLatch completion(DeferredResult<?> waiter) {
+        CountDownLatch latch = new CountDownLatch(1);
+        waiter.setResultHandler(result -> latch.countDown());
+        return latch;
+    }
+}
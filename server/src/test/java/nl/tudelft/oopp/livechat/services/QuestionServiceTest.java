@@ -3,10 +3,14 @@ package nl.tudelft.oopp.livechat.services;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
 import java.sql.Timestamp;
 import java.util.List;
 import java.util.UUID;
 import nl.tudelft.oopp.livechat.entities.LectureEntity;
+import nl.tudelft.oopp.livechat.entities.QuestionChanges;
 import nl.tudelft.oopp.livechat.entities.QuestionEntity;
 import nl.tudelft.oopp.livechat.entities.UserEntity;
 import nl.tudelft.oopp.livechat.entities.UserQuestionTable;
@@ -18,6 +22,8 @@ import nl.tudelft.oopp.livechat.repositories.UserRepository;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
 
 
 /**
@@ -50,6 +56,15 @@ class QuestionServiceTest {
     @Autowired
     QuestionService questionService;
 
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    QuestionStore questionStore;
+
+    @Autowired
+    QuestionVoteCounter voteCounter;
+
     @Autowired
     QuestionRepository questionRepository;
 
@@ -569,6 +584,7 @@ class QuestionServiceTest {
     void upvoteTest() throws Exception {
         assertEquals(0, questionService.upvote(q2.getId(), uid2));
 
+        voteCounter.flush();
         QuestionEntity q = questionRepository.findById(q2.getId()).orElse(null);
         assertNotNull(q);
         assertEquals(1, q.getVotes());
@@ -586,6 +602,7 @@ class QuestionServiceTest {
 
         assertEquals(0, questionService.upvote(q2.getId(), uid2));
 
+        voteCounter.flush();
         QuestionEntity q = questionRepository.findById(q2.getId()).orElse(null);
         assertNotNull(q);
         assertEquals(0, q.getVotes());
@@ -597,6 +614,40 @@ class QuestionServiceTest {
         userQuestionRepository.deleteAllByQuestionId(q2.getId());
     }
 
+    @Test
+    void upvoteCountedInMemoryTest() throws Exception {
+        questionService.upvote(q2.getId(), uid2);
+
+        assertEquals(1, questionService.getQuestionsByLectureId(l2.getUuid()).get(0).getVotes());
+        assertEquals(0, questionRepository.findById(q2.getId()).orElseThrow().getVotes());
+        assertTrue(userQuestionRepository.getAllByQuestionId(q2.getId()).isEmpty());
+
+        //the vote is known before it is written, so it is taken back
+        questionService.upvote(q2.getId(), uid2);
+        questionService.upvote(q2.getId(), uid2);
+        voteCounter.flush();
+        assertEquals(1, questionRepository.findById(q2.getId()).orElseThrow().getVotes());
+        assertEquals(1, userQuestionRepository.getAllByQuestionId(q2.getId()).size());
+
+        userQuestionRepository.deleteAllByQuestionId(q2.getId());
+    }
+
+    @Test
+    void upvoteOtherVotersTest() throws Exception {
+        userQuestionRepository.save(new UserQuestionTable(uid1, q2.getId()));
+
+        assertEquals(0, questionService.upvote(q2.getId(), uid2));
+        voteCounter.flush();
+        assertEquals(2, userQuestionRepository.getAllByQuestionId(q2.getId()).size());
+        assertEquals(0, questionService.upvote(q2.getId(), uid2));
+        voteCounter.flush();
+
+        List<UserQuestionTable> table = userQuestionRepository.getAllByQuestionId(q2.getId());
+        assertEquals(List.of(new UserQuestionTable(uid1, q2.getId())), table);
+
+        userQuestionRepository.deleteAllByQuestionId(q2.getId());
+    }
+
     /**
      * Tests related to answer method.
      */
@@ -765,6 +816,247 @@ class QuestionServiceTest {
 
     @Test
     void lectureWasNotChangedTest() throws Exception {
-        assertFalse(questionService.wasLectureChanged(UUID.randomUUID()));
+        UUID lid = UUID.randomUUID();
+        assertFalse(questionService.wasLectureChanged(lid,
+                questionService.getLectureVersion(lid)));
+    }
+
+    @Test
+    void lectureWasChangedTest() throws Exception {
+        long version = questionService.getLectureVersion(l1.getUuid());
+        questionService.addLectureChanged(l1.getUuid());
+
+        assertTrue(questionService.wasLectureChanged(l1.getUuid(), version));
+        assertEquals(version + 1, questionService.getLectureVersion(l1.getUuid()));
+        assertFalse(questionService.wasLectureChanged(l2.getUuid(),
+                questionService.getLectureVersion(l2.getUuid())));
+    }
+
+    @Test
+    void upvoteChangesLectureVersionTest() throws Exception {
+        long version = questionService.getLectureVersion(l1.getUuid());
+        questionService.upvote(q1.getId(), uid1);
+
+        assertTrue(questionService.wasLectureChanged(l1.getUuid(), version));
+    }
+
+    @Test
+    void getVersionedQuestionsTest() {
+        long version = questionService.getLectureVersion(l1.getUuid());
+        ResponseEntity<byte[]> response = questionService.getVersionedQuestions(l1.getUuid());
+
+        assertQuestionIds(List.of(q1), readTree(response));
+        assertEquals(Long.toString(version),
+                response.getHeaders().getFirst(QuestionService.VERSION_HEADER));
+    }
+
+    @Test
+    void lectureWaiterCompletedOnChangeTest() {
+        DeferredResult<ResponseEntity<byte[]>> waiter = new DeferredResult<>();
+        long version = questionService.getLectureVersion(l1.getUuid());
+        questionService.addLectureWaiter(l1.getUuid(), version, waiter);
+        assertEquals(1, questionService.getLectureWaiterCount(l1.getUuid()));
+        assertFalse(waiter.hasResult());
+
+        questionService.addLectureChanged(l1.getUuid());
+
+        assertTrue(waiter.hasResult());
+        ResponseEntity<?> response = (ResponseEntity<?>) waiter.getResult();
+        assertQuestionIds(List.of(q1), readTree(response));
+        assertEquals(Long.toString(version + 1),
+                response.getHeaders().getFirst(QuestionService.VERSION_HEADER));
+        assertEquals(0, questionService.getLectureWaiterCount(l1.getUuid()));
+    }
+
+    @Test
+    void evictLectureOnCloseTest() throws Exception {
+        questionService.getVersionedQuestions(l1.getUuid());
+        assertTrue(questionStore.isLoaded(l1.getUuid()));
+
+        lectureService.close(l1.getUuid(), l1.getModkey());
+
+        assertFalse(questionStore.isLoaded(l1.getUuid()));
+        assertQuestionIds(List.of(q1),
+                readTree(questionService.getVersionedQuestions(l1.getUuid())));
+    }
+
+    @Test
+    void evictLectureOnDeleteTest() {
+        lectureRepository.save(l3);
+        questionService.getQuestionsByLectureId(l3.getUuid());
+        assertTrue(questionStore.isLoaded(l3.getUuid()));
+
+        lectureRepository.deleteById(l3.getUuid());
+
+        assertFalse(questionStore.isLoaded(l3.getUuid()));
+        assertFalse(questionService.lectureExists(l3.getUuid()));
+    }
+
+    @Test
+    void evictLectureCompletesWaitersTest() {
+        DeferredResult<ResponseEntity<byte[]>> waiter = new DeferredResult<>();
+        long version = questionService.getLectureVersion(l1.getUuid());
+        questionService.addLectureWaiter(l1.getUuid(), version, waiter);
+
+        questionService.evictLecture(l1.getUuid());
+
+        assertTrue(waiter.hasResult());
+        assertEquals(0, questionService.getLectureWaiterCount(l1.getUuid()));
+    }
+
+    @Test
+    void lectureWaitersShareSnapshotTest() {
+        DeferredResult<ResponseEntity<byte[]>> waiter1 = new DeferredResult<>();
+        DeferredResult<ResponseEntity<byte[]>> waiter2 = new DeferredResult<>();
+        long version = questionService.getLectureVersion(l1.getUuid());
+        questionService.addLectureWaiter(l1.getUuid(), version, waiter1);
+        questionService.addLectureWaiter(l1.getUuid(), version, waiter2);
+
+        questionService.addLectureChanged(l1.getUuid());
+
+        byte[] json1 = (byte[]) ((ResponseEntity<?>) waiter1.getResult()).getBody();
+        byte[] json2 = (byte[]) ((ResponseEntity<?>) waiter2.getResult()).getBody();
+        assertNotNull(json1);
+        assertSame(json1, json2);
+        assertSame(json1, questionService.getVersionedQuestions(l1.getUuid()).getBody());
+    }
+
+    @Test
+    void lectureWaiterAlreadyChangedTest() {
+        DeferredResult<ResponseEntity<byte[]>> waiter = new DeferredResult<>();
+        long version = questionService.getLectureVersion(l1.getUuid());
+        questionService.addLectureChanged(l1.getUuid());
+
+        questionService.addLectureWaiter(l1.getUuid(), version, waiter);
+
+        assertTrue(waiter.hasResult());
+        assertEquals(0, questionService.getLectureWaiterCount(l1.getUuid()));
+    }
+
+    @Test
+    void lectureWaiterOtherLectureNotCompletedTest() {
+        DeferredResult<ResponseEntity<byte[]>> waiter = new DeferredResult<>();
+        questionService.addLectureWaiter(l1.getUuid(),
+                questionService.getLectureVersion(l1.getUuid()), waiter);
+
+        questionService.addLectureChanged(l2.getUuid());
+
+        assertFalse(waiter.hasResult());
+        questionService.removeLectureWaiter(l1.getUuid(), waiter);
+        assertEquals(0, questionService.getLectureWaiterCount(l1.getUuid()));
+    }
+
+    @Test
+    void getQuestionChangesUpvotedTest() throws Exception {
+        long version = questionService.getLectureVersion(l1.getUuid());
+        questionService.upvote(q1.getId(), uid1);
+
+        QuestionChanges changes = questionService.getQuestionChanges(l1.getUuid(), version);
+        assertEquals(version + 1, changes.getVersion());
+        assertFalse(changes.isFull());
+        assertEquals(List.of(q1), changes.getQuestions());
+        assertEquals(1, changes.getQuestions().get(0).getVotes());
+        assertTrue(changes.getRemoved().isEmpty());
+    }
+
+    @Test
+    void getQuestionChangesDeletedTest() throws Exception {
+        questionService.upvote(q1.getId(), uid1);
+        long version = questionService.getLectureVersion(l1.getUuid());
+        questionService.deleteQuestion(q1.getId(), uid1);
+
+        QuestionChanges changes = questionService.getQuestionChanges(l1.getUuid(), version);
+        assertFalse(changes.isFull());
+        assertTrue(changes.getQuestions().isEmpty());
+        assertEquals(List.of(q1.getId()), changes.getRemoved());
+    }
+
+    @Test
+    void getQuestionChangesNothingChangedTest() {
+        long version = questionService.getLectureVersion(l1.getUuid());
+
+        assertEquals(new QuestionChanges(version, false, List.of(), List.of()),
+                questionService.getQuestionChanges(l1.getUuid(), version));
+    }
+
+    @Test
+    void getQuestionChangesUnknownVersionTest() {
+        long version = questionService.getLectureVersion(l1.getUuid());
+
+        QuestionChanges changes = questionService.getQuestionChanges(l1.getUuid(), version + 5);
+        assertTrue(changes.isFull());
+        assertEquals(version, changes.getVersion());
+        assertEquals(List.of(q1), changes.getQuestions());
+    }
+
+    @Test
+    void getQuestionChangesAfterResetTest() {
+        long version = questionService.getLectureVersion(l1.getUuid());
+        questionService.addLectureChanged(l1.getUuid());
+
+        QuestionChanges changes = questionService.getQuestionChanges(l1.getUuid(), version);
+        assertTrue(changes.isFull());
+        assertEquals(List.of(q1), changes.getQuestions());
+    }
+
+    @Test
+    void changesWaiterCompletedOnChangeTest() {
+        DeferredResult<ResponseEntity<byte[]>> waiter = new DeferredResult<>();
+        long version = questionService.getLectureVersion(l1.getUuid());
+        questionService.addChangesWaiter(l1.getUuid(), version, waiter);
+        assertEquals(1, questionService.getLectureWaiterCount(l1.getUuid()));
+        assertFalse(waiter.hasResult());
+
+        questionService.addQuestionRemoved(l1.getUuid(), q1.getId());
+
+        assertTrue(waiter.hasResult());
+        JsonNode changes = readTree((ResponseEntity<?>) waiter.getResult());
+        assertEquals(version + 1, changes.get("version").asLong());
+        assertFalse(changes.get("full").asBoolean());
+        assertQuestionIds(List.of(), changes.get("questions"));
+        assertEquals(q1.getId(), changes.get("removed").get(0).asLong());
+        assertEquals(0, questionService.getLectureWaiterCount(l1.getUuid()));
+    }
+
+    @Test
+    void changesWaiterAlreadyChangedTest() {
+        DeferredResult<ResponseEntity<byte[]>> waiter = new DeferredResult<>();
+        long version = questionService.getLectureVersion(l1.getUuid());
+        questionService.addQuestionChanged(l1.getUuid(), q1.getId());
+
+        questionService.addChangesWaiter(l1.getUuid(), version, waiter);
+
+        assertTrue(waiter.hasResult());
+        JsonNode changes = readTree((ResponseEntity<?>) waiter.getResult());
+        assertEquals(version + 1, changes.get("version").asLong());
+        assertFalse(changes.get("full").asBoolean());
+        assertQuestionIds(List.of(q1), changes.get("questions"));
+        assertEquals(0, changes.get("removed").size());
+        assertEquals(0, questionService.getLectureWaiterCount(l1.getUuid()));
+    }
+
+    /**
+     * A helper method to read the JSON body of a response.
+     * @param response the response with the JSON body
+     * @return the JSON tree of the body
+     */
+    private JsonNode readTree(ResponseEntity<?> response) {
+        try {
+            return objectMapper.readTree((byte[]) response.getBody());
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * A helper method to check the ids of the questions in a JSON array.
+     * @param expected the expected questions
+     * @param actual the JSON array of questions
+     */
+    private static void assertQuestionIds(List<QuestionEntity> expected, JsonNode actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getId(), actual.get(i).get("id").asLong());
+        }
     }
-}
\ No newline at end of file
+}
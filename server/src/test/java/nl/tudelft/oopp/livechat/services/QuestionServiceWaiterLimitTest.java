@@ -0,0 +1,113 @@
+package nl.tudelft.oopp.livechat.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+
+
+/**
+ * Class for the tests of the question service turning clients away
+ *     when too many clients are waiting.
+ */
+@SpringBootTest(properties = {"lecture.waiters.max-per-lecture=2",
+    "lecture.waiters.max-total=3", "lecture.waiters.retry-after=7"})
+class QuestionServiceWaiterLimitTest {
+
+    @Autowired
+    QuestionService questionService;
+
+    private final UUID lid1 = UUID.randomUUID();
+
+    private final UUID lid2 = UUID.randomUUID();
+
+    @AfterEach
+    void tearDown() {
+        questionService.evictLecture(lid1);
+        questionService.evictLecture(lid2);
+    }
+
+    @Test
+    void perLectureLimitTest() {
+        park(lid1);
+        DeferredResult<ResponseEntity<byte[]>> changes = new DeferredResult<>();
+        questionService.addChangesWaiter(lid1, questionService.getLectureVersion(lid1), changes);
+        assertFalse(changes.hasResult());
+        long rejected = questionService.getRejectedWaiterCount();
+
+        DeferredResult<ResponseEntity<byte[]>> waiter = park(lid1);
+
+        assertBusy(waiter);
+        assertEquals(2, questionService.getLectureWaiterCount(lid1));
+        assertEquals(rejected + 1, questionService.getRejectedWaiterCount());
+        //the other lectures are not affected
+        assertFalse(park(lid2).hasResult());
+    }
+
+    @Test
+    void totalLimitTest() {
+        park(lid1);
+        park(lid1);
+        park(lid2);
+        assertEquals(3, questionService.getWaiterCount());
+
+        DeferredResult<ResponseEntity<byte[]>> waiter = new DeferredResult<>();
+        questionService.addChangesWaiter(lid2, questionService.getLectureVersion(lid2), waiter);
+
+        assertBusy(waiter);
+        assertEquals(1, questionService.getLectureWaiterCount(lid2));
+    }
+
+    @Test
+    void limitFreedByNotificationTest() {
+        park(lid1);
+        park(lid1);
+        assertEquals(2, questionService.getWaiterCount());
+
+        questionService.addLectureChanged(lid1);
+
+        assertEquals(0, questionService.getWaiterCount());
+        assertFalse(park(lid1).hasResult());
+    }
+
+    @Test
+    void limitFreedByRemovalTest() {
+        DeferredResult<ResponseEntity<byte[]>> waiter = park(lid1);
+        park(lid1);
+
+        questionService.removeLectureWaiter(lid1, waiter);
+        questionService.removeLectureWaiter(lid1, waiter);
+
+        assertEquals(1, questionService.getWaiterCount());
+        assertFalse(park(lid1).hasResult());
+    }
+
+    /**
+     * A helper method to park a client waiting for all the questions of a lecture.
+     * @param lid the id of the lecture
+     * @return the deferred result of the client
+     */
+    private DeferredResult<ResponseEntity<byte[]>> park(UUID lid) {
+        DeferredResult<ResponseEntity<byte[]>> waiter = new DeferredResult<>();
+        questionService.addLectureWaiter(lid, questionService.getLectureVersion(lid), waiter);
+        return waiter;
+    }
+
+    /**
+     * A helper method to check that a client has been turned away.
+     * @param waiter the deferred result of the client
+     */
+    private static void assertBusy(DeferredResult<ResponseEntity<byte[]>> waiter) {
+        assertTrue(waiter.hasResult());
+        ResponseEntity<?> response = (ResponseEntity<?>) waiter.getResult();
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("7", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+}
@@ -0,0 +1,180 @@
+package nl.tudelft.oopp.livechat.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import nl.tudelft.oopp.livechat.entities.LectureEntity;
+import nl.tudelft.oopp.livechat.entities.QuestionEntity;
+import nl.tudelft.oopp.livechat.repositories.LectureRepository;
+import nl.tudelft.oopp.livechat.repositories.QuestionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+
+/**
+ * Class for Question store tests.
+ */
+@SpringBootTest
+class QuestionStoreTest {
+
+    @Autowired
+    QuestionStore questionStore;
+
+    @Autowired
+    QuestionRepository questionRepository;
+
+    @Autowired
+    LectureRepository lectureRepository;
+
+    private LectureEntity lecture;
+    private QuestionEntity q1;
+    private QuestionEntity q2;
+    private AtomicInteger loads;
+    private Function<UUID, List<QuestionEntity>> loader;
+
+    @BeforeEach
+    void setUp() {
+        Timestamp time = new Timestamp(System.currentTimeMillis() / 1000 * 1000);
+        lecture = new LectureEntity("Lecture", "Sebastian Proksch", time);
+        lectureRepository.save(lecture);
+        q1 = new QuestionEntity(lecture.getUuid(), "Is this recorded?", time, 1);
+        q2 = new QuestionEntity(lecture.getUuid(), "Where are the slides?", time, 2);
+        questionRepository.save(q1);
+        questionRepository.save(q2);
+
+        loads = new AtomicInteger();
+        loader = lid -> {
+            loads.incrementAndGet();
+            return questionRepository.findAllByLectureId(lid);
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        questionRepository.deleteAll(questionRepository.findAllByLectureId(lecture.getUuid()));
+        lectureRepository.delete(lecture);
+    }
+
+    @Test
+    void getQuestionsLoadedOnceTest() {
+        assertFalse(questionStore.isLoaded(lecture.getUuid()));
+        assertEquals(2, questionStore.getQuestions(lecture.getUuid(), loader).size());
+        assertEquals(2, questionStore.getQuestions(lecture.getUuid(), loader).size());
+        assertTrue(questionStore.isLoaded(lecture.getUuid()));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void getQuestionsLectureNotFoundTest() {
+        UUID lid = UUID.randomUUID();
+        assertTrue(questionStore.getQuestions(lid, id -> null).isEmpty());
+        assertFalse(questionStore.isLoaded(lid));
+    }
+
+    @Test
+    void getQuestionCopyTest() {
+        questionStore.getQuestions(lecture.getUuid(), loader);
+        QuestionEntity q = questionStore.getQuestion(q1.getId(),
+            id -> Optional.empty(), loader).orElse(null);
+
+        assertNotNull(q);
+        q.setText("Modified without saving");
+        assertEquals("Is this recorded?", questionStore
+                .getQuestion(lecture.getUuid(), q1.getId(), loader).orElseThrow().getText());
+    }
+
+    @Test
+    void getQuestionNotLoadedTest() {
+        Optional<QuestionEntity> q = questionStore.getQuestion(q2.getId(),
+            questionRepository::findById, loader);
+
+        assertTrue(q.isPresent());
+        assertTrue(questionStore.isLoaded(lecture.getUuid()));
+    }
+
+    @Test
+    void savedQuestionTest() {
+        questionStore.getQuestions(lecture.getUuid(), loader);
+        QuestionEntity q = questionStore.getQuestion(lecture.getUuid(), q1.getId(), loader)
+                .orElseThrow();
+        q.setText("Is this recorded again?");
+        questionRepository.save(q);
+
+        assertEquals("Is this recorded again?", questionStore
+                .getQuestion(lecture.getUuid(), q1.getId(), loader).orElseThrow().getText());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void addVotesTest() {
+        questionStore.getQuestions(lecture.getUuid(), loader);
+        questionStore.addVotes(lecture.getUuid(), q1.getId(), 1);
+        questionStore.addVotes(lecture.getUuid(), q1.getId(), 1);
+
+        assertEquals(2, questionStore.getQuestion(lecture.getUuid(), q1.getId(), loader)
+                .orElseThrow().getVotes());
+    }
+
+    @Test
+    void savedQuestionKeepsVotesTest() {
+        questionStore.getQuestions(lecture.getUuid(), loader);
+        questionStore.addVotes(lecture.getUuid(), q1.getId(), 1);
+        QuestionEntity q = questionStore.getQuestion(lecture.getUuid(), q1.getId(), loader)
+                .orElseThrow();
+        q.setVotes(42);
+        questionRepository.save(q);
+
+        assertEquals(1, questionStore.getQuestion(lecture.getUuid(), q1.getId(), loader)
+                .orElseThrow().getVotes());
+        assertEquals(0, questionRepository.findById(q1.getId()).orElseThrow().getVotes());
+    }
+
+    @Test
+    void newQuestionTest() {
+        questionStore.getQuestions(lecture.getUuid(), loader);
+        QuestionEntity q3 = new QuestionEntity(lecture.getUuid(), "Can you speak up?",
+                null, 3);
+        questionRepository.save(q3);
+
+        assertEquals(3, questionStore.getQuestions(lecture.getUuid(), loader).size());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void removedQuestionTest() {
+        questionStore.getQuestions(lecture.getUuid(), loader);
+        questionRepository.deleteById(q2.getId());
+
+        assertEquals(List.of(q1), questionStore.getQuestions(lecture.getUuid(), loader));
+        assertTrue(questionStore.getQuestion(q2.getId(),
+            questionRepository::findById, loader).isEmpty());
+    }
+
+    @Test
+    void movedQuestionTest() {
+        questionStore.getQuestions(lecture.getUuid(), loader);
+        q2.setLectureId(UUID.randomUUID());
+        questionRepository.save(q2);
+
+        assertEquals(List.of(q1), questionStore.getQuestions(lecture.getUuid(), loader));
+    }
+
+    @Test
+    void evictTest() {
+        questionStore.getQuestions(lecture.getUuid(), loader);
+        questionStore.evict(lecture.getUuid());
+
+        assertFalse(questionStore.isLoaded(lecture.getUuid()));
+        assertEquals(2, questionStore.getQuestions(lecture.getUuid(), loader).size());
+        assertEquals(2, loads.get());
+    }
+}